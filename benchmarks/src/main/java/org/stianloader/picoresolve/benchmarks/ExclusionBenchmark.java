@@ -0,0 +1,72 @@
+package org.stianloader.picoresolve.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.stianloader.picoresolve.exclusion.Excluder;
+import org.stianloader.picoresolve.exclusion.Exclusion;
+import org.stianloader.picoresolve.exclusion.ExclusionContainer;
+import org.stianloader.picoresolve.exclusion.ExclusionContainer.ExclusionMode;
+
+/**
+ * Measures {@link ExclusionContainer#isExcluding(String, String)} on exclusion trees shaped like the
+ * ones built by the resolver: Every layer ORs the exclusions of an element with the AND of the exclusions of
+ * all incoming edges, which are themselves such trees.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExclusionBenchmark {
+
+    @Param({"4", "16", "64"})
+    public int depth;
+
+    @Param({"1", "3"})
+    public int incomingEdges;
+
+    private Excluder tree;
+
+    @Benchmark
+    public boolean excluded() {
+        return this.tree.isExcluding("org.example", "excluded-0");
+    }
+
+    @Benchmark
+    public boolean notExcluded() {
+        return this.tree.isExcluding("org.example", "not-excluded");
+    }
+
+    @Setup
+    public void setup() {
+        Excluder current = ExclusionContainer.empty();
+
+        for (int layer = 0; layer < this.depth; layer++) {
+            ExclusionContainer<Excluder> incoming = new ExclusionContainer<>(ExclusionMode.ALL);
+
+            for (int i = 0; i < this.incomingEdges; i++) {
+                incoming.addChild(current);
+            }
+
+            ExclusionContainer<Excluder> element = new ExclusionContainer<>(ExclusionMode.ANY);
+            element.addChild(incoming);
+            element.addChild(new Exclusion("org.example", "excluded-" + layer));
+            element.addChild(new Exclusion("org.example." + layer, "*"));
+            current = element;
+        }
+
+        this.tree = current;
+    }
+}
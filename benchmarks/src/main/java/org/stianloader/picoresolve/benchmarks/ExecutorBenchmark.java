@@ -0,0 +1,164 @@
+package org.stianloader.picoresolve.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.stianloader.picoresolve.DependencyLayer;
+import org.stianloader.picoresolve.GAV;
+import org.stianloader.picoresolve.MavenResolver;
+import org.stianloader.picoresolve.ResolverExecutors;
+import org.stianloader.picoresolve.repo.MavenLocalRepositoryNegotiator;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+import org.stianloader.picoresolve.test.util.FileDeleter;
+import org.stianloader.picoresolve.test.util.NOPLogger;
+import org.stianloader.picoresolve.test.util.RepositoryGenerator;
+import org.stianloader.picoresolve.version.MavenVersion;
+
+/**
+ * Compares executors for blocking repositories: A synthetic repository on the local file system is accessed through
+ * a {@link URIMavenRepository} that blocks for a fixed amount of time before serving each request, emulating the
+ * latency of a remote repository accessed through a blocking transport.
+ *
+ * <p>The "fixed-cpu" and "fixed-64" executors are platform thread pools with as many threads as there are processors
+ * or 64 threads respectively. The "bounded" executor is created through {@link ResolverExecutors#newBoundedExecutor()},
+ * which makes use of virtual threads if the benchmarks are run on Java 21 or above.
+ *
+ * <p>{@link #fetchMetadata()} requests the maven-metadata.xml files of all generated artifacts at once, while
+ * {@link #resolveAllChildren()} performs a full resolution with {@link MavenResolver#prefetchDependencies} enabled.
+ * Both start out with an empty maven local directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExecutorBenchmark {
+
+    private static class LatencyInjectingRepository extends URIMavenRepository {
+        private final long latency;
+
+        public LatencyInjectingRepository(@NotNull URI base, long latency) {
+            super("synthetic", base);
+            this.latency = latency;
+        }
+
+        @Override
+        protected byte @NotNull[] getResource0(@NotNull String path) throws Exception {
+            Thread.sleep(this.latency);
+            return super.getResource0(path);
+        }
+    }
+
+    @Param({"3"})
+    public int depth;
+
+    @Param({"fixed-cpu", "fixed-64", "bounded"})
+    public String executor;
+
+    private ExecutorService executorService;
+
+    @Param({"3"})
+    public int fanOut;
+
+    @Param({"10"})
+    public long latency;
+
+    private Path mavenLocal;
+
+    @NotNull
+    private final List<@NotNull String> metadataPaths = new ArrayList<>();
+
+    private Path repository;
+
+    private GAV root;
+
+    @Param({"128", "1024"})
+    public int width;
+
+    @Benchmark
+    public int fetchMetadata() {
+        MavenLocalRepositoryNegotiator negotiator = new MavenLocalRepositoryNegotiator(this.mavenLocal)
+                .addRepository(new LatencyInjectingRepository(this.repository.toUri(), this.latency));
+        List<CompletableFuture<?>> requests = new ArrayList<>();
+
+        for (String path : this.metadataPaths) {
+            requests.add(negotiator.resolveMavenMeta(path, this.executorService));
+        }
+
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).join();
+        return requests.size();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareLocalCache() throws IOException {
+        FileDeleter.deleteDir(this.mavenLocal);
+    }
+
+    @Benchmark
+    public DependencyLayer resolveAllChildren() {
+        DependencyLayer layer = DependencyLayer.createLayerFor(new GAV("virtual-node", "virtual-node", MavenVersion.parse("")), this.root);
+        MavenResolver resolver = new MavenResolver(this.mavenLocal)
+                .addRepository(new LatencyInjectingRepository(this.repository.toUri(), this.latency));
+        resolver.setLogger(new NOPLogger());
+        resolver.prefetchDependencies = true;
+        resolver.resolveAllChildren(layer, this.executorService).join();
+        return layer;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        if (this.executor.equals("fixed-cpu")) {
+            this.executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        } else if (this.executor.equals("fixed-64")) {
+            this.executorService = Executors.newFixedThreadPool(64);
+        } else {
+            this.executorService = ResolverExecutors.newBoundedExecutor();
+        }
+
+        this.repository = Files.createTempDirectory("picoresolve-bench-repo");
+        this.mavenLocal = Files.createTempDirectory("picoresolve-bench-local");
+        this.root = new RepositoryGenerator()
+                .setDepth(this.depth)
+                .setWidth(this.width)
+                .setFanOut(this.fanOut)
+                .generate(this.repository);
+
+        this.metadataPaths.clear();
+        String groupPath = RepositoryGenerator.GROUP.replace('.', '/');
+        for (int layer = 1; layer <= this.depth; layer++) {
+            for (int index = 0; index < this.width; index++) {
+                this.metadataPaths.add(groupPath + "/artifact-" + layer + "-" + index + "/maven-metadata.xml");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.executorService.shutdownNow();
+        FileDeleter.deleteDir(this.repository);
+        FileDeleter.deleteDir(this.mavenLocal);
+    }
+}
@@ -0,0 +1,53 @@
+package org.stianloader.picoresolve.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.stianloader.picoresolve.version.MavenVersion;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MavenVersionBenchmark {
+
+    @Param({"1.0", "9.10.1", "2.0.0-alpha-1", "1.1.0-20240101.120000-3", "33.3.1-jre"})
+    public String version;
+
+    private MavenVersion parsed;
+    private MavenVersion other;
+
+    @Setup
+    public void setup() {
+        this.parsed = MavenVersion.parse(this.version);
+        this.other = MavenVersion.parse(this.version + ".1");
+    }
+
+    @Benchmark
+    public int compareTo() {
+        return this.parsed.compareTo(this.other);
+    }
+
+    @Benchmark
+    public int hashCodeFresh() {
+        // Versions are usually freshly parsed before being put in hash-based collections
+        return MavenVersion.parse(this.version).hashCode();
+    }
+
+    @Benchmark
+    public MavenVersion parse() {
+        return MavenVersion.parse(this.version);
+    }
+}
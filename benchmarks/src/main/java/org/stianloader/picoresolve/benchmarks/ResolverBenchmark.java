@@ -0,0 +1,148 @@
+package org.stianloader.picoresolve.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.stianloader.picoresolve.DependencyLayer;
+import org.stianloader.picoresolve.GAV;
+import org.stianloader.picoresolve.MavenResolver;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+import org.stianloader.picoresolve.test.util.FileDeleter;
+import org.stianloader.picoresolve.test.util.NOPLogger;
+import org.stianloader.picoresolve.test.util.RepositoryGenerator;
+import org.stianloader.picoresolve.version.MavenVersion;
+
+/**
+ * End-to-end benchmark of {@link MavenResolver#resolveAllChildren(DependencyLayer, java.util.concurrent.Executor)}
+ * against a synthetic repository on the local file system that is accessed through a <code>file:</code>
+ * {@link URIMavenRepository}.
+ *
+ * <p>With a "cold" local cache, every invocation starts out with an empty maven local directory, meaning that all
+ * files need to be copied from the synthetic repository. With a "warm" local cache, the local directory was
+ * populated beforehand, but the in-memory caches of the resolver are still empty.
+ *
+ * <p>The "plain" shape only consists of dependencies with pinned versions or version ranges, while the
+ * "full" shape additionally makes use of parent POMs, BOM imports, exclusions and snapshots. The "large" shape
+ * is a graph of 10 layers with 500 artifacts each that makes use of all of the above, ignoring the "depth", "width"
+ * and "fanOut" parameters. As it takes a while to resolve, it is not run by default and needs to be selected
+ * explicitly, e.g. using <code>-p shape=large -p width=500</code>.
+ *
+ * <p>The "prefetch" parameter toggles {@link MavenResolver#prefetchDependencies}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ResolverBenchmark {
+
+    @Param({"4"})
+    public int depth;
+
+    private ExecutorService executor;
+
+    @Param({"3"})
+    public int fanOut;
+
+    @Param({"cold", "warm"})
+    public String localCache;
+
+    private Path mavenLocal;
+
+    @Param({"false", "true"})
+    public boolean prefetch;
+
+    private Path repository;
+
+    private GAV root;
+
+    @Param({"plain", "full"})
+    public String shape;
+
+    @Param({"16", "128"})
+    public int width;
+
+    @Setup(Level.Invocation)
+    public void prepareLocalCache() throws IOException {
+        if (this.localCache.equals("cold")) {
+            FileDeleter.deleteDir(this.mavenLocal);
+        }
+    }
+
+    @Benchmark
+    public DependencyLayer resolveAllChildren() {
+        DependencyLayer layer = this.createLayer();
+        this.createResolver().resolveAllChildren(layer, this.executor).join();
+        return layer;
+    }
+
+    @NotNull
+    private DependencyLayer createLayer() {
+        return DependencyLayer.createLayerFor(new GAV("virtual-node", "virtual-node", MavenVersion.parse("")), this.root);
+    }
+
+    private MavenResolver createResolver() {
+        MavenResolver resolver = new MavenResolver(this.mavenLocal)
+                .addRepository(new URIMavenRepository("synthetic", this.repository.toUri()));
+        resolver.setLogger(new NOPLogger());
+        resolver.prefetchDependencies = this.prefetch;
+        return resolver;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        this.repository = Files.createTempDirectory("picoresolve-bench-repo");
+        this.mavenLocal = Files.createTempDirectory("picoresolve-bench-local");
+        RepositoryGenerator generator = new RepositoryGenerator()
+                .setDepth(this.depth)
+                .setWidth(this.width)
+                .setFanOut(this.fanOut);
+
+        if (this.shape.equals("large")) {
+            generator.setDepth(10)
+                .setWidth(500)
+                .setFanOut(4)
+                .setParentChainLength(3)
+                .setBOMProbability(0.05D)
+                .setExclusionProbability(0.05D)
+                .setSnapshotProbability(0.05D);
+        } else if (this.shape.equals("full")) {
+            generator.setParentChainLength(3)
+                .setBOMProbability(0.1D)
+                .setExclusionProbability(0.1D)
+                .setSnapshotProbability(0.05D);
+        }
+
+        this.root = generator.generate(this.repository);
+
+        // Populate the local cache, which also verifies that the repository is resolvable
+        this.createResolver().resolveAllChildren(this.createLayer(), this.executor).join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.executor.shutdownNow();
+        FileDeleter.deleteDir(this.repository);
+        FileDeleter.deleteDir(this.mavenLocal);
+    }
+}
@@ -0,0 +1,103 @@
+package org.stianloader.picoresolve.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.stianloader.picoresolve.internal.XMLUtil;
+import org.stianloader.picoresolve.internal.meta.VersionCatalogue;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VersionCatalogueBenchmark {
+
+    private static byte[] generateMetadata(int versions, int offset) {
+        StringBuilder builder = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<metadata>\n")
+                .append("  <groupId>org.example</groupId>\n")
+                .append("  <artifactId>example</artifactId>\n")
+                .append("  <versioning>\n")
+                .append("    <versions>\n");
+
+        for (int i = 0; i < versions; i++) {
+            int v = i + offset;
+            builder.append("      <version>").append(1 + v / 100).append('.').append(v % 100 / 10).append('.').append(v % 10).append("</version>\n");
+        }
+
+        return builder.append("    </versions>\n")
+                .append("    <lastUpdated>20240101000000</lastUpdated>\n")
+                .append("  </versioning>\n")
+                .append("</metadata>\n")
+                .toString()
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<VersionCatalogue> catalogues;
+    private byte[] metadata;
+
+    @Param({"10", "1000", "5000"})
+    public int versions;
+
+    @Benchmark
+    public VersionCatalogue merge() {
+        return VersionCatalogue.merge(this.catalogues);
+    }
+
+    @Benchmark
+    public VersionCatalogue parse() throws XMLStreamException {
+        return new VersionCatalogue(new ByteArrayInputStream(this.metadata));
+    }
+
+    /**
+     * Baseline for {@link #parse()}: Only reads the document, but does not interpret it.
+     *
+     * @return The amount of events read
+     * @throws XMLStreamException If the document could not be read
+     */
+    @Benchmark
+    public int readEvents() throws XMLStreamException {
+        XMLStreamReader reader = XMLUtil.createReader(new ByteArrayInputStream(this.metadata));
+        int events = 0;
+
+        try {
+            while (reader.hasNext()) {
+                reader.next();
+                events++;
+            }
+        } finally {
+            reader.close();
+        }
+
+        return events;
+    }
+
+    @Setup
+    public void setup() throws XMLStreamException {
+        this.metadata = VersionCatalogueBenchmark.generateMetadata(this.versions, 0);
+        this.catalogues = Arrays.asList(
+                new VersionCatalogue(new ByteArrayInputStream(this.metadata)),
+                new VersionCatalogue(new ByteArrayInputStream(VersionCatalogueBenchmark.generateMetadata(this.versions, this.versions / 2))),
+                new VersionCatalogue(new ByteArrayInputStream(VersionCatalogueBenchmark.generateMetadata(this.versions, this.versions))));
+    }
+}
@@ -0,0 +1,70 @@
+package org.stianloader.picoresolve.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.stianloader.picoresolve.version.MavenVersion;
+import org.stianloader.picoresolve.version.VersionRange;
+import org.stianloader.picoresolve.version.VersionSelectionPreference;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VersionRangeBenchmark {
+
+    @Param({"10", "1000"})
+    public int availableVersions;
+
+    @Param({"1.5.0", "[1.0,2.0)", "[1.2,1.4],[1.6,)"})
+    public String range;
+
+    private List<MavenVersion> available;
+    private VersionRange intersectee;
+    private VersionRange parsed;
+
+    @Benchmark
+    public VersionRange intersect() {
+        return this.parsed.intersect(this.intersectee);
+    }
+
+    @Benchmark
+    public VersionRange parse() {
+        return VersionRange.parse(this.range);
+    }
+
+    @Benchmark
+    public MavenVersion selectFromDeclarationOrder() {
+        return this.parsed.intersect(this.intersectee).selectFrom(this.available, null, VersionSelectionPreference.DECLARATION_ORDER);
+    }
+
+    @Benchmark
+    public MavenVersion selectFromNewestFirst() {
+        return this.parsed.intersect(this.intersectee).selectFrom(this.available, null, VersionSelectionPreference.NEWEST_FIRST);
+    }
+
+    @Setup
+    public void setup() {
+        this.parsed = VersionRange.parse(this.range);
+        this.intersectee = VersionRange.parse("[1.0,)");
+        this.available = new ArrayList<>();
+
+        for (int i = 0; i < this.availableVersions; i++) {
+            this.available.add(MavenVersion.parse((1 + i / 100) + "." + (i % 100 / 10) + "." + (i % 10)));
+        }
+    }
+}
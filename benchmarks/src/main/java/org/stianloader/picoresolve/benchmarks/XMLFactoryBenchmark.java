@@ -0,0 +1,123 @@
+package org.stianloader.picoresolve.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.stianloader.picoresolve.ResolverExecutors;
+import org.stianloader.picoresolve.internal.XMLUtil;
+
+/**
+ * Measures the fixed per-document overhead of obtaining a configured {@link XMLInputFactory},
+ * comparing a freshly looked up factory with the pooled factories of {@link XMLUtil#createReader(java.io.InputStream)}.
+ *
+ * <p>The "bounded" variants parse {@link #BATCH_SIZE} documents at once on the executor returned by
+ * {@link ResolverExecutors#newBoundedExecutor()}, which runs every document on a new virtual thread on Java 21 or above.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XMLFactoryBenchmark {
+
+    private static final byte[] DOCUMENT = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<metadata><groupId>org.example</groupId><artifactId>example</artifactId>"
+            + "<versioning><versions><version>1.0.0</version></versions></versioning></metadata>")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @State(Scope.Benchmark)
+    public static class BoundedExecutorState {
+        private ExecutorService executor;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            this.executor = ResolverExecutors.newBoundedExecutor();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            this.executor.shutdownNow();
+        }
+    }
+
+    private static final int BATCH_SIZE = 256;
+
+    private static int readBatch(ExecutorService executor, Callable<XMLStreamReader> readerSupplier) {
+        List<CompletableFuture<Integer>> documents = new ArrayList<>();
+
+        for (int i = 0; i < XMLFactoryBenchmark.BATCH_SIZE; i++) {
+            documents.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return XMLFactoryBenchmark.read(readerSupplier.call());
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+
+        int events = 0;
+        for (CompletableFuture<Integer> document : documents) {
+            events += document.join();
+        }
+        return events;
+    }
+
+    private static int read(XMLStreamReader reader) throws XMLStreamException {
+        int events = 0;
+
+        try {
+            while (reader.hasNext()) {
+                reader.next();
+                events++;
+            }
+        } finally {
+            reader.close();
+        }
+
+        return events;
+    }
+
+    @Benchmark
+    public int freshFactory() throws XMLStreamException {
+        return XMLFactoryBenchmark.read(XMLUtil.createInputFactory().createXMLStreamReader(new ByteArrayInputStream(XMLFactoryBenchmark.DOCUMENT)));
+    }
+
+    @Benchmark
+    public int freshFactoryBounded(BoundedExecutorState state) {
+        return XMLFactoryBenchmark.readBatch(state.executor, () -> XMLUtil.createInputFactory().createXMLStreamReader(new ByteArrayInputStream(XMLFactoryBenchmark.DOCUMENT)));
+    }
+
+    @Benchmark
+    public int pooledFactory() throws XMLStreamException {
+        return XMLFactoryBenchmark.read(XMLUtil.createReader(new ByteArrayInputStream(XMLFactoryBenchmark.DOCUMENT)));
+    }
+
+    @Benchmark
+    public int pooledFactoryBounded(BoundedExecutorState state) {
+        return XMLFactoryBenchmark.readBatch(state.executor, () -> XMLUtil.createReader(new ByteArrayInputStream(XMLFactoryBenchmark.DOCUMENT)));
+    }
+}
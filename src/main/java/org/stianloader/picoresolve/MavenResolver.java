@@ -14,30 +14,30 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
-
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilderFactory;
+import java.util.function.Function;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.stianloader.picoresolve.DependencyLayer.DependencyEdge;
+import org.stianloader.picoresolve.DependencyContainerNode.SubdependencyNode;
 import org.stianloader.picoresolve.DependencyLayer.DependencyLayerElement;
 import org.stianloader.picoresolve.DependencyManagementTree.DependencyManagementNode;
+import org.stianloader.picoresolve.PomModel.DependencyDeclaration;
+import org.stianloader.picoresolve.PomModel.ExclusionDeclaration;
+import org.stianloader.picoresolve.PomModel.ParentDeclaration;
 import org.stianloader.picoresolve.exclusion.Exclusion;
 import org.stianloader.picoresolve.exclusion.ExclusionContainer;
 import org.stianloader.picoresolve.exclusion.ExclusionContainer.ExclusionMode;
 import org.stianloader.picoresolve.internal.ConcurrencyUtil;
+import org.stianloader.picoresolve.internal.FutureCache;
 import org.stianloader.picoresolve.internal.JavaInterop;
 import org.stianloader.picoresolve.internal.StronglyMultiCompletableFuture;
-import org.stianloader.picoresolve.internal.XMLUtil;
-import org.stianloader.picoresolve.internal.XMLUtil.ChildElementIterable;
 import org.stianloader.picoresolve.internal.meta.VersionCatalogue;
 import org.stianloader.picoresolve.internal.meta.VersionCatalogue.SnapshotVersion;
 import org.stianloader.picoresolve.logging.LoggingAdapter;
@@ -48,16 +48,118 @@ import org.stianloader.picoresolve.repo.RepositoryNegotiatior;
 import org.stianloader.picoresolve.version.MavenVersion;
 import org.stianloader.picoresolve.version.VersionRange;
 import org.stianloader.picoresolve.version.VersionSelectionPreference;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 
 public class MavenResolver {
 
+    private static final class CachedCatalogue {
+        @NotNull
+        private final VersionCatalogue catalogue;
+        private final long lifetime;
+
+        private CachedCatalogue(@NotNull VersionCatalogue catalogue, long lifetime) {
+            this.catalogue = catalogue;
+            this.lifetime = lifetime;
+        }
+    }
+
+    /**
+     * The key of a {@link #nodeCache} entry. As the filtering of test and optional dependencies influences the contents
+     * of the nodes, the state of {@link #ignoreTestDependencies} and {@link #ignoreOptionalDependencies} at the time
+     * the node is requested is part of the key. Nodes computed with different settings thus never mix.
+     */
+    private static final class NodeKey {
+        @NotNull
+        private final GAV gav;
+        private final boolean ignoreOptionalDependencies;
+        private final boolean ignoreTestDependencies;
+
+        private NodeKey(@NotNull GAV gav, boolean ignoreTestDependencies, boolean ignoreOptionalDependencies) {
+            this.gav = gav;
+            this.ignoreTestDependencies = ignoreTestDependencies;
+            this.ignoreOptionalDependencies = ignoreOptionalDependencies;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof NodeKey) {
+                NodeKey other = (NodeKey) obj;
+                return this.gav.equals(other.gav)
+                        && this.ignoreOptionalDependencies == other.ignoreOptionalDependencies
+                        && this.ignoreTestDependencies == other.ignoreTestDependencies;
+            }
+
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.gav.hashCode() * 4 + (this.ignoreTestDependencies ? 1 : 0) + (this.ignoreOptionalDependencies ? 2 : 0);
+        }
+    }
+
+    /**
+     * State shared by all speculative prefetches issued during a single {@link #resolveAllChildren(DependencyLayer, Executor)}
+     * invocation, see {@link #prefetchDependencies}.
+     */
+    private static final class PrefetchContext {
+        /**
+         * The artifacts (discriminated by group and artifact id only) that were already prefetched or resolved.
+         */
+        @NotNull
+        private final Set<VersionlessDependency> requested = ConcurrentHashMap.newKeySet();
+        /**
+         * Whether the resolution process has finished, in which case no further prefetches should be issued.
+         */
+        private volatile boolean completed;
+        /**
+         * The prefetches that are currently in flight, which are cancelled if the resolution process is cancelled.
+         */
+        @NotNull
+        private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+    }
+
     // TODO test tree resolving capabilities with https://repo1.maven.org/maven2/org/alfasoftware/astra/2.1.1/astra-2.1.1.pom
-    // TODO cache VersionCatalogue objects
-    // TODO cache poms
+    /**
+     * The default amount of parsed dependency nodes that are held in memory
+     * by a {@link MavenResolver} by default, see {@link #setNodeCacheSize(int)}.
+     */
+    public static final int DEFAULT_NODE_CACHE_SIZE = 1024;
+
+    /**
+     * The default maximum weight of the parsed POM files that are held in memory by a {@link MavenResolver}
+     * by default, see {@link #setPomCacheWeight(long)}.
+     */
+    public static final long DEFAULT_POM_CACHE_WEIGHT = 1L << 18;
+
+    /**
+     * The default maximum weight of the version catalogues (merged maven-metadata.xml files) that are held in memory
+     * by a {@link MavenResolver} by default, see {@link #setCatalogueCacheWeight(long)}.
+     */
+    public static final long DEFAULT_CATALOGUE_CACHE_WEIGHT = 1L << 18;
+
     private final RepositoryNegotiatior negotiator;
-    private final ConcurrentMap<GAV, DependencyContainerNode> depdenencyCache = new ConcurrentHashMap<>();
+    @NotNull
+    private final FutureCache<NodeKey, DependencyContainerNode> nodeCache = new FutureCache<>(MavenResolver.DEFAULT_NODE_CACHE_SIZE);
+    /**
+     * Cache of parsed POM files, shared by the resolution of dependency nodes, their parent POMs and imported BOMs.
+     */
+    @NotNull
+    private final FutureCache<GAV, @NotNull PomModel> pomCache = new FutureCache<>(MavenResolver.DEFAULT_POM_CACHE_WEIGHT, PomModel::getWeight);
+    /**
+     * Cache of merged maven-metadata.xml files, keyed by the path of the maven-metadata.xml file.
+     * Entries expire according to the update interval of the repositories they were obtained from.
+     */
+    @NotNull
+    private final FutureCache<String, @NotNull CachedCatalogue> catalogueCache = new FutureCache<>(MavenResolver.DEFAULT_CATALOGUE_CACHE_WEIGHT,
+            (cached) -> 1 + cached.catalogue.releaseVersions.size() + cached.catalogue.snapshotVersions.size(),
+            (cached) -> cached.lifetime);
+
+    /**
+     * The executor CPU-bound stages of the resolution are run on, or null to run them on whichever thread completed
+     * the I/O they depend on. See {@link #setComputeExecutor(Executor)}.
+     */
+    @Nullable
+    private volatile Executor computeExecutor;
 
     @NotNull
     private LoggingAdapter logger = LoggingAdapter.getDefaultLogger();
@@ -76,6 +178,23 @@ public class MavenResolver {
      */
     public boolean ignoreOptionalDependencies = true;
 
+    /**
+     * Whether to speculatively fetch the dependencies of an artifact as soon as the POM of the artifact is available
+     * when using {@link #resolveAllChildren(DependencyLayer, Executor)}, instead of only fetching them once all artifacts
+     * of the current {@link DependencyLayer} have been resolved. This means that a single slow artifact no longer stalls
+     * the fetching of the remaining dependency graph, which can drastically improve resolution speeds when using
+     * high-latency repositories with deep dependency graphs.
+     *
+     * <p>Prefetching merely warms up the caches of this {@link MavenResolver}, the layers are still resolved one after
+     * another using the exact same version negotiation and exclusion rules, yielding identical results.
+     * However, the prefetched versions are selected on the basis of the version range requested by the first
+     * encountered declaration of a dependency and exclusions are not respected while prefetching, so some artifacts
+     * might get fetched needlessly. Furthermore, prefetched artifacts can get evicted from the caches before they are used
+     * if the caches are too small for the dependency graph (see {@link #setNodeCacheSize(int)} and {@link #setPomCacheWeight(long)}).
+     * As such, prefetching is disabled by default.
+     */
+    public boolean prefetchDependencies = false;
+
     public MavenResolver(@NotNull Path mavenLocal) {
         this(mavenLocal, null);
     }
@@ -145,51 +264,34 @@ public class MavenResolver {
         return MavenResolver.applyPlaceholders(string, 0, placeholders);
     }
 
-    private static void extractProperties(@NotNull Document project, @NotNull GAV gav, Map<String, String> out) {
-        for (Element elem : new ChildElementIterable(project.getDocumentElement())) {
-            // See https://maven.apache.org/pom.html#properties (retrieved SEPT 18th 2022 18:19 CEST)
-            // "project.x: A dot (.) notated path in the POM will contain the corresponding element's value."
-
-            // For the sake of brevity, we only iterate over the top level of elements
-            // While you might laugh, my gut is telling that checking more deeply nested elements might have unforeseen consequences.
-            // FIXME The above assumption is false.
-
-            // https://maven.apache.org/guides/introduction/introduction-to-the-pom.html#available-variables (retrieved SEPT 25th 2022 16:49 CEST)
-            // Defines that "pom.x" and "x" are allowed, even if they are discouraged (which does not prevent people from actually using them).
-            // TODO as above document documents, implement "project.basedir", "project.baseUri" and "maven.build.timestamp".
-            // Latter would be interesting...
-            if (!elem.hasChildNodes()) {
-                out.put("project." + elem.getTagName(), elem.getTextContent());
-                out.put("pom." + elem.getTagName(), elem.getTextContent());
-                out.put(elem.getTagName(), elem.getTextContent());
-            }
-        }
-
-        Element properties = XMLUtil.optElement(project.getDocumentElement(), "properties");
-
-        if (properties != null) {
-            for (Element prop : new ChildElementIterable(properties)) {
-                out.put(prop.getTagName(), prop.getTextContent());
-            }
-        }
-    }
-
     @NotNull
-    private CompletableFuture<@NotNull Document> downloadPom(@NotNull GAV gav, @NotNull Executor executor) {
-        return this.download(gav, null, "pom", executor).thenApply((pathRAV) -> {
-            try {
-                Document xmlDoc;
-
-                {
-                    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-                    factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-                    xmlDoc = factory.newDocumentBuilder().parse(Files.newInputStream(pathRAV.getValue()));
+    private CompletableFuture<@NotNull PomModel> getPom(@NotNull GAV gav, @NotNull Executor executor) {
+        return this.pomCache.get(gav, (key) -> {
+            return this.thenCompute(this.download(key, null, "pom", executor), (pathRAV) -> {
+                try (InputStream is = Files.newInputStream(pathRAV.getValue())) {
+                    return PomReader.read(key, is);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
                 }
+            });
+        });
+    }
 
-                return xmlDoc;
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+    /**
+     * Obtains the {@link PomModel} of the given {@link GAV} alongside the models of all it's parent POMs.
+     * The first element of the returned list is the model of the requested {@link GAV}, the second element
+     * is the model of it's parent, the third element is the model of the parent's parent and so on.
+     *
+     * @param gav The {@link GAV} to obtain the POM hierarchy of.
+     * @param executor The executor to use for potentially blocking I/O operations.
+     * @return A {@link CompletableFuture} completing with a newly created list storing the hierarchy.
+     */
+    @NotNull
+    private CompletableFuture<@NotNull List<@NotNull PomModel>> getPomHierarchy(@NotNull GAV gav, @NotNull Executor executor) {
+        return ConcurrencyUtil.thenCompose(this.getPom(gav, executor), (pom) -> {
+            List<@NotNull PomModel> list = new ArrayList<>();
+            list.add(pom);
+            return this.downloadParentPoms(pom, executor, list);
         });
     }
 
@@ -207,21 +309,7 @@ public class MavenResolver {
     private CompletableFuture<RepositoryAttachedValue<Path>> downloadSnapshot(@NotNull GAV gav, @Nullable String classifier, @NotNull String extension, @NotNull Executor executor) {
         String basePath = gav.group().replace('.', '/') + '/' + gav.artifact() + '/' + gav.version().getOriginText() + '/';
 
-        return ConcurrencyUtil.configureFallback(this.negotiator.resolveMavenMeta(basePath + "maven-metadata.xml", executor).thenCompose(item -> {
-            VersionCatalogue merged;
-            List<VersionCatalogue> catalogues = new ArrayList<>();
-            for (RepositoryAttachedValue<Path> rav : item) {
-                try (InputStream is = Files.newInputStream(rav.getValue())) {
-                    VersionCatalogue catalogue = new VersionCatalogue(is);
-                    catalogues.add(catalogue);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    continue;
-                }
-            }
-
-            merged = VersionCatalogue.merge(catalogues);
-
+        return ConcurrencyUtil.configureFallback(ConcurrencyUtil.thenCompose(this.getCatalogue(basePath + "maven-metadata.xml", executor), merged -> {
             for (SnapshotVersion snapshot : merged.snapshotVersions) {
                 if (!snapshot.extension().equals(extension)) {
                     continue;
@@ -263,7 +351,7 @@ public class MavenResolver {
     }
 
     @NotNull
-    private CompletableFuture<DependencyLayer> resolveChildLayer(@NotNull DependencyLayer layer, @NotNull Executor executor, @NotNull Map<VersionlessDependency, DependencyLayerElement> resolveCache) {
+    private CompletableFuture<DependencyLayer> resolveChildLayer(@NotNull DependencyLayer layer, @NotNull Executor executor, @NotNull Map<VersionlessDependency, DependencyLayerElement> resolveCache, @Nullable PrefetchContext prefetch) {
         if (layer.getChild() != null) {
             throw new IllegalStateException("Child layer already resolved");
         }
@@ -324,11 +412,12 @@ public class MavenResolver {
             VersionlessDependency coordinates = entry.getKey();
             ChildResolutionContext resolveContext = entry.getValue();
 
-            futures.add(this.getVersions(coordinates.group(), coordinates.artifact(), executor).exceptionally((ex) -> {
+            CompletableFuture<@NotNull VersionCatalogue> catalogueFuture = ConcurrencyUtil.exceptionally(this.getVersions(coordinates.group(), coordinates.artifact(), executor), (ex) -> {
                 this.logger.debug(MavenResolver.class, "Failed to obtain versions for artifact '{}:{}'", coordinates.group(), coordinates.artifact(), ex);
                 this.logger.warn(MavenResolver.class, "Unable to obtain the versions available for artifact '{}:{}'. It is likely that the relevant maven-metadata.xml file is missing. This may hamper resolution stability (especially when version ranges are being used) as the available versions will be guessed instead. See debug log output for the full relevant stacktrace.", coordinates.group(), coordinates.artifact());
                 return VersionCatalogue.synthesize(resolveContext.range.getRecommendedVersions());
-            }).thenCompose((catalogue)-> {
+            });
+            CompletableFuture<DependencyContainerNode> nodeFuture = ConcurrencyUtil.thenCompose(catalogueFuture, (catalogue)-> {
                 MavenVersion selected = resolveContext.range.selectFrom(catalogue.releaseVersions, catalogue.releaseVersion, VersionSelectionPreference.DECLARATION_ORDER);
 
                 if (selected == null) {
@@ -338,7 +427,13 @@ public class MavenResolver {
                 GAV gav = new GAV(coordinates.group(), coordinates.artifact(), selected);
 
                 return this.getNode(gav, coordinates.classifier(), coordinates.getType("jar"), executor);
-            }).thenApply((node) -> {
+            });
+
+            futures.add(ConcurrencyUtil.thenApply(nodeFuture, (node) -> {
+                if (prefetch != null) {
+                    this.prefetchChildren(node, executor, prefetch);
+                }
+
                 DependencyLayerElement element = node.toLayerElement(coordinates.classifier(), coordinates.type(), resolveContext.effectiveExclusions);
 
                 for (DependencyEdge edge : resolveContext.declaringEdges) {
@@ -355,22 +450,22 @@ public class MavenResolver {
 
         StronglyMultiCompletableFuture<@NotNull DependencyLayerElement> combinedFuture = new StronglyMultiCompletableFuture<>(futures);
 
-        return combinedFuture.thenApply((elements) -> {
+        return this.thenCompute(combinedFuture, (elements) -> {
             combinedFuture.throwExceptionIfCompletedUncleanly();
             return new DependencyLayer(layer, Collections.unmodifiableList(elements));
         });
     }
 
     @NotNull
-    private CompletableFuture<Void> resolveAllChildren0(@NotNull DependencyLayer layer, @NotNull Executor executor, @NotNull Map<VersionlessDependency, DependencyLayerElement> resolveCache) {
-        return this.resolveChildLayer(layer, executor, resolveCache).thenCompose((child) -> {
+    private CompletableFuture<Void> resolveAllChildren0(@NotNull DependencyLayer layer, @NotNull Executor executor, @NotNull Map<VersionlessDependency, DependencyLayerElement> resolveCache, @Nullable PrefetchContext prefetch) {
+        return ConcurrencyUtil.thenCompose(this.resolveChildLayer(layer, executor, resolveCache, prefetch), (child) -> {
             if (child == null) {
                 return CompletableFuture.completedFuture(null);
             } else {
                 for (DependencyLayerElement element : child.elements) {
                     resolveCache.put(new VersionlessDependency(element.gav.group(), element.gav.artifact(), element.classifier, element.type), element);
                 }
-                return this.resolveAllChildren0(child, executor, resolveCache);
+                return this.resolveAllChildren0(child, executor, resolveCache, prefetch);
             }
         });
     }
@@ -396,6 +491,14 @@ public class MavenResolver {
      * To await for the resolution process to finish, {@link CompletableFuture#join()} or similar should be used.
      * However, a blocking {@link Executor} can cause this method to behave as if it were blocking, too.
      *
+     * <p>If {@link #prefetchDependencies} is set, the dependencies of deeper layers are fetched speculatively
+     * while the current layer is still being resolved.
+     *
+     * <p>Cancelling the returned {@link CompletableFuture} aborts the resolution process: Pending requests are cancelled
+     * (closing their connections where necessary) and no further requests are issued. Requests that are shared with
+     * other resolution processes running on the same {@link MavenResolver} are only cancelled once all processes
+     * sharing them were cancelled. The provided layer may be left partially resolved.
+     *
      * @param current The {@link DependencyLayer} to resolve its child of.
      * @param executor The {@link Executor} used to schedule potentially blocking tasks on, such as file or network I/O.
      * @return A {@link CompletableFuture} which completes when all child layers are resolved. The future has no
@@ -412,7 +515,27 @@ public class MavenResolver {
             }
         }
 
-        return this.resolveAllChildren0(current, executor, resolveCache);
+        if (!this.prefetchDependencies) {
+            return this.resolveAllChildren0(current, executor, resolveCache, null);
+        }
+
+        PrefetchContext prefetch = new PrefetchContext();
+
+        for (VersionlessDependency dependency : resolveCache.keySet()) {
+            prefetch.requested.add(new VersionlessDependency(dependency.group(), dependency.artifact(), null, null));
+        }
+
+        CompletableFuture<Void> resolution = this.resolveAllChildren0(current, executor, resolveCache, prefetch);
+
+        return ConcurrencyUtil.propagateCancellation(resolution.whenComplete((ignore, ex) -> {
+            prefetch.completed = true;
+
+            if (resolution.isCancelled()) {
+                for (CompletableFuture<?> future : prefetch.pending) {
+                    future.cancel(true);
+                }
+            }
+        }), resolution);
     }
 
     @Contract(pure = false, mutates = "param1", value = "null, _ -> fail; _, null -> fail; !null, !null -> new")
@@ -426,39 +549,78 @@ public class MavenResolver {
             }
         }
 
-        return this.resolveChildLayer(current, executor, resolveCache);
+        return this.resolveChildLayer(current, executor, resolveCache, null);
     }
 
-    private CompletableFuture<DependencyContainerNode> getNode(@NotNull GAV gav, @Nullable String classifier, @NotNull String type, @NotNull Executor executor) {
-        DependencyContainerNode node = this.depdenencyCache.get(gav);
-        if (node != null) {
-            return CompletableFuture.completedFuture(node);
-        }
-        return this.downloadPom(gav, executor).thenCompose((xmlDoc) -> {
-            List<Map.Entry<@NotNull GAV, @NotNull Document>> list = new ArrayList<>();
-            list.add(new AbstractMap.SimpleImmutableEntry<>(gav, xmlDoc));
-            Element project = xmlDoc.getDocumentElement();
-            project.normalize();
-            Element parent = XMLUtil.optElement(project, "parent");
-            if (parent == null) {
-                return CompletableFuture.completedFuture(list);
-            } else {
-                return this.downloadParentPoms(parent, executor, list);
+    /**
+     * Speculatively fetch the dependencies of a dependency node, and recursively the dependencies of these dependencies.
+     * The results are not used directly, instead they will be picked up from the caches during the
+     * actual resolution of the layer the dependencies reside in.
+     *
+     * <p>Failures are silently ignored as they will resurface during the actual resolution process if relevant.
+     *
+     * @param node The node to prefetch the dependencies of.
+     * @param executor The executor to use for potentially blocking I/O operations.
+     * @param prefetch The prefetching state of the current resolution process.
+     */
+    private void prefetchChildren(@NotNull DependencyContainerNode node, @NotNull Executor executor, @NotNull PrefetchContext prefetch) {
+        for (SubdependencyNode dependency : node.dependencies) {
+            if (prefetch.completed) {
+                return;
+            }
+
+            if (!prefetch.requested.add(new VersionlessDependency(dependency.group, dependency.artifact, null, null))) {
+                continue;
             }
-        }).thenCompose((poms) -> {
+
+            CompletableFuture<@NotNull VersionCatalogue> catalogueFuture = ConcurrencyUtil.exceptionally(this.getVersions(dependency.group, dependency.artifact, executor), (ex) -> {
+                return VersionCatalogue.synthesize(dependency.version.getRecommendedVersions());
+            });
+            CompletableFuture<DependencyContainerNode> nodeFuture = ConcurrencyUtil.thenCompose(catalogueFuture, (catalogue) -> {
+                MavenVersion selected = dependency.version.selectFrom(catalogue.releaseVersions, catalogue.releaseVersion, VersionSelectionPreference.DECLARATION_ORDER);
+
+                if (selected == null || prefetch.completed) {
+                    return CompletableFuture.completedFuture(null);
+                }
+
+                return this.getNode(new GAV(dependency.group, dependency.artifact, selected), dependency.classifier, dependency.type, executor);
+            });
+
+            prefetch.pending.add(nodeFuture);
+            nodeFuture.whenCompleteAsync((child, ex) -> {
+                prefetch.pending.remove(nodeFuture);
+
+                // Asynchronous as otherwise cached nodes would cause the entire graph to be walked recursively on the same stack
+                if (ex != null) {
+                    this.logger.debug(MavenResolver.class, "Failed to prefetch dependency '{}:{}'", dependency.group, dependency.artifact, ex);
+                } else if (child != null) {
+                    this.prefetchChildren(child, executor, prefetch);
+                }
+            }, executor);
+        }
+    }
+
+    private CompletableFuture<DependencyContainerNode> getNode(@NotNull GAV gav, @Nullable String classifier, @NotNull String type, @NotNull Executor executor) {
+        // The flags are read exactly once, so that the node is computed with the same flags it is cached under
+        NodeKey nodeKey = new NodeKey(gav, this.ignoreTestDependencies, this.ignoreOptionalDependencies);
+        return this.nodeCache.get(nodeKey, (key) -> this.getNode0(key, executor));
+    }
+
+    @NotNull
+    private CompletableFuture<DependencyContainerNode> getNode0(@NotNull NodeKey key, @NotNull Executor executor) {
+        return ConcurrencyUtil.thenCompose(this.getPomHierarchy(key.gav, executor), (poms) -> {
             Map<String, String> placeholders = new HashMap<>();
             MavenResolver.computePlaceholders(poms, 0, placeholders);
-            return this.getDependencyManagementTree(executor, poms, 0).thenApply((depManagement) -> {
-                return getDependencyNode0(placeholders, poms, depManagement);
+            return this.thenCompute(this.getDependencyManagementTree(executor, poms, 0), (depManagement) -> {
+                return getDependencyNode0(key, placeholders, poms, depManagement);
             });
         });
     }
 
-    private DependencyContainerNode getDependencyNode0(@NotNull Map<String, String> placeholders, List<Entry<@NotNull GAV, @NotNull Document>> poms, @NotNull DependencyManagementTree dependencyManagement) {
-        Document xmlDoc = poms.get(0).getValue();
-        DependencyContainerNode container = new DependencyContainerNode(poms.get(0).getKey());
-        Element project = xmlDoc.getDocumentElement();
-        Element deps = XMLUtil.optElement(project, "dependencies");
+    private DependencyContainerNode getDependencyNode0(@NotNull NodeKey key, @NotNull Map<String, String> placeholders, @NotNull List<@NotNull PomModel> poms, @NotNull DependencyManagementTree dependencyManagement) {
+        PomModel pom = poms.get(0);
+        DependencyContainerNode container = new DependencyContainerNode(pom.gav);
+        List<@NotNull DependencyDeclaration> deps = pom.dependencies;
         if (deps == null) {
             return container;
         }
@@ -466,15 +628,15 @@ public class MavenResolver {
         Map<VersionlessDependency, DependencyManagementNode> managementNodes = new HashMap<>();
         dependencyManagement.collectNodes(managementNodes);
 
-        for (Element dependency : new ChildElementIterable(deps)) {
-            String group = XMLUtil.elementText(dependency, "groupId");
-            String artifactId = XMLUtil.elementText(dependency, "artifactId");
-            String version = XMLUtil.elementText(dependency, "version");
-            String scope = XMLUtil.elementText(dependency, "scope");
-            String classifier = XMLUtil.elementText(dependency, "classifier");
-            String type = XMLUtil.elementText(dependency, "type");
-            String optional = XMLUtil.elementText(dependency, "optional"); // TODO implement
-            ExclusionContainer<Exclusion> exclusions = MavenResolver.parseExclusions(XMLUtil.optElement(dependency, "exclusions"), placeholders);
+        for (DependencyDeclaration dependency : deps) {
+            String group = dependency.group;
+            String artifactId = dependency.artifact;
+            String version = dependency.version;
+            String scope = dependency.scope;
+            String classifier = dependency.classifier;
+            String type = dependency.type;
+            String optional = dependency.optional; // TODO implement
+            ExclusionContainer<Exclusion> exclusions = MavenResolver.parseExclusions(dependency.exclusions, placeholders);
 
             group = Objects.requireNonNull(MavenResolver.applyPlaceholders(group, placeholders));
             artifactId = Objects.requireNonNull(MavenResolver.applyPlaceholders(artifactId, placeholders));
@@ -498,13 +660,13 @@ public class MavenResolver {
                 }
             }
 
-            if ((this.ignoreTestDependencies && "test".equalsIgnoreCase(scope))
-                    || (this.ignoreOptionalDependencies && "true".equalsIgnoreCase(optional))) {
+            if ((key.ignoreTestDependencies && "test".equalsIgnoreCase(scope))
+                    || (key.ignoreOptionalDependencies && "true".equalsIgnoreCase(optional))) {
                 continue;
             }
 
             if (version == null) {
-                throw new IllegalStateException("Fatal failure while assembling dependency " + group + ":" + artifactId + ":" + classifier + ":" + type + " as defined by " + poms.get(0).getKey() + ". This likely hints at either an impoper POM or incorrect dependency management parsing by the resolver.");
+                throw new IllegalStateException("Fatal failure while assembling dependency " + group + ":" + artifactId + ":" + classifier + ":" + type + " as defined by " + pom.gav + ". This likely hints at either an impoper POM or incorrect dependency management parsing by the resolver.");
             }
 
             if (type == null) {
@@ -525,10 +687,17 @@ public class MavenResolver {
         return container;
     }
 
-    private CompletableFuture<@NotNull List<Map.Entry<@NotNull GAV, @NotNull Document>>> downloadParentPoms(@NotNull Element parentElement, @NotNull Executor executor, @NotNull List<Map.Entry<@NotNull GAV, @NotNull Document>> sink) {
-        String group = XMLUtil.elementText(parentElement, "groupId");
-        String artifactId = XMLUtil.elementText(parentElement, "artifactId");
-        String version = XMLUtil.elementText(parentElement, "version");
+    @NotNull
+    private CompletableFuture<@NotNull List<@NotNull PomModel>> downloadParentPoms(@NotNull PomModel child, @NotNull Executor executor, @NotNull List<@NotNull PomModel> sink) {
+        ParentDeclaration parent = child.parent;
+
+        if (parent == null) {
+            return CompletableFuture.completedFuture(sink);
+        }
+
+        String group = parent.group;
+        String artifactId = parent.artifact;
+        String version = parent.version;
 
         if (group == null) {
             return JavaInterop.failedFuture(new IllegalStateException("groupId missing in parent element"));
@@ -542,29 +711,23 @@ public class MavenResolver {
 
         GAV gav = new GAV(group, artifactId, MavenVersion.parse(version));
 
-        // TODO Implement in-memory document cache to prevent downloading duplicate parent POMs
-        return downloadPom(gav, executor).thenCompose((xmlDoc) -> {
-            synchronized(sink) {
-                sink.add(new AbstractMap.SimpleImmutableEntry<>(gav, xmlDoc));
+        for (PomModel pom : sink) {
+            if (pom.gav.equals(gav)) {
+                return JavaInterop.failedFuture(new IllegalStateException("POM " + child.gav + " declares " + gav + " as it's parent, but " + gav + " is already part of the POM hierarchy. Cyclic parent POM hierarchies are not supported."));
             }
-            Element project = xmlDoc.getDocumentElement();
-            project.normalize();
-            Element parent = XMLUtil.optElement(project, "parent");
-            if (parent != null) {
-                return this.downloadParentPoms(parent, executor, sink);
-            }
-            return CompletableFuture.completedFuture(sink);
+        }
+
+        return ConcurrencyUtil.thenCompose(this.getPom(gav, executor), (pom) -> {
+            sink.add(pom);
+            return this.downloadParentPoms(pom, executor, sink);
         });
     }
 
-    private static void computePlaceholders(List<Map.Entry<@NotNull GAV, @NotNull Document>> poms, int pomIndex, Map<String, String> out) {
-        GAV gav = poms.get(pomIndex).getKey();
+    private static void computePlaceholders(@NotNull List<@NotNull PomModel> poms, int pomIndex, Map<String, String> out) {
+        GAV gav = poms.get(pomIndex).gav;
 
-        if (!poms.isEmpty()) {
-            for (ListIterator<Map.Entry<@NotNull GAV, @NotNull Document>> lit = poms.listIterator(pomIndex); lit.hasNext();) { // TODO chances are we need the inverse order (we used to iterate from the back), so be aware that this may need fixing
-                Map.Entry<@NotNull GAV, @NotNull Document> entry = lit.next();
-                MavenResolver.extractProperties(entry.getValue(), entry.getKey(), out);
-            }
+        for (ListIterator<@NotNull PomModel> lit = poms.listIterator(pomIndex); lit.hasNext();) { // TODO chances are we need the inverse order (we used to iterate from the back), so be aware that this may need fixing
+            out.putAll(lit.next().properties);
         }
 
         // Then we also apply optional project.* placeholders that are inherited from the parent pom (you gotta be kidding me)
@@ -578,47 +741,32 @@ public class MavenResolver {
     }
 
     private CompletableFuture<DependencyManagementTree> getDependencyManagementBOMTree(@NotNull Executor executor, @NotNull String group, @NotNull String artifact, @NotNull VersionRange version, @NotNull DependencyManagementTree parentNode) {
-        return this.downloadPom(group, artifact, version, executor).thenCompose((entry) -> {
-            Document xmlDoc = entry.getValue();
-            List<Map.Entry<@NotNull GAV, @NotNull Document>> list = new ArrayList<>();
-            list.add(entry);
-            Element project = xmlDoc.getDocumentElement();
-            project.normalize();
-            Element parent = XMLUtil.optElement(project, "parent");
-            if (parent == null) {
-                return CompletableFuture.completedFuture(list);
-            } else {
-                return this.downloadParentPoms(parent, executor, list);
-            }
-        }).thenCompose((poms) -> {
+        CompletableFuture<@NotNull List<@NotNull PomModel>> hierarchy = ConcurrencyUtil.thenCompose(this.selectVersion(group, artifact, version, null, "pom", executor), (gav) -> {
+            return this.getPomHierarchy(gav, executor);
+        });
+        CompletableFuture<@NotNull DependencyManagementTree> tree = ConcurrencyUtil.thenCompose(hierarchy, (poms) -> {
             return getDependencyManagementTree(executor, poms, 0);
-        }).thenApply((node) -> {
+        });
+
+        return ConcurrencyUtil.thenApply(tree, (node) -> {
             parentNode.addImportNode(node);
             return node;
         });
     }
 
-    private CompletableFuture<@NotNull DependencyManagementTree> getDependencyManagementTree(@NotNull Executor executor, @NotNull List<Map.Entry<@NotNull GAV, @NotNull Document>> poms, int pomIndex) {
+    private CompletableFuture<@NotNull DependencyManagementTree> getDependencyManagementTree(@NotNull Executor executor, @NotNull List<@NotNull PomModel> poms, int pomIndex) {
         Map<String, String> placeholders = new HashMap<>();
         MavenResolver.computePlaceholders(poms, pomIndex, placeholders);
 
-        Element project = poms.get(pomIndex).getValue().getDocumentElement();
-        Element dependencyManagement = XMLUtil.optElement(project, "dependencyManagement");
+        List<@NotNull DependencyDeclaration> dependencies = poms.get(pomIndex).managedDependencies;
         int parentPomIndex = pomIndex + 1;
-        Element dependencies;
-
-        if (dependencyManagement == null) {
-            dependencies = null;
-        } else {
-            dependencies = XMLUtil.optElement(dependencyManagement, "dependencies");
-        }
 
         if (dependencies == null) {
             if (parentPomIndex == poms.size()) {
                 // No further parents
                 return CompletableFuture.completedFuture(DependencyManagementTree.EMPTY);
             }
-            return getDependencyManagementTree(executor, poms, parentPomIndex).thenApply((parentTree) -> {
+            return ConcurrencyUtil.thenApply(getDependencyManagementTree(executor, poms, parentPomIndex), (parentTree) -> {
                 // You might think - surely, you can just return the parent tree?
                 // Well, you'd be wrong as the depth of BOM (bill-of-materials) nodes matter.
                 DependencyManagementTree tree = new DependencyManagementTree();
@@ -628,15 +776,15 @@ public class MavenResolver {
         } else {
             DependencyManagementTree tree = new DependencyManagementTree();
             List<CompletableFuture<DependencyManagementTree>> dependencyFutures = new ArrayList<>();
-            for (Element dependency : new ChildElementIterable(dependencies)) {
-                String group = XMLUtil.elementText(dependency, "groupId");
-                String artifactId = XMLUtil.elementText(dependency, "artifactId");
-                String version = XMLUtil.elementText(dependency, "version");
-                String scope = XMLUtil.elementText(dependency, "scope");
-                String classifier = XMLUtil.elementText(dependency, "classifier");
-                String type = XMLUtil.elementText(dependency, "type");
-                String optional = XMLUtil.elementText(dependency, "optional"); // TODO implement
-                ExclusionContainer<Exclusion> exclusions = MavenResolver.parseExclusions(XMLUtil.optElement(dependency, "exclusions"), placeholders);
+            for (DependencyDeclaration dependency : dependencies) {
+                String group = dependency.group;
+                String artifactId = dependency.artifact;
+                String version = dependency.version;
+                String scope = dependency.scope;
+                String classifier = dependency.classifier;
+                String type = dependency.type;
+                String optional = dependency.optional; // TODO implement
+                ExclusionContainer<Exclusion> exclusions = MavenResolver.parseExclusions(dependency.exclusions, placeholders);
 
                 group = Objects.requireNonNull(MavenResolver.applyPlaceholders(group, placeholders));
                 artifactId = Objects.requireNonNull(MavenResolver.applyPlaceholders(artifactId, placeholders));
@@ -656,83 +804,110 @@ public class MavenResolver {
             }
 
             if (parentPomIndex == poms.size()) {
-                return CompletableFuture.completedFuture(tree);
+                // The imported BOMs need to be resolved before the tree can be used
+                return ConcurrencyUtil.thenApply(new StronglyMultiCompletableFuture<>(dependencyFutures), (ignore) -> tree);
             } else {
-                return this.getDependencyManagementTree(executor, poms, parentPomIndex).thenCompose((parentDependencyManagement) -> {
+                CompletableFuture<@NotNull List<DependencyManagementTree>> imports = ConcurrencyUtil.thenCompose(this.getDependencyManagementTree(executor, poms, parentPomIndex), (parentDependencyManagement) -> {
                     parentDependencyManagement.setParent(tree);
                     return new StronglyMultiCompletableFuture<>(dependencyFutures);
-                }).thenApply((ignore) -> tree);
+                });
+
+                return ConcurrencyUtil.thenApply(imports, (ignore) -> tree);
             }
         }
     }
 
     @NotNull
     public CompletableFuture<Map.Entry<@NotNull GAV, RepositoryAttachedValue<Path>>> download(@NotNull String group, @NotNull String artifact, @NotNull VersionRange versionRange, @Nullable String classifier, @NotNull String extension, @NotNull Executor executor) {
-        return this.getVersions(group, artifact, executor).thenCompose((catalogue)-> {
+        return ConcurrencyUtil.thenCompose(this.selectVersion(group, artifact, versionRange, classifier, extension, executor), (gav) -> {
+            return ConcurrencyUtil.thenApply(this.download(gav, classifier, extension, executor), (rav) -> {
+                return new AbstractMap.SimpleImmutableEntry<>(gav, rav);
+            });
+        });
+    }
+
+    @NotNull
+    private CompletableFuture<@NotNull GAV> selectVersion(@NotNull String group, @NotNull String artifact, @NotNull VersionRange versionRange, @Nullable String classifier, @NotNull String extension, @NotNull Executor executor) {
+        return ConcurrencyUtil.thenApply(this.getVersions(group, artifact, executor), (catalogue)-> {
             MavenVersion selected = versionRange.selectFrom(catalogue.releaseVersions, catalogue.releaseVersion, VersionSelectionPreference.DECLARATION_ORDER);
 
             if (selected == null) {
                 throw new IllegalStateException("Unable to resolve a sensical version for range " + versionRange + " for coordinates " + group + ":" + artifact + ":?:" + classifier + ":" + extension);
             }
 
-            GAV gav = new GAV(group, artifact, selected);
-
-            return this.download(gav, classifier, extension, executor).thenApply((rav) -> {
-                return new AbstractMap.SimpleImmutableEntry<>(gav, rav);
-            });
+            return new GAV(group, artifact, selected);
         });
     }
 
-    private CompletableFuture<VersionCatalogue> getVersions(@NotNull String groupId, @NotNull String artifactId, @NotNull Executor executor) {
-        return this.negotiator.resolveMavenMeta(groupId.replace('.', '/') + '/' + artifactId + "/maven-metadata.xml", executor).thenApply((item) -> {
-            List<VersionCatalogue> catalogues = new ArrayList<>(item.size());
+    @NotNull
+    private CompletableFuture<@NotNull VersionCatalogue> getVersions(@NotNull String groupId, @NotNull String artifactId, @NotNull Executor executor) {
+        return this.getCatalogue(groupId.replace('.', '/') + '/' + artifactId + "/maven-metadata.xml", executor);
+    }
 
-            for (RepositoryAttachedValue<Path> rav : item) {
-                VersionCatalogue catalogue;
+    /**
+     * Obtains the merged {@link VersionCatalogue} of all maven-metadata.xml files located at a given path
+     * in the repositories. The returned catalogue is shared with other callers, its version lists are thus unmodifiable.
+     *
+     * @param path The path of the maven-metadata.xml file, relative to the repository root.
+     * @param executor The executor to use for potentially blocking I/O operations.
+     * @return A {@link CompletableFuture} that completes with the merged {@link VersionCatalogue}.
+     */
+    @NotNull
+    private CompletableFuture<@NotNull VersionCatalogue> getCatalogue(@NotNull String path, @NotNull Executor executor) {
+        CompletableFuture<@NotNull CachedCatalogue> cachedCatalogue = this.catalogueCache.get(path, (key) -> {
+            return this.thenCompute(this.negotiator.resolveMavenMeta(key, executor), (item) -> {
+                List<VersionCatalogue> catalogues = new ArrayList<>(item.size());
+                // Without any metadata files there is nothing that could bound the lifetime, so nothing is cached
+                long lifetime = item.isEmpty() ? 0L : Long.MAX_VALUE;
+
+                for (RepositoryAttachedValue<Path> rav : item) {
+                    // Files that can not be read bound the lifetime too, as they may be fixed with the next update
+                    MavenRepository repository = rav.getRepository();
+
+                    if (repository == null) {
+                        // Metadata stored in the local repository may change at any point in time (e.g. through 'mvn install'),
+                        // so the merged catalogue should not outlive the current request.
+                        lifetime = 0L;
+                    } else {
+                        lifetime = Math.min(lifetime, repository.getUpdateIntervall());
+                    }
 
-                try (InputStream is = Files.newInputStream(rav.getValue())) {
-                    catalogue = new VersionCatalogue(is);
-                } catch (Exception e) {
-                    this.logger.warn(VersionCatalogue.class, "Unable to read version catalogue from path {} resolved from repo {}.", rav.getValue(), rav.getRepository(), e);
-                    continue;
+                    try (InputStream is = Files.newInputStream(rav.getValue())) {
+                        catalogues.add(new VersionCatalogue(is));
+                    } catch (Exception e) {
+                        this.logger.warn(VersionCatalogue.class, "Unable to read version catalogue from path {} resolved from repo {}.", rav.getValue(), rav.getRepository(), e);
+                    }
                 }
 
-                catalogues.add(catalogue);
-            }
-
-            return VersionCatalogue.merge(catalogues);
+                // The catalogue is shared by all callers, none of which may modify it
+                return new CachedCatalogue(VersionCatalogue.merge(catalogues).asUnmodifiable(), lifetime);
+            });
         });
+
+        return ConcurrencyUtil.thenApply(cachedCatalogue, (cached) -> cached.catalogue);
     }
 
-    private CompletableFuture<Map.Entry<@NotNull GAV, @NotNull Document>> downloadPom(@NotNull String group, @NotNull String artifact, @NotNull VersionRange range, @NotNull Executor executor) {
-        return this.download(group, artifact, range, null, "pom", executor).thenApply((entry) -> {
-            try {
-                Document xmlDoc;
-                {
-                    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-                    factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-                    try (InputStream is = Files.newInputStream(entry.getValue().getValue())) {
-                        xmlDoc = factory.newDocumentBuilder().parse(is);
-                    }
-                }
-                xmlDoc.getDocumentElement().normalize();
-                return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), xmlDoc);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
+    /**
+     * Obtains the executor CPU-bound stages of the resolution are run on.
+     *
+     * @return The compute executor, or null if CPU-bound stages run on the thread that completed the I/O they depend on.
+     * @see #setComputeExecutor(Executor)
+     */
+    @Nullable
+    @Contract(pure = true)
+    public Executor getComputeExecutor() {
+        return this.computeExecutor;
     }
 
     @Nullable
-    private static ExclusionContainer<Exclusion> parseExclusions(@Nullable Element element, @NotNull Map<String, String> placeholders) {
-        if (element == null) {
+    private static ExclusionContainer<Exclusion> parseExclusions(@Nullable List<@NotNull ExclusionDeclaration> exclusions, @NotNull Map<String, String> placeholders) {
+        if (exclusions == null) {
             return null;
         }
-        List<@NotNull Element> exclusions = XMLUtil.getChildElements(element);
         List<@NotNull Exclusion> parsed = new ArrayList<>(exclusions.size());
-        for (Element exclusion : exclusions) {
-            String group = XMLUtil.elementText(exclusion, "groupId");
-            String artifact = XMLUtil.elementText(exclusion, "artifactId");
+        for (ExclusionDeclaration exclusion : exclusions) {
+            String group = exclusion.group;
+            String artifact = exclusion.artifact;
             group = MavenResolver.applyPlaceholders(group, placeholders);
             artifact = MavenResolver.applyPlaceholders(artifact, placeholders);
 
@@ -741,7 +916,114 @@ public class MavenResolver {
         return new ExclusionContainer<>(ExclusionMode.ANY, parsed, false);
     }
 
+    /**
+     * Apply a CPU-bound function once the given future completes, running it on the {@link #computeExecutor}
+     * if one is set.
+     *
+     * @param source The source future, usually completing once an I/O operation completes.
+     * @param fn The function to apply on the value of the source future.
+     * @return A {@link CompletableFuture} completing with the result of the function.
+     */
+    @NotNull
+    private <T, U> CompletableFuture<U> thenCompute(@NotNull CompletableFuture<T> source, @NotNull Function<? super T, ? extends U> fn) {
+        Executor executor = this.computeExecutor;
+
+        if (executor == null) {
+            return ConcurrencyUtil.thenApply(source, fn);
+        }
+
+        return ConcurrencyUtil.thenApplyAsync(source, fn, executor);
+    }
+
+    /**
+     * Set the executor CPU-bound stages of the resolution are run on. This covers parsing POMs and maven-metadata.xml files,
+     * interpolating placeholders, collecting the dependency management and assembling the {@link DependencyLayer dependency layers}.
+     *
+     * <p>By default (or if <code>null</code> is set), these stages run on whichever thread completed the
+     * request they depend on, which usually is a thread of the {@link Executor} passed to methods such as
+     * {@link #resolveAllChildren(DependencyLayer, Executor)}. That executor is still used for network and disk I/O
+     * when a compute executor is set, meaning that a large I/O executor (see {@link ResolverExecutors#newBoundedExecutor()})
+     * can be combined with a compute executor sized to the amount of available processors
+     * (see {@link ResolverExecutors#newComputeExecutor()}) without parsing work stalling outstanding requests.
+     *
+     * @param executor The compute executor, or null to run CPU-bound stages on the I/O threads
+     * @return The current {@link MavenResolver} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public MavenResolver setComputeExecutor(@Nullable Executor executor) {
+        this.computeExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Set the maximum amount of parsed dependency nodes (that is the dependencies declared by the POM of a {@link GAV},
+     * alongside it's inherited dependency management) this resolver keeps in memory.
+     * If the cache is full, the least recently used nodes are evicted first.
+     * Nodes that are still being resolved are stored in the cache too, meaning that the POM of
+     * a {@link GAV} is only fetched and parsed once even if it is requested concurrently.
+     *
+     * <p>The cache is shared across all resolutions performed by this {@link MavenResolver} instance.
+     * A size of 0 disables caching, which may be beneficial if the POMs in the repositories
+     * are expected to change between resolutions. Defaults to {@link #DEFAULT_NODE_CACHE_SIZE}.
+     *
+     * @param size The maximum amount of cached nodes
+     * @return The current {@link MavenResolver} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public MavenResolver setNodeCacheSize(int size) {
+        this.nodeCache.setMaximumWeight(size);
+        return this;
+    }
+
+    /**
+     * Set the maximum total weight of the parsed POM files this resolver keeps in memory.
+     * Parsed POMs are shared between the resolution of dependencies, the resolution of parent POMs
+     * as well as the resolution of imported BOMs (bill of materials), so that commonly used parent POMs
+     * are only fetched and parsed once. As with {@link #setNodeCacheSize(int)},
+     * POMs that are still being fetched are stored in the cache too.
+     *
+     * <p>The weight of a parsed POM roughly corresponds to the amount of dependencies, managed dependencies,
+     * exclusions and properties it declares. If the maximum weight is exceeded, the least recently used POMs are
+     * evicted first. A maximum weight of 0 disables caching. Defaults to {@link #DEFAULT_POM_CACHE_WEIGHT}.
+     *
+     * @param maximumWeight The maximum total weight of all cached POMs
+     * @return The current {@link MavenResolver} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public MavenResolver setPomCacheWeight(long maximumWeight) {
+        this.pomCache.setMaximumWeight(maximumWeight);
+        return this;
+    }
+
+    /**
+     * Set the maximum total weight of the version catalogues (that is the merged contents of the
+     * maven-metadata.xml files of an artifact) this resolver keeps in memory.
+     * Catalogues are kept no longer than the smallest {@link MavenRepository#getUpdateIntervall() update interval}
+     * of the repositories they were obtained from. Catalogues that include metadata from the local repository are
+     * only shared with concurrent requests, as the local repository can be modified at any time.
+     *
+     * <p>The weight of a catalogue corresponds to the amount of versions it lists.
+     * If the maximum weight is exceeded, the least recently used catalogues are evicted first.
+     * A maximum weight of 0 disables caching. Defaults to {@link #DEFAULT_CATALOGUE_CACHE_WEIGHT}.
+     *
+     * @param maximumWeight The maximum total weight of all cached catalogues
+     * @return The current {@link MavenResolver} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public MavenResolver setCatalogueCacheWeight(long maximumWeight) {
+        this.catalogueCache.setMaximumWeight(maximumWeight);
+        return this;
+    }
+
     public void setLogger(@NotNull LoggingAdapter logger) {
         this.logger = Objects.requireNonNull(logger, "logger may not be null.");
+
+        if (this.negotiator instanceof MavenLocalRepositoryNegotiator) {
+            ((MavenLocalRepositoryNegotiator) this.negotiator).setLogger(logger);
+        }
     }
 }
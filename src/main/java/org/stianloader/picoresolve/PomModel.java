@@ -0,0 +1,148 @@
+package org.stianloader.picoresolve;
+
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An immutable excerpt of a POM file, storing only the parts of the POM the resolver makes use of.
+ * Values are stored verbatim, that is without placeholders having been applied, as the
+ * placeholders can only be computed once the entire parent hierarchy of a POM is known.
+ *
+ * <p>Instances of this class are usually created by the {@link PomReader} and can be safely shared
+ * across threads, which allows them to be cached and reused by multiple resolution processes.
+ */
+final class PomModel {
+
+    static final class DependencyDeclaration {
+        @Nullable
+        final String group;
+        @Nullable
+        final String artifact;
+        @Nullable
+        final String version;
+        @Nullable
+        final String scope;
+        @Nullable
+        final String classifier;
+        @Nullable
+        final String type;
+        @Nullable
+        final String optional;
+        /**
+         * The exclusions of the dependency, or null if the dependency has no exclusions block.
+         */
+        @Nullable
+        final List<@NotNull ExclusionDeclaration> exclusions;
+
+        DependencyDeclaration(@Nullable String group, @Nullable String artifact, @Nullable String version, @Nullable String scope,
+                @Nullable String classifier, @Nullable String type, @Nullable String optional, @Nullable List<@NotNull ExclusionDeclaration> exclusions) {
+            this.group = group;
+            this.artifact = artifact;
+            this.version = version;
+            this.scope = scope;
+            this.classifier = classifier;
+            this.type = type;
+            this.optional = optional;
+            this.exclusions = exclusions;
+        }
+    }
+
+    static final class ExclusionDeclaration {
+        @Nullable
+        final String group;
+        @Nullable
+        final String artifact;
+
+        ExclusionDeclaration(@Nullable String group, @Nullable String artifact) {
+            this.group = group;
+            this.artifact = artifact;
+        }
+    }
+
+    static final class ParentDeclaration {
+        @Nullable
+        final String group;
+        @Nullable
+        final String artifact;
+        @Nullable
+        final String version;
+
+        ParentDeclaration(@Nullable String group, @Nullable String artifact, @Nullable String version) {
+            this.group = group;
+            this.artifact = artifact;
+            this.version = version;
+        }
+    }
+
+    @Contract(pure = true)
+    private static int getWeight(@Nullable List<@NotNull DependencyDeclaration> declarations) {
+        if (declarations == null) {
+            return 0;
+        }
+
+        int weight = 0;
+        for (DependencyDeclaration declaration : declarations) {
+            weight += 1 + (declaration.exclusions == null ? 0 : declaration.exclusions.size());
+        }
+        return weight;
+    }
+
+    /**
+     * The dependencies declared in the dependencies block of the POM,
+     * or null if the POM has no dependencies block.
+     */
+    @Nullable
+    final List<@NotNull DependencyDeclaration> dependencies;
+
+    /**
+     * The {@link GAV} under which the POM was resolved.
+     */
+    @NotNull
+    final GAV gav;
+
+    /**
+     * The dependencies declared in the dependencies block of the dependencyManagement block of the POM,
+     * or null if either of the blocks is absent.
+     */
+    @Nullable
+    final List<@NotNull DependencyDeclaration> managedDependencies;
+
+    @Nullable
+    final ParentDeclaration parent;
+
+    /**
+     * The placeholders defined by this POM, ignoring any placeholders that are inherited from the parent POM.
+     */
+    @NotNull
+    final Map<String, String> properties;
+
+    PomModel(@NotNull GAV gav, @Nullable ParentDeclaration parent, @NotNull Map<String, String> properties,
+            @Nullable List<@NotNull DependencyDeclaration> dependencies, @Nullable List<@NotNull DependencyDeclaration> managedDependencies) {
+        this.gav = gav;
+        this.parent = parent;
+        this.properties = properties;
+        this.dependencies = dependencies;
+        this.managedDependencies = managedDependencies;
+    }
+
+    /**
+     * Obtains the approximate weight of this model for the purposes of caching.
+     * The weight is roughly proportional to the amount of memory used by the model.
+     *
+     * @return The weight of the model.
+     */
+    @Contract(pure = true)
+    int getWeight() {
+        return 1 + this.properties.size() + PomModel.getWeight(this.dependencies) + PomModel.getWeight(this.managedDependencies);
+    }
+
+    @Override
+    @NotNull
+    public String toString() {
+        return "PomModel[gav=" + this.gav + "]";
+    }
+}
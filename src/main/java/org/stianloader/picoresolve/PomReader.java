@@ -0,0 +1,277 @@
+package org.stianloader.picoresolve;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.picoresolve.PomModel.DependencyDeclaration;
+import org.stianloader.picoresolve.PomModel.ExclusionDeclaration;
+import org.stianloader.picoresolve.PomModel.ParentDeclaration;
+import org.stianloader.picoresolve.internal.XMLUtil;
+
+/**
+ * A single-pass, streaming reader of POM files that directly emits a {@link PomModel}
+ * without building an intermediary DOM tree. Elements the resolver has no use for
+ * are skipped without allocating anything for them.
+ *
+ * <p>The reader mirrors the behaviour of the DOM-based parsing logic it replaced: Only the first occurrence
+ * of an element is taken into account if the element is defined multiple times, and the value of an element
+ * is the text content of the element and all of it's descendants.
+ */
+final class PomReader {
+
+    @NotNull
+    static PomModel read(@NotNull GAV gav, @NotNull InputStream in) throws XMLStreamException {
+        XMLStreamReader reader = XMLUtil.createReader(in);
+
+        try {
+            reader.nextTag(); // <project>
+            return PomReader.readProject(gav, reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @NotNull
+    private static DependencyDeclaration readDependency(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        String group = null;
+        String artifact = null;
+        String version = null;
+        String scope = null;
+        String classifier = null;
+        String type = null;
+        String optional = null;
+        List<@NotNull ExclusionDeclaration> exclusions = null;
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (XMLUtil.getTagName(reader)) {
+            case "groupId":
+                group = PomReader.readText(reader, group);
+                break;
+            case "artifactId":
+                artifact = PomReader.readText(reader, artifact);
+                break;
+            case "version":
+                version = PomReader.readText(reader, version);
+                break;
+            case "scope":
+                scope = PomReader.readText(reader, scope);
+                break;
+            case "classifier":
+                classifier = PomReader.readText(reader, classifier);
+                break;
+            case "type":
+                type = PomReader.readText(reader, type);
+                break;
+            case "optional":
+                optional = PomReader.readText(reader, optional);
+                break;
+            case "exclusions":
+                if (exclusions == null) {
+                    exclusions = PomReader.readExclusions(reader);
+                } else {
+                    XMLUtil.skipElement(reader);
+                }
+                break;
+            default:
+                XMLUtil.skipElement(reader);
+            }
+        }
+
+        return new DependencyDeclaration(group, artifact, version, scope, classifier, type, optional, exclusions);
+    }
+
+    @NotNull
+    private static List<@NotNull DependencyDeclaration> readDependencies(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        List<@NotNull DependencyDeclaration> declarations = new ArrayList<>();
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            declarations.add(PomReader.readDependency(reader));
+        }
+
+        return Collections.unmodifiableList(declarations);
+    }
+
+    @Nullable
+    private static List<@NotNull DependencyDeclaration> readDependencyManagement(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        List<@NotNull DependencyDeclaration> managedDependencies = null;
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (managedDependencies == null && XMLUtil.getTagName(reader).equals("dependencies")) {
+                managedDependencies = PomReader.readDependencies(reader);
+            } else {
+                XMLUtil.skipElement(reader);
+            }
+        }
+
+        return managedDependencies;
+    }
+
+    @NotNull
+    private static List<@NotNull ExclusionDeclaration> readExclusions(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        List<@NotNull ExclusionDeclaration> exclusions = new ArrayList<>();
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String group = null;
+            String artifact = null;
+
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                switch (XMLUtil.getTagName(reader)) {
+                case "groupId":
+                    group = PomReader.readText(reader, group);
+                    break;
+                case "artifactId":
+                    artifact = PomReader.readText(reader, artifact);
+                    break;
+                default:
+                    XMLUtil.skipElement(reader);
+                }
+            }
+
+            exclusions.add(new ExclusionDeclaration(group, artifact));
+        }
+
+        return Collections.unmodifiableList(exclusions);
+    }
+
+    @NotNull
+    private static ParentDeclaration readParent(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        String group = null;
+        String artifact = null;
+        String version = null;
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (XMLUtil.getTagName(reader)) {
+            case "groupId":
+                group = PomReader.readText(reader, group);
+                break;
+            case "artifactId":
+                artifact = PomReader.readText(reader, artifact);
+                break;
+            case "version":
+                version = PomReader.readText(reader, version);
+                break;
+            default:
+                XMLUtil.skipElement(reader);
+            }
+        }
+
+        return new ParentDeclaration(group, artifact, version);
+    }
+
+    @NotNull
+    private static PomModel readProject(@NotNull GAV gav, @NotNull XMLStreamReader reader) throws XMLStreamException {
+        Map<String, String> properties = new LinkedHashMap<>();
+        Map<String, String> declaredProperties = null;
+        ParentDeclaration parent = null;
+        List<@NotNull DependencyDeclaration> dependencies = null;
+        List<@NotNull DependencyDeclaration> managedDependencies = null;
+        boolean dependencyManagementRead = false;
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String name = XMLUtil.getTagName(reader);
+
+            switch (name) {
+            case "parent":
+                if (parent == null) {
+                    parent = PomReader.readParent(reader);
+                    continue;
+                }
+                break;
+            case "properties":
+                if (declaredProperties == null) {
+                    declaredProperties = PomReader.readProperties(reader);
+                    continue;
+                }
+                break;
+            case "dependencies":
+                if (dependencies == null) {
+                    dependencies = PomReader.readDependencies(reader);
+                    continue;
+                }
+                break;
+            case "dependencyManagement":
+                if (!dependencyManagementRead) {
+                    dependencyManagementRead = true;
+                    managedDependencies = PomReader.readDependencyManagement(reader);
+                    continue;
+                }
+                break;
+            default:
+                break;
+            }
+
+            // See https://maven.apache.org/pom.html#properties (retrieved SEPT 18th 2022 18:19 CEST)
+            // "project.x: A dot (.) notated path in the POM will contain the corresponding element's value."
+
+            // For the sake of brevity, we only iterate over the top level of elements
+            // While you might laugh, my gut is telling that checking more deeply nested elements might have unforeseen consequences.
+            // FIXME The above assumption is false.
+
+            // https://maven.apache.org/guides/introduction/introduction-to-the-pom.html#available-variables (retrieved SEPT 25th 2022 16:49 CEST)
+            // Defines that "pom.x" and "x" are allowed, even if they are discouraged (which does not prevent people from actually using them).
+            // TODO as above document documents, implement "project.basedir", "project.baseUri" and "maven.build.timestamp".
+            // Latter would be interesting...
+
+            // Historically, only elements without any child nodes were taken into account.
+            if (reader.next() == XMLStreamConstants.END_ELEMENT) {
+                properties.put("project." + name, "");
+                properties.put("pom." + name, "");
+                properties.put(name, "");
+            } else {
+                XMLUtil.skipRemainder(reader);
+            }
+        }
+
+        if (declaredProperties != null) {
+            properties.putAll(declaredProperties);
+        }
+
+        return new PomModel(gav, parent, Collections.unmodifiableMap(properties), dependencies, managedDependencies);
+    }
+
+    @NotNull
+    private static Map<String, String> readProperties(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        Map<String, String> properties = new LinkedHashMap<>();
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String name = XMLUtil.getTagName(reader);
+            properties.put(name, XMLUtil.readText(reader));
+        }
+
+        return properties;
+    }
+
+    /**
+     * Read the text content of the current element, unless <code>previous</code> is not null, in which case the element is
+     * skipped and <code>previous</code> is returned instead. This mirrors the behaviour of only taking the first occurrence
+     * of an element into account. Upon return, the reader is positioned at the end tag of the current element.
+     *
+     * @param reader The reader, positioned at the start tag of an element.
+     * @param previous The previously read value of the element, or null if the element was not read before.
+     * @return The text content of the element.
+     * @throws XMLStreamException If the underlying reader throws an exception.
+     */
+    @NotNull
+    private static String readText(@NotNull XMLStreamReader reader, @Nullable String previous) throws XMLStreamException {
+        if (previous != null) {
+            XMLUtil.skipElement(reader);
+            return previous;
+        }
+
+        return XMLUtil.readText(reader);
+    }
+
+    private PomReader() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,140 @@
+package org.stianloader.picoresolve;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.stianloader.picoresolve.internal.VirtualThreads;
+import org.stianloader.picoresolve.logging.LoggingAdapter;
+
+/**
+ * Ready-made {@link java.util.concurrent.Executor Executors} suitable for the {@link MavenResolver}
+ * and the {@link org.stianloader.picoresolve.repo.RepositoryNegotiatior}.
+ *
+ * <p>Part of the work performed by the resolver is blocking: Repositories using a <code>file:</code> URI, a custom
+ * {@link org.stianloader.picoresolve.repo.URIMavenRepository#getResource0(String)} implementation or running on Java 8
+ * perform their requests on the provided executor, and writing to the local repository waits for file locks.
+ * With platform threads, the size of the thread pool therefore caps the amount of concurrent requests, making
+ * it hard to find a good pool size for wide dependency graphs.
+ *
+ * <p>When running on Java 21 or above, {@link #newBoundedExecutor(int)} runs every task on its own virtual thread,
+ * bounding the amount of concurrently running tasks using a semaphore rather than the size of a pool. This allows
+ * thousands of concurrent metadata fetches without sizing thread pools by hand. On older Java versions a
+ * fixed pool of daemon platform threads of the same size is used instead. The same applies if PicoResolve itself was built
+ * using a JDK older than 21, in which case a warning is logged when running on Java 21 or above.
+ *
+ * <p>CPU-bound work such as parsing can be moved off the I/O executor using
+ * {@link MavenResolver#setComputeExecutor(java.util.concurrent.Executor)}, for example by
+ * using the work-stealing executor returned by {@link #newComputeExecutor()}.
+ */
+public final class ResolverExecutors {
+
+    /**
+     * The amount of tasks that may be run at once by the executor returned by {@link #newBoundedExecutor()}.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 256;
+
+    /**
+     * Whether the warning about the missing virtual thread support was logged already.
+     */
+    @NotNull
+    private static final AtomicBoolean FALLBACK_WARNED = new AtomicBoolean();
+
+    /**
+     * Checks whether the running JVM supports virtual threads even though {@link VirtualThreads} does not make use of them,
+     * which is the case if PicoResolve was built without the Java 21 variant of the class (i.e. using a JDK older than 21).
+     */
+    @Contract(pure = true)
+    private static boolean isVirtualThreadsMissing() {
+        if (VirtualThreads.isSupported()) {
+            return false;
+        }
+
+        // "1.8" on Java 8, "9" and upwards on newer Java versions
+        String specificationVersion = System.getProperty("java.specification.version", "1.8");
+
+        try {
+            return !specificationVersion.startsWith("1.") && Integer.parseInt(specificationVersion) >= 21;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether executors returned by {@link #newBoundedExecutor(int)} make use of virtual threads.
+     *
+     * @return True if virtual threads are used, false if platform threads are used.
+     */
+    @Contract(pure = true)
+    public static boolean isVirtualThreadsSupported() {
+        return VirtualThreads.isSupported();
+    }
+
+    /**
+     * Create a new bounded executor that runs up to {@link #DEFAULT_MAX_CONCURRENCY} tasks at once.
+     *
+     * @return The newly created {@link ExecutorService}
+     * @see #newBoundedExecutor(int)
+     */
+    @NotNull
+    public static ExecutorService newBoundedExecutor() {
+        return ResolverExecutors.newBoundedExecutor(ResolverExecutors.DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * Create a new executor that runs up to <code>maxConcurrency</code> tasks at once, queueing further tasks
+     * in submission order. On Java 21 or above, each task runs on its own virtual thread, otherwise the tasks are run
+     * on a pool of <code>maxConcurrency</code> daemon platform threads.
+     *
+     * <p>The returned executor should be {@link ExecutorService#shutdown() shut down} once no longer needed.
+     *
+     * @param maxConcurrency The maximum amount of tasks that may run at once. Must be positive.
+     * @return The newly created {@link ExecutorService}
+     */
+    @NotNull
+    public static ExecutorService newBoundedExecutor(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive (got " + maxConcurrency + ")");
+        }
+
+        if (VirtualThreads.isSupported()) {
+            return VirtualThreads.newBoundedExecutor(maxConcurrency);
+        } else if (ResolverExecutors.isVirtualThreadsMissing() && ResolverExecutors.FALLBACK_WARNED.compareAndSet(false, true)) {
+            LoggingAdapter.getDefaultLogger().warn(ResolverExecutors.class, "Virtual threads are supported by the running JVM, but this build of PicoResolve lacks support for them as it was built using a JDK older than 21. Falling back to a pool of {} platform threads.", maxConcurrency);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (task) -> {
+            Thread thread = new Thread(task, "PicoResolve Worker #" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Do not keep hundreds of idle platform threads around between resolutions
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Create a new work-stealing executor sized to the amount of available processors, suitable as the
+     * {@link MavenResolver#setComputeExecutor(java.util.concurrent.Executor) compute executor} of a {@link MavenResolver}.
+     * Tasks submitted to the executor should not block, instead blocking I/O is performed on the I/O executor
+     * (such as the one returned by {@link #newBoundedExecutor(int)}).
+     *
+     * @return The newly created {@link ExecutorService}
+     */
+    @NotNull
+    public static ExecutorService newComputeExecutor() {
+        // Async mode processes tasks that are never joined (as is the case for completion stages) in FIFO order
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+    }
+
+    private ResolverExecutors() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,111 @@
+package org.stianloader.picoresolve.internal;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * A circuit breaker guarding the requests sent to a single repository.
+ *
+ * <p>The breaker is closed initially, letting all requests pass. Once enough consecutive requests failed,
+ * the breaker opens and rejects all requests until the cooldown elapsed. Afterwards the breaker is half-open,
+ * letting a single probe request pass: If the probe succeeds the breaker closes again, otherwise it reopens
+ * for another cooldown.
+ */
+public final class CircuitBreaker {
+
+    /**
+     * The state of a {@link CircuitBreaker}.
+     */
+    public static enum State {
+        /**
+         * All requests are let through, as not enough consecutive requests failed.
+         */
+        CLOSED,
+        /**
+         * The cooldown elapsed, so a single probe request is let through in order to find out whether the repository recovered.
+         */
+        HALF_OPEN,
+        /**
+         * All requests are rejected until the cooldown elapsed, as too many consecutive requests failed.
+         */
+        OPEN;
+    }
+
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probing;
+    private long probeStartedAt;
+    private State state = State.CLOSED;
+
+    /**
+     * Obtains the state of the breaker. Note that an open breaker only becomes half-open once a request
+     * is attempted after the cooldown elapsed.
+     *
+     * @return The current state
+     */
+    @Contract(pure = true)
+    public synchronized State getState() {
+        return this.state;
+    }
+
+    /**
+     * Record the failure of a request that was let through by {@link #tryAcquire(int, long)}.
+     *
+     * @param threshold The amount of consecutive failures after which the breaker opens.
+     */
+    public synchronized void recordFailure(int threshold) {
+        this.probing = false;
+
+        if (this.state == State.HALF_OPEN || ++this.consecutiveFailures >= threshold) {
+            this.state = State.OPEN;
+            this.openedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Record the success of a request that was let through by {@link #tryAcquire(int, long)}, closing the breaker.
+     */
+    public synchronized void recordSuccess() {
+        this.consecutiveFailures = 0;
+        this.probing = false;
+        this.state = State.CLOSED;
+    }
+
+    /**
+     * Record that a request which was let through by {@link #tryAcquire(int, long)} neither succeeded nor failed,
+     * for example because it was cancelled. If the request was a probe, another probe may be sent.
+     */
+    public synchronized void release() {
+        this.probing = false;
+    }
+
+    /**
+     * Check whether a request may be sent.
+     *
+     * @param threshold The amount of consecutive failures after which the breaker opens, or 0 if the breaker is disabled.
+     * @param cooldown The time after which an open breaker lets a probe request pass, in milliseconds.
+     * The same time is granted to the probe request before another probe may be sent.
+     * @return True if the request may be sent, false if it should fail right away.
+     */
+    public synchronized boolean tryAcquire(int threshold, long cooldown) {
+        if (threshold <= 0 || this.state == State.CLOSED) {
+            return true;
+        }
+
+        long now = System.nanoTime();
+        long cooldownNanos = cooldown * 1_000_000L;
+
+        if (this.state == State.OPEN) {
+            if (now - this.openedAt < cooldownNanos) {
+                return false;
+            }
+
+            this.state = State.HALF_OPEN;
+        } else if (this.probing && now - this.probeStartedAt < cooldownNanos) {
+            return false; // Only a single probe may be in flight
+        }
+
+        this.probing = true;
+        this.probeStartedAt = now;
+        return true;
+    }
+}
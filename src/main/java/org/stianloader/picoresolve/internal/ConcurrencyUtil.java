@@ -6,32 +6,178 @@ import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.picoresolve.repo.ResourceNotFoundException;
 
 public class ConcurrencyUtil {
 
+    /**
+     * A {@link CompletionException} wrapping a {@link ResourceNotFoundException}. Just like the wrapped exception,
+     * it does not record a stack trace as expected misses are not worth the cost of doing so.
+     */
+    private static final class NotFoundCompletionException extends CompletionException {
+        private static final long serialVersionUID = 4329710856047283190L;
+
+        private NotFoundCompletionException(@NotNull ResourceNotFoundException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * The thread running a task submitted through {@link ConcurrencyUtil#schedule(Callable, Executor)}, which is
+     * interrupted if the future of the task is cancelled while the task is running.
+     */
+    private static final class RunningTask {
+        private boolean interrupted;
+        @Nullable
+        private Thread thread;
+
+        private synchronized void finish() {
+            this.thread = null;
+
+            if (this.interrupted) {
+                // The interrupt may not leak into unrelated tasks run by the same thread
+                Thread.interrupted();
+            }
+        }
+
+        private synchronized void interrupt() {
+            this.interrupted = true;
+
+            if (this.thread != null) {
+                this.thread.interrupt();
+            }
+        }
+
+        private synchronized void start() {
+            this.thread = Thread.currentThread();
+        }
+    }
+
+    private static final class SchedulerHolder {
+        @NotNull
+        private static final ScheduledExecutorService SCHEDULER;
+
+        static {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, (task) -> {
+                Thread thread = new Thread(task, "PicoResolve Scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            SCHEDULER = scheduler;
+        }
+    }
+
+    /**
+     * Run a task on the given {@link Executor}. Cancelling the returned future before the task started prevents
+     * the task from running, while cancelling it afterwards interrupts the thread running the task.
+     *
+     * @param <T> The type of the result of the task
+     * @param source The task to run
+     * @param executor The executor to run the task on
+     * @return A {@link CompletableFuture} which completes with the result of the task
+     */
     @NotNull
     public static <T> CompletableFuture<T> schedule(@NotNull Callable<T> source, @NotNull Executor executor) {
         Objects.requireNonNull(source, "source may not be null");
 
         CompletableFuture<T> cf = new CompletableFuture<>();
+        RunningTask task = new RunningTask();
         executor.execute(() -> {
             if (cf.isDone()) {
                 return;
             }
+            task.start();
             try {
                 cf.complete(source.call());
+            } catch (ResourceNotFoundException e) {
+                // Wrapped right away as otherwise every dependent stage would wrap the exception with a stack trace
+                cf.completeExceptionally(ConcurrencyUtil.wrap(e));
             } catch (Throwable  t) {
                 cf.completeExceptionally(t);
+            } finally {
+                task.finish();
+            }
+        });
+        cf.whenComplete((ignored, ex) -> {
+            if (cf.isCancelled()) {
+                task.interrupt();
             }
         });
         return cf;
     }
 
+    /**
+     * Obtain a future that failed due to the requested resource not being present, without recording any
+     * stack traces in the process.
+     *
+     * @param <T> The type of the value of the future
+     * @param message The message of the {@link ResourceNotFoundException}
+     * @return A {@link CompletableFuture} that is completed exceptionally with a {@link ResourceNotFoundException}
+     */
+    @NotNull
+    public static <T> CompletableFuture<T> notFound(@NotNull String message) {
+        CompletableFuture<T> cf = new CompletableFuture<>();
+        cf.completeExceptionally(ConcurrencyUtil.wrap(new ResourceNotFoundException(message)));
+        return cf;
+    }
+
+    /**
+     * Cancel a set of source futures once a future depending on them is cancelled. This is required as
+     * cancelling a {@link CompletableFuture} does not affect the futures it depends on, so without
+     * propagating the cancellation the work backing the source futures would continue regardless.
+     *
+     * <p>Source futures may be shared with other dependents, in which case the cancellation should only be propagated
+     * if no other dependents are left.
+     *
+     * @param <T> The type of the value of the dependent future
+     * @param dependent The dependent future
+     * @param sources The futures to cancel alongside the dependent future
+     * @return The dependent future, for chaining
+     */
+    @NotNull
+    public static <T> CompletableFuture<T> propagateCancellation(@NotNull CompletableFuture<T> dependent, @NotNull CompletableFuture<?> @NotNull... sources) {
+        dependent.whenComplete((ignored, ex) -> {
+            if (dependent.isCancelled()) {
+                for (CompletableFuture<?> source : sources) {
+                    source.cancel(true);
+                }
+            }
+        });
+        return dependent;
+    }
+
+    /**
+     * Run a task on the given {@link Executor} once the given delay elapsed. The delay is measured by a single
+     * shared daemon thread, which only hands the task over to the executor.
+     *
+     * @param task The task to run
+     * @param delay The delay in milliseconds
+     * @param executor The executor to run the task on
+     * @return A {@link ScheduledFuture} that may be used to cancel the task before it is handed over to the executor
+     */
+    @NotNull
+    public static ScheduledFuture<?> scheduleDelayed(@NotNull Runnable task, long delay, @NotNull Executor executor) {
+        Objects.requireNonNull(task, "task may not be null");
+        return SchedulerHolder.SCHEDULER.schedule(() -> executor.execute(task), delay, TimeUnit.MILLISECONDS);
+    }
+
     @SuppressWarnings("unchecked")
     private static <T extends Throwable> void sneakyThrow(Throwable t) throws T {
         throw (T) t;
@@ -40,33 +186,136 @@ public class ConcurrencyUtil {
     @NotNull
     public static <T> CompletableFuture<T> configureFallback(CompletableFuture<T> mains, Supplier<CompletableFuture<T>> fallback) {
         return JavaInterop.exceptionallyCompose(mains, (t) -> {
-            return fallback.get().exceptionally((t2) -> {
+            CompletableFuture<T> fallbackFuture = fallback.get();
+            return ConcurrencyUtil.propagateCancellation(fallbackFuture.exceptionally((t2) -> {
                 t2.addSuppressed(t);
                 ConcurrencyUtil.sneakyThrow(t);
                 throw new InternalError(t);
-            });
+            }), fallbackFuture);
         });
     }
 
+    /**
+     * Recover from the exceptional completion of a future. Unlike {@link CompletableFuture#exceptionally(Function)},
+     * the function may return null in order to rethrow the exception. Furthermore cancelling the returned future
+     * cancels the source future without invoking the function.
+     *
+     * @param <T> The type of the value of the source future
+     * @param main The source future
+     * @param fn The function computing the fallback value, or null
+     * @return The dependent future
+     */
     @NotNull
     public static <T> CompletableFuture<T> exceptionally(CompletableFuture<T> main, Function<Throwable, T> fn) {
-        return main.exceptionally((t) -> {
-            T result = fn.apply(t);
+        CompletableFuture<T> dependent = new CompletableFuture<>();
+
+        main.whenComplete((value, t) -> {
+            if (t == null) {
+                dependent.complete(value);
+                return;
+            } else if (dependent.isDone()) {
+                return; // Cancelled, so there is nothing to recover
+            }
+
+            T result;
+
+            try {
+                result = fn.apply(t);
+            } catch (Throwable t2) {
+                dependent.completeExceptionally(ConcurrencyUtil.wrap(t2));
+                return;
+            }
 
             if (result == null) {
-                ConcurrencyUtil.sneakyThrow(t);
-                throw new InternalError();
+                dependent.completeExceptionally(ConcurrencyUtil.wrap(t));
             } else {
-                return result;
+                dependent.complete(result);
+            }
+        });
+
+        return ConcurrencyUtil.propagateCancellation(dependent, main);
+    }
+
+    /**
+     * Equivalent to {@link CompletableFuture#thenApply(Function)}, except that cancelling the returned future
+     * also cancels the source future.
+     *
+     * @param <T> The type of the value of the source future
+     * @param <U> The type of the value of the dependent future
+     * @param source The source future
+     * @param fn The function to apply to the value of the source future
+     * @return The dependent future
+     */
+    @NotNull
+    public static <T, U> CompletableFuture<U> thenApply(@NotNull CompletableFuture<T> source, @NotNull Function<? super T, ? extends U> fn) {
+        return ConcurrencyUtil.propagateCancellation(source.thenApply(fn), source);
+    }
+
+    /**
+     * Equivalent to {@link CompletableFuture#thenApplyAsync(Function, Executor)}, except that cancelling the returned future
+     * also cancels the source future.
+     *
+     * @param <T> The type of the value of the source future
+     * @param <U> The type of the value of the dependent future
+     * @param source The source future
+     * @param fn The function to apply to the value of the source future
+     * @param executor The executor to apply the function on
+     * @return The dependent future
+     */
+    @NotNull
+    public static <T, U> CompletableFuture<U> thenApplyAsync(@NotNull CompletableFuture<T> source, @NotNull Function<? super T, ? extends U> fn, @NotNull Executor executor) {
+        return ConcurrencyUtil.propagateCancellation(source.thenApplyAsync(fn, executor), source);
+    }
+
+    /**
+     * Equivalent to {@link CompletableFuture#thenCompose(Function)}, except that cancelling the returned future
+     * also cancels the source future as well as the future returned by the function.
+     *
+     * @param <T> The type of the value of the source future
+     * @param <U> The type of the value of the dependent future
+     * @param source The source future
+     * @param fn The function to apply to the value of the source future
+     * @return The dependent future
+     */
+    @NotNull
+    public static <T, U> CompletableFuture<U> thenCompose(@NotNull CompletableFuture<T> source, @NotNull Function<? super T, ? extends CompletableFuture<U>> fn) {
+        CompletableFuture<U> dependent = new CompletableFuture<>();
+
+        source.whenComplete((value, ex) -> {
+            if (ex != null) {
+                dependent.completeExceptionally(ConcurrencyUtil.wrap(ex));
+                return;
+            } else if (dependent.isDone()) {
+                return; // Cancelled
             }
+
+            CompletableFuture<U> composed;
+
+            try {
+                composed = fn.apply(value);
+            } catch (Throwable t) {
+                dependent.completeExceptionally(ConcurrencyUtil.wrap(t));
+                return;
+            }
+
+            ConcurrencyUtil.propagateCancellation(dependent, composed);
+            composed.whenComplete((result, ex2) -> {
+                if (ex2 == null) {
+                    dependent.complete(result);
+                } else {
+                    dependent.completeExceptionally(ConcurrencyUtil.wrap(ex2));
+                }
+            });
         });
+
+        return ConcurrencyUtil.propagateCancellation(dependent, source);
     }
 
     @NotNull
     public static <T, C extends Collection<T>> CompletableFuture<C> thenAdd(@NotNull CompletableFuture<C> collectionProvider, @NotNull CompletableFuture<T> valueProvider) {
         @SuppressWarnings({"unchecked", "null"}) // Java generics really aren't the yellow of the egg as we Germans would put it
-        StronglyMultiCompletableFuture<Collection<T>> cf = new StronglyMultiCompletableFuture<>((CompletableFuture<Collection<T>>) collectionProvider, valueProvider.thenApply(Collections::singleton));
-        return cf.thenApply((list) -> {
+        StronglyMultiCompletableFuture<Collection<T>> cf = new StronglyMultiCompletableFuture<>((CompletableFuture<Collection<T>>) collectionProvider, ConcurrencyUtil.thenApply(valueProvider, Collections::singleton));
+        return ConcurrencyUtil.thenApply(cf, (list) -> {
             // StronglyMultiCompletableFuture can absorb exceptions. This isn't what we'd like to happen, so we will rethrow in case this occurred.
             if (list.size() != 2) {
                 throw cf.generateException();
@@ -78,4 +327,23 @@ public class ConcurrencyUtil {
             return collection;
         });
     }
+
+    /**
+     * Wrap an exception in a {@link CompletionException} just like {@link CompletableFuture} does when
+     * propagating exceptions to dependent stages. {@link ResourceNotFoundException ResourceNotFoundExceptions}
+     * are wrapped without recording a stack trace.
+     *
+     * @param t The exception to wrap
+     * @return The wrapped exception, or the exception itself if it already is a {@link CompletionException}
+     */
+    @NotNull
+    public static CompletionException wrap(@NotNull Throwable t) {
+        if (t instanceof CompletionException) {
+            return (CompletionException) t;
+        } else if (t instanceof ResourceNotFoundException) {
+            return new NotFoundCompletionException((ResourceNotFoundException) t);
+        }
+
+        return new CompletionException(t);
+    }
 }
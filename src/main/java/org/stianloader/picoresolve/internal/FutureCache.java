@@ -0,0 +1,345 @@
+package org.stianloader.picoresolve.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A bounded in-memory cache that stores {@link CompletableFuture futures} instead of plain values.
+ * Storing the futures (rather than their values) means that concurrent requesters of the same key
+ * attach themselves to the same in-flight computation instead of starting their own.
+ *
+ * <p>Each entry has a weight, which is computed by the cache's weigher once the future of the entry completes.
+ * Entries whose futures have not yet completed have a weight of 1. Entries are evicted in least-recently-used
+ * order once the total weight of all entries exceeds the maximum weight of the cache.
+ * Futures that complete exceptionally are removed from the cache so that later requests may retry.
+ *
+ * <p>Further, entries may expire after a certain amount of time, as computed by the cache's expiry function once the
+ * future of the entry completes. Expired entries are not returned by {@link #get(Object, Function)} and are
+ * instead loaded anew.
+ *
+ * <p>While the future of an entry has not completed, each requester obtains its own future, which may be cancelled
+ * without affecting other requesters. Once all requesters of an entry cancelled their futures, the entry is removed
+ * and the future returned by the loader of the entry is cancelled.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values the cached futures complete with
+ */
+public class FutureCache<K, V> {
+
+    private static final class CacheEntry<V> {
+        /**
+         * The amount of requesters of the entry that did not cancel their future, including the requester that loads the entry.
+         */
+        private int consumers = 1;
+        @NotNull
+        private final CompletableFuture<V> future;
+        @Nullable
+        private CompletableFuture<V> source;
+        private int weight = 1;
+        private boolean expiring;
+        private long expiresAt;
+
+        private CacheEntry(@NotNull CompletableFuture<V> future) {
+            this.future = future;
+        }
+    }
+
+    @NotNull
+    private final LinkedHashMap<K, CacheEntry<V>> entries = new LinkedHashMap<>(16, 0.75F, true);
+    @NotNull
+    private final ToLongFunction<V> expiry;
+    private long maximumWeight;
+    private long totalWeight;
+    @NotNull
+    private final ToIntFunction<V> weigher;
+
+    /**
+     * Create a cache where every entry has a weight of 1, meaning that the maximum weight
+     * equals the maximum amount of entries of the cache.
+     *
+     * @param maximumSize The maximum amount of entries
+     */
+    public FutureCache(long maximumSize) {
+        this(maximumSize, (value) -> 1);
+    }
+
+    /**
+     * Create a cache whose entries do not expire.
+     *
+     * @param maximumWeight The maximum total weight of all entries
+     * @param weigher The function computing the weight of a value
+     */
+    public FutureCache(long maximumWeight, @NotNull ToIntFunction<V> weigher) {
+        this(maximumWeight, weigher, (value) -> Long.MAX_VALUE);
+    }
+
+    /**
+     * Create a cache whose entries expire.
+     *
+     * @param maximumWeight The maximum total weight of all entries
+     * @param weigher The function computing the weight of a value
+     * @param expiry The function computing the duration in milliseconds a value should be kept in the cache after
+     * it has been computed. If the duration is 0 or negative, the value is evicted as soon as it has been computed,
+     * that is it is only shared with requesters that attached themselves while it was being computed.
+     */
+    public FutureCache(long maximumWeight, @NotNull ToIntFunction<V> weigher, @NotNull ToLongFunction<V> expiry) {
+        this.weigher = weigher;
+        this.expiry = expiry;
+        this.setMaximumWeight(maximumWeight);
+    }
+
+    /**
+     * Remove all entries from the cache. Pending loads are not cancelled.
+     */
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+            this.totalWeight = 0;
+        }
+    }
+
+    /**
+     * Obtain the future of an entry, loading the entry through the given loader if it is absent or expired.
+     * Cancelling the returned future does not affect other requesters of the same entry.
+     *
+     * @param key The key of the entry
+     * @param loader The function loading the entry, only invoked if the entry needs to be loaded
+     * @return A future which completes with the value of the entry
+     */
+    @NotNull
+    public CompletableFuture<V> get(@NotNull K key, @NotNull Function<@NotNull K, @NotNull CompletableFuture<V>> loader) {
+        CacheEntry<V> entry;
+
+        synchronized (this.entries) {
+            entry = this.entries.get(key);
+
+            if (entry != null) {
+                if (!entry.expiring || entry.expiresAt - System.nanoTime() > 0) {
+                    if (entry.future.isDone()) {
+                        return entry.future;
+                    }
+
+                    entry.consumers++;
+                    return this.createConsumer(key, entry);
+                }
+
+                this.entries.remove(key);
+                this.totalWeight -= entry.weight;
+            }
+
+            entry = new CacheEntry<>(new CompletableFuture<>());
+
+            if (this.maximumWeight != 0) {
+                this.entries.put(key, entry);
+                this.totalWeight += entry.weight;
+                this.evict();
+            }
+        }
+
+        CacheEntry<V> placeholder = entry;
+        CompletableFuture<V> source;
+
+        try {
+            source = loader.apply(key);
+        } catch (Throwable t) {
+            source = JavaInterop.failedFuture(t);
+        }
+
+        synchronized (this.entries) {
+            placeholder.source = source;
+        }
+
+        source.whenComplete((value, ex) -> {
+            if (ex == null) {
+                this.reweigh(key, placeholder, value);
+                placeholder.future.complete(value);
+            } else {
+                this.invalidate(key, placeholder);
+                placeholder.future.completeExceptionally(ex);
+            }
+        });
+
+        if (placeholder.future.isDone()) {
+            return placeholder.future;
+        }
+
+        return this.createConsumer(key, placeholder);
+    }
+
+    /**
+     * Create the future returned to a requester of an entry that is still being loaded. The requester
+     * needs to be accounted for in {@link CacheEntry#consumers} beforehand.
+     */
+    @NotNull
+    private CompletableFuture<V> createConsumer(@NotNull K key, @NotNull CacheEntry<V> entry) {
+        CompletableFuture<V> consumer = new CompletableFuture<>();
+
+        entry.future.whenComplete((value, ex) -> {
+            if (ex == null) {
+                consumer.complete(value);
+            } else {
+                consumer.completeExceptionally(ex);
+            }
+        });
+
+        consumer.whenComplete((value, ex) -> {
+            if (consumer.isCancelled()) {
+                this.release(key, entry);
+            }
+        });
+
+        return consumer;
+    }
+
+    /**
+     * Obtains the maximum total weight of all entries, beyond which the least recently used entries are evicted.
+     *
+     * @return The maximum weight
+     */
+    @Contract(pure = true)
+    public long getMaximumWeight() {
+        return this.maximumWeight;
+    }
+
+    /**
+     * Obtains the total weight of all entries currently held by the cache.
+     *
+     * @return The total weight
+     */
+    @Contract(pure = true)
+    public long getTotalWeight() {
+        synchronized (this.entries) {
+            return this.totalWeight;
+        }
+    }
+
+    /**
+     * Remove an entry from the cache, so that it is loaded anew when requested the next time.
+     *
+     * @param key The key of the entry
+     */
+    public void invalidate(@NotNull K key) {
+        synchronized (this.entries) {
+            CacheEntry<V> entry = this.entries.remove(key);
+
+            if (entry != null) {
+                this.totalWeight -= entry.weight;
+            }
+        }
+    }
+
+    private void invalidate(@NotNull K key, @NotNull CacheEntry<V> expected) {
+        synchronized (this.entries) {
+            if (this.entries.get(key) == expected) {
+                this.entries.remove(key);
+                this.totalWeight -= expected.weight;
+            }
+        }
+    }
+
+    private void release(@NotNull K key, @NotNull CacheEntry<V> entry) {
+        CompletableFuture<V> source;
+
+        synchronized (this.entries) {
+            if (--entry.consumers != 0 || entry.future.isDone()) {
+                return;
+            }
+
+            // Later requesters need to load the entry anew
+            if (this.entries.get(key) == entry) {
+                this.entries.remove(key);
+                this.totalWeight -= entry.weight;
+            }
+
+            source = entry.source;
+        }
+
+        if (source != null) {
+            source.cancel(true);
+        }
+    }
+
+    private void reweigh(@NotNull K key, @NotNull CacheEntry<V> entry, V value) {
+        int weight = Math.max(1, this.weigher.applyAsInt(value));
+        long lifetime = this.expiry.applyAsLong(value);
+
+        synchronized (this.entries) {
+            if (this.entries.get(key) != entry) {
+                // Already evicted, or the cache is disabled
+                entry.weight = weight;
+                return;
+            }
+
+            if (lifetime <= 0) {
+                this.entries.remove(key);
+                this.totalWeight -= entry.weight;
+                return;
+            }
+
+            if (lifetime < TimeUnit.NANOSECONDS.toMillis(Long.MAX_VALUE / 2)) {
+                entry.expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lifetime);
+                entry.expiring = true;
+            }
+
+            this.totalWeight += weight - entry.weight;
+            entry.weight = weight;
+            this.evict();
+        }
+    }
+
+    private void evict() {
+        Iterator<CacheEntry<V>> it = this.entries.values().iterator();
+
+        while (this.totalWeight > this.maximumWeight && it.hasNext()) {
+            this.totalWeight -= it.next().weight;
+            it.remove();
+        }
+    }
+
+    /**
+     * Set the maximum total weight of all entries this cache may hold. A value of 0 disables the
+     * cache outright, in which case no in-flight futures are shared either.
+     * Lowering the maximum weight evicts the least recently used entries immediately.
+     *
+     * @param maximumWeight The new maximum total weight
+     */
+    public void setMaximumWeight(long maximumWeight) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("maximumWeight may not be negative (got " + maximumWeight + ")");
+        }
+
+        synchronized (this.entries) {
+            this.maximumWeight = maximumWeight;
+            this.evict();
+        }
+    }
+
+    /**
+     * Obtains the amount of entries currently held by the cache, including entries that are still being loaded.
+     *
+     * @return The amount of entries
+     */
+    @Contract(pure = true)
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    @Override
+    @NotNull
+    public String toString() {
+        synchronized (this.entries) {
+            return "FutureCache[size=" + this.entries.size() + ", totalWeight=" + this.totalWeight + ", maximumWeight=" + this.maximumWeight + "]";
+        }
+    }
+}
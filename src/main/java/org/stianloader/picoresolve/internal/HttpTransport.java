@@ -0,0 +1,84 @@
+package org.stianloader.picoresolve.internal;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.picoresolve.repo.ConditionalResource;
+
+/**
+ * Non-blocking HTTP transport used by {@link org.stianloader.picoresolve.repo.URIMavenRepository}.
+ *
+ * <p>Java 8 does not ship a non-blocking HTTP client, so this implementation does not support any URI,
+ * causing the repository to fall back to blocking {@link java.net.HttpURLConnection} requests.
+ * The multi-release variant of this class used on Java 11 and above is based on <code>java.net.http.HttpClient</code>.
+ */
+public final class HttpTransport {
+
+    /**
+     * Download a resource to a file, resuming the download if the file was partially downloaded before (see {@link PartialDownload}).
+     *
+     * @param uri The URI of the resource
+     * @param target The file to write to
+     * @param digests The digests to update with the contents of the resource
+     * @param connectTimeout The timeout for establishing connections in milliseconds, 0 to wait indefinitely
+     * @param readTimeout The timeout for awaiting the response in milliseconds, 0 to wait indefinitely
+     * @param executor The executor to perform blocking I/O on
+     * @return A {@link CompletableFuture} which completes with the target file once the resource was downloaded
+     */
+    @NotNull
+    public static CompletableFuture<@NotNull Path> download(@NotNull URI uri, @NotNull Path target, @NotNull List<@NotNull MessageDigest> digests, int connectTimeout, int readTimeout, @NotNull Executor executor) {
+        return JavaInterop.failedFuture(new UnsupportedOperationException("Non-blocking HTTP transport is not available on this Java version"));
+    }
+
+    /**
+     * Fetch a resource.
+     *
+     * @param uri The URI of the resource
+     * @param connectTimeout The timeout for establishing connections in milliseconds, 0 to wait indefinitely
+     * @param readTimeout The timeout for awaiting the response in milliseconds, 0 to wait indefinitely
+     * @param executor The executor to process the response on
+     * @return A {@link CompletableFuture} which completes with the contents of the resource
+     */
+    @NotNull
+    public static CompletableFuture<byte @NotNull[]> get(@NotNull URI uri, int connectTimeout, int readTimeout, @NotNull Executor executor) {
+        return JavaInterop.failedFuture(new UnsupportedOperationException("Non-blocking HTTP transport is not available on this Java version"));
+    }
+
+    /**
+     * Fetch a resource unless it was not modified since it was obtained alongside the given validators.
+     *
+     * @param uri The URI of the resource
+     * @param etag The entity tag of the previously obtained resource, or null if unknown
+     * @param lastModified The last modification date of the previously obtained resource, or null if unknown
+     * @param connectTimeout The timeout for establishing connections in milliseconds, 0 to wait indefinitely
+     * @param readTimeout The timeout for awaiting the response in milliseconds, 0 to wait indefinitely
+     * @param executor The executor to process the response on
+     * @return A {@link CompletableFuture} which completes with the resource, without data if it was not modified
+     */
+    @NotNull
+    public static CompletableFuture<@NotNull ConditionalResource> getIfModified(@NotNull URI uri, @Nullable String etag, @Nullable String lastModified, int connectTimeout, int readTimeout, @NotNull Executor executor) {
+        return JavaInterop.failedFuture(new UnsupportedOperationException("Non-blocking HTTP transport is not available on this Java version"));
+    }
+
+    /**
+     * Whether requests to the given URI can be performed through this transport.
+     *
+     * @param uri The URI to check
+     * @return True if the scheme of the URI is supported
+     */
+    @Contract(pure = true)
+    public static boolean isSupported(@NotNull URI uri) {
+        return false;
+    }
+
+    private HttpTransport() {
+        throw new AssertionError();
+    }
+}
@@ -3,26 +3,49 @@ package org.stianloader.picoresolve.internal;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 import org.jetbrains.annotations.NotNull;
 
 public final class JavaInterop {
+    /**
+     * Abort blocking stream operations once the current thread was interrupted, as streams (unlike channels)
+     * generally do not react to interrupts on their own.
+     */
+    private static void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Interrupted while transferring data");
+        }
+    }
+
     public static String codepointToString(int codepoint) {
         return new String(new int[] {codepoint}, 0, 1);
     }
 
+    /**
+     * Equivalent to <code>CompletableFuture.exceptionallyCompose</code>, which was added in Java 12. Unlike the
+     * Java 12 method, cancelling the returned future also cancels the source future as well as the future returned
+     * by the function.
+     *
+     * @param <T> The type of the value of the source future
+     * @param thiz The source future
+     * @param fn The function computing the fallback future from the exception of the source future
+     * @return The dependent future
+     */
     @SuppressWarnings("null")
     @NotNull
     public static <T> CompletableFuture<T> exceptionallyCompose(CompletableFuture<T> thiz, @NotNull Function<Throwable, CompletableFuture<T>> fn) {
-        return thiz.handle((result, t) -> {
+        CompletableFuture<Throwable> failure = ConcurrencyUtil.propagateCancellation(thiz.handle((result, t) -> t), thiz);
+        return ConcurrencyUtil.thenCompose(failure, (t) -> {
             if (t == null) {
                 return thiz;
             } else {
                 return fn.apply(t);
             }
-        }).thenCompose(Function.identity());
+        });
     }
 
     @NotNull
@@ -36,11 +59,23 @@ public final class JavaInterop {
         byte[] buffer = new byte[4096];
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         for (int read = is.read(buffer); read != -1; read = is.read(buffer)) {
+            JavaInterop.checkInterrupted();
             baos.write(buffer, 0, read);
         }
         return baos.toByteArray();
     }
 
+    public static long transferTo(InputStream is, OutputStream os) throws IOException {
+        byte[] buffer = new byte[8192];
+        long transferred = 0L;
+        for (int read = is.read(buffer); read != -1; read = is.read(buffer)) {
+            JavaInterop.checkInterrupted();
+            os.write(buffer, 0, read);
+            transferred += read;
+        }
+        return transferred;
+    }
+
     private JavaInterop() {
         throw new AssertionError();
     }
@@ -0,0 +1,86 @@
+package org.stianloader.picoresolve.internal;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * Tracks the most recent latencies of an operation, such as the requests sent to a repository,
+ * in order to derive percentiles from them.
+ */
+public final class LatencyTracker {
+
+    /**
+     * The minimum amount of samples required before percentiles are computed.
+     */
+    private static final int MIN_SAMPLES = 8;
+
+    private int count;
+    private int next;
+    private final long[] samples;
+
+    /**
+     * Create a new {@link LatencyTracker}.
+     *
+     * @param capacity The amount of recent samples to keep.
+     */
+    public LatencyTracker(int capacity) {
+        if (capacity < LatencyTracker.MIN_SAMPLES) {
+            throw new IllegalArgumentException("capacity must be at least " + LatencyTracker.MIN_SAMPLES + " (got " + capacity + ")");
+        }
+
+        this.samples = new long[capacity];
+    }
+
+    /**
+     * Compute a percentile of the recorded latencies.
+     *
+     * @param percentile The percentile, between 0 (exclusive) and 1 (inclusive).
+     * @return The latency at the given percentile in milliseconds, or -1 if not enough samples were recorded yet.
+     */
+    @Contract(pure = true)
+    public long getPercentile(double percentile) {
+        long[] sorted;
+
+        synchronized (this) {
+            if (this.count < LatencyTracker.MIN_SAMPLES) {
+                return -1L;
+            }
+
+            sorted = Arrays.copyOf(this.samples, this.count);
+        }
+
+        Arrays.sort(sorted);
+        int index = Math.min(sorted.length - 1, Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1));
+        return TimeUnit.NANOSECONDS.toMillis(sorted[index]);
+    }
+
+    /**
+     * Obtains the recorded latencies, from the oldest to the most recent sample.
+     *
+     * @return A copy of the recorded latencies, in nanoseconds.
+     */
+    @Contract(pure = true)
+    public synchronized long[] getSamples() {
+        long[] copy = new long[this.count];
+        int oldest = this.count == this.samples.length ? this.next : 0;
+
+        for (int i = 0; i < this.count; i++) {
+            copy[i] = this.samples[(oldest + i) % this.samples.length];
+        }
+
+        return copy;
+    }
+
+    /**
+     * Record the latency of an operation, evicting the oldest sample if the tracker is full.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    public synchronized void record(long nanos) {
+        this.samples[this.next] = nanos;
+        this.next = (this.next + 1) % this.samples.length;
+        this.count = Math.min(this.count + 1, this.samples.length);
+    }
+}
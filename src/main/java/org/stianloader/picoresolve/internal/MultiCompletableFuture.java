@@ -4,9 +4,20 @@ import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * A {@link CompletableFuture} that completes with the result of the first future to complete normally,
+ * cancelling all other futures. The resulting future will only exceptionally complete once all
+ * futures completed exceptionally.
+ */
 public class MultiCompletableFuture<T> extends CompletableFuture<T> {
 
+    /**
+     * The exception a multi-future completes with if all of its sources failed. The exception does not record a
+     * stack trace of its own, as it would only point to the callback of the last failing source.
+     * The exceptions of the sources are attached as suppressed exceptions instead.
+     */
     static class MultiCompletionException extends CompletionException {
 
         private static final long serialVersionUID = -3361756801104382585L;
@@ -20,11 +31,20 @@ public class MultiCompletableFuture<T> extends CompletableFuture<T> {
                 this.addSuppressed(t);
             }
         }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
     }
 
     private final CompletableFuture<T>[] sources;
+    /**
+     * The exceptions the sources completed with. Each slot is only written once by the callback of the respective source,
+     * with {@link #exceptionalCompletions} publishing the written slots to the thread observing the last failure.
+     */
     private final Throwable[] exceptions;
-    private int exceptionalCompletions = 0;
+    private final AtomicInteger exceptionalCompletions = new AtomicInteger();
 
     public MultiCompletableFuture(List<CompletableFuture<T>> sources) {
         this(sources.toArray(new CompletableFuture[0]));
@@ -37,16 +57,33 @@ public class MultiCompletableFuture<T> extends CompletableFuture<T> {
         this.sources = sources;
         this.exceptions = new Throwable[this.sources.length];
         for (int i = 0; i < sources.length; i++) {
-            CompletableFuture<T> future = sources[i];
-            future.thenAccept(this::sourceCompleted);
             final int futureIndex = i;
-            future.exceptionally((ex) -> {
-                this.sourceException(futureIndex, ex);
-                return null;
+            sources[i].whenComplete((result, ex) -> {
+                if (ex == null) {
+                    this.sourceCompleted(result);
+                } else {
+                    this.sourceException(futureIndex, ex);
+                }
             });
         }
     }
 
+    /**
+     * Cancel this future alongside all of its sources that have not completed yet.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+        if (cancelled) {
+            for (CompletableFuture<T> future : this.sources) {
+                future.cancel(mayInterruptIfRunning);
+            }
+        }
+
+        return cancelled;
+    }
+
     private void sourceCompleted(T result) {
         if (this.complete(result)) {
             for (CompletableFuture<T> future : this.sources) {
@@ -59,16 +96,10 @@ public class MultiCompletableFuture<T> extends CompletableFuture<T> {
 
     private void sourceException(int i, Throwable exception) {
         Objects.requireNonNull(exception);
-        synchronized (this.exceptions) {
-            if (this.exceptions[i] != null) {
-                return;
-            }
-            this.exceptions[i] = exception;
-            if (++exceptionalCompletions == this.exceptions.length) {
-                if (!isDone()) {
-                    completeExceptionally(new MultiCompletionException(exceptions).fillInStackTrace());
-                }
-            }
+        this.exceptions[i] = exception;
+
+        if (this.exceptionalCompletions.incrementAndGet() == this.exceptions.length && !this.isDone()) {
+            this.completeExceptionally(new MultiCompletionException(this.exceptions));
         }
     }
 }
@@ -0,0 +1,165 @@
+package org.stianloader.picoresolve.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Utilities for resuming interrupted downloads through HTTP range requests.
+ *
+ * <p>While a file is being downloaded, the validator of the response (a strong entity tag, or the last modification date)
+ * is stored in a sibling file with the ".resume" suffix. If the download is interrupted, the partially written file and
+ * the validator file are kept, allowing the next attempt to only request the missing bytes. The validator is sent in the
+ * "If-Range" header, so that the server sends the file in full if it changed in the meantime.
+ */
+public final class PartialDownload {
+
+    /**
+     * Delete a partially downloaded file alongside its validator file.
+     *
+     * @param target The partially downloaded file.
+     */
+    public static void discard(@NotNull Path target) {
+        try {
+            Files.deleteIfExists(target);
+        } catch (IOException ignored) {
+        }
+
+        try {
+            Files.deleteIfExists(PartialDownload.getValidatorFile(target));
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Feed the contents of a partially downloaded file to a list of digests, so that the digests
+     * cover the entire file once the remaining bytes were downloaded.
+     *
+     * @param target The partially downloaded file.
+     * @param digests The digests to update.
+     * @throws IOException If the file could not be read.
+     */
+    public static void digest(@NotNull Path target, @NotNull List<@NotNull MessageDigest> digests) throws IOException {
+        if (digests.isEmpty()) {
+            return;
+        }
+
+        byte[] buffer = new byte[8192];
+
+        try (InputStream is = Files.newInputStream(target)) {
+            for (int read = is.read(buffer); read != -1; read = is.read(buffer)) {
+                for (MessageDigest digest : digests) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtains the amount of bytes that were already downloaded, provided that the download can be resumed.
+     *
+     * @param target The file to download to.
+     * @return The amount of bytes already present, or 0 if the download needs to start from scratch.
+     */
+    public static long getResumeOffset(@NotNull Path target) {
+        try {
+            if (Files.notExists(PartialDownload.getValidatorFile(target)) || Files.notExists(target)) {
+                return 0L;
+            }
+
+            return Files.size(target);
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Obtains the file storing the validator (the ETag or Last-Modified value) of the resource being downloaded
+     * to the given file, which is required to safely resume the download.
+     *
+     * @param target The file to download to.
+     * @return The validator file, which may not exist.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public static Path getValidatorFile(@NotNull Path target) {
+        return target.resolveSibling(target.getFileName().toString() + ".resume");
+    }
+
+    /**
+     * Parse the start offset of the "Content-Range" header of a partial response.
+     *
+     * @param contentRange The value of the header, may be null if the header is absent.
+     * @return The offset of the first byte sent by the server, or -1 if the header is malformed or absent.
+     */
+    @Contract(pure = true)
+    public static long parseRangeStart(@Nullable String contentRange) {
+        if (contentRange == null || !contentRange.startsWith("bytes ")) {
+            return -1L;
+        }
+
+        int dash = contentRange.indexOf('-');
+
+        if (dash == -1) {
+            return -1L;
+        }
+
+        try {
+            return Long.parseLong(contentRange.substring(6, dash).trim());
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Reads the validator of a partially downloaded file.
+     *
+     * @param target The partially downloaded file.
+     * @return The validator, or null if absent.
+     */
+    @Nullable
+    public static String readValidator(@NotNull Path target) {
+        try {
+            String validator = new String(Files.readAllBytes(PartialDownload.getValidatorFile(target)), StandardCharsets.UTF_8).trim();
+            return validator.isEmpty() ? null : validator;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Store the validator of a response, so that the download can be resumed if it is interrupted.
+     * Weak entity tags may not be used for range requests, in which case the last modification date is
+     * used instead. If no suitable validator is available, the download can not be resumed.
+     *
+     * @param target The file that is being downloaded.
+     * @param etag The value of the "ETag" header of the response.
+     * @param lastModified The value of the "Last-Modified" header of the response.
+     */
+    public static void writeValidator(@NotNull Path target, @Nullable String etag, @Nullable String lastModified) {
+        String validator = etag != null && !etag.startsWith("W/") ? etag : lastModified;
+        Path validatorFile = PartialDownload.getValidatorFile(target);
+
+        try {
+            if (validator == null) {
+                Files.deleteIfExists(validatorFile);
+            } else {
+                Files.write(validatorFile, validator.getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException ignored) {
+            // The download is still possible, but it can't be resumed
+        }
+    }
+
+    private PartialDownload() {
+        throw new AssertionError();
+    }
+}
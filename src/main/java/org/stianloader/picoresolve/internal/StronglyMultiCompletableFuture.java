@@ -2,7 +2,6 @@ package org.stianloader.picoresolve.internal;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -20,10 +19,14 @@ import org.stianloader.picoresolve.internal.MultiCompletableFuture.MultiCompleti
 public class StronglyMultiCompletableFuture<T> extends CompletableFuture<@NotNull List<T>> {
 
     private final CompletableFuture<T>[] sources;
+    /**
+     * The results and exceptions the sources completed with. Each slot is only written once by the callback of the
+     * respective source, with {@link #completions} publishing the written slots to the thread observing the last completion.
+     */
     private final T[] results;
     private final Throwable[] exceptions;
     private final AtomicInteger completions = new AtomicInteger();
-    private int exceptionally = 0;
+    private final AtomicInteger exceptionally = new AtomicInteger();
 
     public StronglyMultiCompletableFuture(List<CompletableFuture<T>> sources) {
         this(sources.toArray(new CompletableFuture[0]));
@@ -37,12 +40,18 @@ public class StronglyMultiCompletableFuture<T> extends CompletableFuture<@NotNul
         this.results = (T[]) new Object[this.sources.length];
 
         for (int i = 0; i < sources.length; i++) {
-            CompletableFuture<T> future = sources[i];
             final int futureIndex = i;
-            future.thenAccept((res) -> this.sourceCompleted(futureIndex, res));
-            future.exceptionally((ex) -> {
-                this.sourceException(futureIndex, ex);
-                return null;
+            sources[i].whenComplete((result, ex) -> {
+                if (ex == null) {
+                    this.results[futureIndex] = result;
+                } else {
+                    this.exceptions[futureIndex] = ex;
+                    this.exceptionally.incrementAndGet();
+                }
+
+                if (this.completions.incrementAndGet() == this.sources.length) {
+                    this.sourcesCompleted();
+                }
             });
         }
 
@@ -51,57 +60,44 @@ public class StronglyMultiCompletableFuture<T> extends CompletableFuture<@NotNul
         }
     }
 
-    private void sourceCompleted(int i, T result) {
-        Objects.requireNonNull(result);
-        synchronized (this) {
-            if (this.exceptions[i] != null || this.results[i] != null) {
-                return;
-            }
-
-            this.results[i] = result;
+    /**
+     * Cancel this future alongside all of its sources that have not completed yet.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
 
-            if (this.completions.incrementAndGet() == this.results.length && !this.isDone()) {
-                List<T> results = new ArrayList<>();
-
-                for (T t : this.results) {
-                    if (t != null) {
-                        results.add(t);
-                    }
-                }
-
-                this.complete(results);
+        if (cancelled) {
+            for (CompletableFuture<T> future : this.sources) {
+                future.cancel(mayInterruptIfRunning);
             }
         }
-    }
-
-    private void sourceException(int i, Throwable exception) {
-        Objects.requireNonNull(exception);
 
-        synchronized (this) {
-            if (this.exceptions[i] != null || this.results[i] != null) {
-                return;
-            }
-
-            this.exceptions[i] = exception;
+        return cancelled;
+    }
 
-            if (++this.exceptionally == this.exceptions.length) {
-                if (!this.isDone()) {
-                    completeExceptionally(this.generateException().fillInStackTrace());
-                }
-            }
+    /**
+     * Complete this future once all sources completed.
+     */
+    private void sourcesCompleted() {
+        if (this.isDone()) {
+            return; // Cancelled
+        }
 
-            if (this.completions.incrementAndGet() == this.results.length && !this.isDone()) {
-                List<T> results = new ArrayList<>();
+        if (this.exceptionally.get() == this.exceptions.length) {
+            this.completeExceptionally(this.generateException());
+            return;
+        }
 
-                for (T t : this.results) {
-                    if (t != null) {
-                        results.add(t);
-                    }
-                }
+        List<T> results = new ArrayList<>();
 
-                this.complete(results);
+        for (T t : this.results) {
+            if (t != null) {
+                results.add(t);
             }
         }
+
+        this.complete(results);
     }
 
     @NotNull
@@ -112,7 +108,7 @@ public class StronglyMultiCompletableFuture<T> extends CompletableFuture<@NotNul
 
     @Contract(pure = true)
     public final void throwExceptionIfCompletedUncleanly() {
-        if (this.exceptionally == 0) {
+        if (this.exceptionally.get() == 0) {
             return;
         }
 
@@ -0,0 +1,41 @@
+package org.stianloader.picoresolve.internal;
+
+import java.util.concurrent.ExecutorService;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Access to virtual threads as used by {@link org.stianloader.picoresolve.ResolverExecutors}.
+ *
+ * <p>Virtual threads were only introduced in Java 21, so this implementation does not support them,
+ * causing {@link org.stianloader.picoresolve.ResolverExecutors} to fall back to platform threads.
+ * The multi-release variant of this class used on Java 21 and above is based on <code>Thread.ofVirtual()</code>.
+ */
+public final class VirtualThreads {
+
+    /**
+     * Whether virtual threads are available on the current Java version.
+     *
+     * @return True if {@link #newBoundedExecutor(int)} is supported
+     */
+    @Contract(pure = true)
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Create an {@link ExecutorService} running every task on its own virtual thread, with at most the given amount of tasks running at once.
+     *
+     * @param maxConcurrency The maximum amount of tasks running at once
+     * @return The newly created executor
+     */
+    @NotNull
+    public static ExecutorService newBoundedExecutor(int maxConcurrency) {
+        throw new UnsupportedOperationException("Virtual threads are not available on this Java version");
+    }
+
+    private VirtualThreads() {
+        throw new AssertionError();
+    }
+}
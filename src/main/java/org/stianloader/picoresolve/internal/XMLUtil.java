@@ -1,143 +1,166 @@
 package org.stianloader.picoresolve.internal;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.NoSuchElementException;
-import java.util.Objects;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
+/**
+ * Helper methods for the streaming (StAX) parsing of XML documents.
+ */
 public class XMLUtil {
 
-    public static class ChildElementIterable implements Iterable<@NotNull Element> {
-
-        @NotNull
-        private final Element parent;
-
-        public ChildElementIterable(@NotNull Element parent) {
-            this.parent = Objects.requireNonNull(parent, "parent may not be null");
-        }
-
-        @Override
-        public Iterator<@NotNull Element> iterator() {
-            return new ElementNodeListIterator(this.parent.getChildNodes());
-        }
-    }
-
-    public static class ElementNodeListIterator implements Iterator<@NotNull Element> {
-        private int i = 0;
-        private final NodeList nodeList;
-
-        public ElementNodeListIterator(NodeList list) {
-            this.nodeList = list;
-            this.hasNext();
-        }
-
-        @Override
-        public boolean hasNext() {
-            if (this.i >= this.nodeList.getLength()) {
-                return false;
-            }
-            if (this.nodeList.item(this.i) instanceof Element) {
-                return true;
-            }
-            this.i++;
-            return this.hasNext();
-        }
-
-        @SuppressWarnings("null")
-        @Override
-        @NotNull
-        public Element next() {
-            if (!this.hasNext()) {
-                throw new NoSuchElementException("Iterator exausted: i = " + this.i + ", len = " + this.nodeList.getLength());
-            }
-            return (Element) this.nodeList.item(this.i++);
-        }
+    /**
+     * The StAX specification makes no guarantees about the thread-safety of {@link XMLInputFactory} instances,
+     * but looking up and configuring a factory is too expensive to be done for every parsed file.
+     *
+     * <p>Binding a factory to each thread does not work out when parsing on virtual threads, as every task runs on
+     * a new thread and would thus look up a new factory. Instead, configured factories are kept in a small pool shared
+     * by all threads. A factory is only borrowed while creating a reader, as readers do not make use of their factory
+     * afterwards. Hence, a handful of factories suffice regardless of the amount of threads, and factories are only
+     * created when the pool runs dry. Factories that do not fit in the pool when being returned are dropped.
+     */
+    @NotNull
+    private static final BlockingQueue<@NotNull XMLInputFactory> INPUT_FACTORIES = new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Create a new {@link XMLInputFactory} that does not process DTDs nor external entities
+     * and that coalesces adjacent character data.
+     *
+     * <p>As creating factories involves a service lookup, {@link #createReader(InputStream)} should be used instead
+     * whenever possible.
+     *
+     * @return The newly created factory
+     */
+    @NotNull
+    public static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
     }
 
-    public static class NodeListIterator implements Iterator<@NotNull Node> {
-        private int i = 0;
-        private final NodeList nodeList;
-
-        public NodeListIterator(NodeList list) {
-            this.nodeList = list;
-        }
+    /**
+     * Create a new {@link XMLStreamReader} reading from the given stream, using a pooled factory
+     * as created by {@link #createInputFactory()}.
+     *
+     * @param in The stream to read from
+     * @return The newly created reader
+     * @throws XMLStreamException If the reader could not be created
+     */
+    @NotNull
+    public static XMLStreamReader createReader(@NotNull InputStream in) throws XMLStreamException {
+        XMLInputFactory factory = XMLUtil.INPUT_FACTORIES.poll();
 
-        @Override
-        public boolean hasNext() {
-            return this.i <= this.nodeList.getLength();
+        if (factory == null) {
+            factory = XMLUtil.createInputFactory();
         }
 
-        @SuppressWarnings("null")
-        @Override
-        @NotNull
-        public Node next() {
-            return this.nodeList.item(this.i++);
+        try {
+            return factory.createXMLStreamReader(in);
+        } finally {
+            XMLUtil.INPUT_FACTORIES.offer(factory);
         }
     }
 
-    @Nullable
-    public static String elementText(@NotNull Element node, @NotNull String name) {
-        Element e = XMLUtil.optElement(node, name);
-
-        if (e == null) {
-            return null;
-        }
-
-        return e.getTextContent();
-    }
-
+    /**
+     * Obtain the qualified name of the element the reader is currently positioned at.
+     *
+     * @param reader The reader, positioned at a start or end tag.
+     * @return The name of the element, including the prefix if there is any.
+     */
     @NotNull
-    public static List<@NotNull Element> getChildElements(@NotNull Element parent) {
-        List<@NotNull Element> collected = new ArrayList<>();
-        for (Element child : new ChildElementIterable(parent)) {
-            collected.add(child);
+    public static String getTagName(@NotNull XMLStreamReader reader) {
+        String prefix = reader.getPrefix();
+        if (prefix == null || prefix.isEmpty()) {
+            return reader.getLocalName();
         }
-        return collected;
+        return prefix + ':' + reader.getLocalName();
     }
 
-    @Nullable
-    public static Element optElement(@NotNull Element parentNode, @NotNull String name) {
-        Iterator<@NotNull Element> it = new ElementNodeListIterator(parentNode.getElementsByTagName(name));
-
-        while (it.hasNext()) {
-            Element e = it.next();
-            // getElementsByTagName is not a shallow operation. That is not requested - so we shall filter out everything that doesn't match
-            if (e.getParentNode() != parentNode) {
-                continue;
+    /**
+     * Read the text content of the current element and all of it's descendants, ignoring comments
+     * and processing instructions. This is the streaming equivalent of {@link org.w3c.dom.Node#getTextContent()}.
+     * Upon return, the reader is positioned at the end tag of the current element.
+     *
+     * @param reader The reader, positioned at the start tag of an element.
+     * @return The text content of the element.
+     * @throws XMLStreamException If the underlying reader throws an exception.
+     */
+    @NotNull
+    public static String readText(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = null;
+        String firstText = null;
+        int depth = 1;
+
+        while (depth != 0) {
+            switch (reader.next()) {
+            case XMLStreamConstants.START_ELEMENT:
+                depth++;
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                depth--;
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+                if (firstText == null) {
+                    firstText = reader.getText();
+                } else {
+                    if (text == null) {
+                        text = new StringBuilder(firstText);
+                    }
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+                break;
+            default:
+                break;
             }
-            return e;
         }
 
-        return null;
-    }
-
-    @NotNull
-    public static Element reqElement(@NotNull Element parentNode, @NotNull String name) {
-        Element e = XMLUtil.optElement(parentNode, name);
-
-        if (e == null) {
-            throw new NoSuchElementException("No element tagged " + name + " for node " + parentNode.getBaseURI());
+        if (text != null) {
+            return text.toString();
         }
 
-        return e;
+        return firstText == null ? "" : firstText;
     }
 
-    @NotNull
-    public static String requireElementText(@NotNull Element node, @NotNull String name) {
-        Element e = XMLUtil.reqElement(node, name);
-        String text = e.getTextContent();
+    /**
+     * Skip the current element alongside all of it's contents.
+     * Upon return, the reader is positioned at the end tag of the element.
+     *
+     * @param reader The reader, positioned at the start tag of an element.
+     * @throws XMLStreamException If the underlying reader throws an exception.
+     */
+    public static void skipElement(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        reader.next();
+        XMLUtil.skipRemainder(reader);
+    }
 
-        if (text == null) {
-            throw new IllegalStateException("The element '" + e + "' has no text content!");
+    /**
+     * Skip the remaining contents of an element, given that the reader is positioned
+     * somewhere after the start tag of the element, but not within any child element of it.
+     * Upon return, the reader is positioned at the end tag of the element.
+     *
+     * @param reader The reader
+     * @throws XMLStreamException If the underlying reader throws an exception.
+     */
+    public static void skipRemainder(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+
+        for (int event = reader.getEventType(); ; event = reader.next()) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT && --depth == 0) {
+                return;
+            }
         }
-
-        return text;
     }
 }
@@ -10,15 +10,22 @@ import java.util.Map;
 import java.util.Properties;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * The resolver-status.properties file is functionally the same as {@link LastUpdatedFile}
  * but is indexing maven-metadata.xml files.
+ *
+ * <p>Additionally, the HTTP validators (ETag and Last-Modified headers) of the maven-metadata.xml files
+ * are stored in the file, allowing to revalidate them through conditional requests. Those keys
+ * are not used by the standard maven resolver, but are preserved by it.
  */
 public class ResolverMetaStatus {
 
     private final Map<String, String> errors = new HashMap<>();
+    private final Map<String, String> etags = new HashMap<>();
     private final Map<String, Long> lastFetch = new HashMap<>();
+    private final Map<String, String> lastModified = new HashMap<>();
     private final Map<Object, Object> nonsensePairs = new HashMap<>();
 
     public ResolverMetaStatus updateEntryErrored(String repoId, String error, long updateTime) {
@@ -33,6 +40,54 @@ public class ResolverMetaStatus {
         return this;
     }
 
+    /**
+     * Store the validators of the maven-metadata.xml file of a repository, replacing the previously stored validators.
+     *
+     * @param repoId The id of the repository
+     * @param etag The ETag of the file, or null if the repository did not send one
+     * @param lastModified The Last-Modified value of the file, or null if the repository did not send one
+     * @return The current {@link ResolverMetaStatus} instance, for chaining
+     */
+    public ResolverMetaStatus updateValidators(String repoId, @Nullable String etag, @Nullable String lastModified) {
+        String key = "maven-metadata-" + repoId + ".xml";
+
+        if (etag == null) {
+            this.etags.remove(key);
+        } else {
+            this.etags.put(key, etag);
+        }
+
+        if (lastModified == null) {
+            this.lastModified.remove(key);
+        } else {
+            this.lastModified.put(key, lastModified);
+        }
+
+        return this;
+    }
+
+    /**
+     * Obtains the ETag of the maven-metadata.xml file of a repository, for use in conditional requests.
+     *
+     * @param repoId The id of the repository
+     * @return The stored ETag, or null if none is known
+     */
+    @Nullable
+    public String getETag(String repoId) {
+        return this.etags.get("maven-metadata-" + repoId + ".xml");
+    }
+
+    /**
+     * Obtains the Last-Modified value of the maven-metadata.xml file of a repository, for use in conditional requests.
+     *
+     * @param repoId The id of the repository
+     * @return The stored Last-Modified value, or null if none is known
+     */
+    @Nullable
+    public String getLastModified(String repoId) {
+        return this.lastModified.get("maven-metadata-" + repoId + ".xml");
+    }
+
     public boolean hasErrored(String repoId) {
         return errors.containsKey("maven-metadata-" + repoId + ".xml");
     }
@@ -64,6 +119,10 @@ public class ResolverMetaStatus {
                     f.errors.put(repo, valueString);
                 } else if (action.equals("lastUpdated")) {
                     f.lastFetch.put(repo, Long.valueOf(valueString));
+                } else if (action.equals("etag")) {
+                    f.etags.put(repo, valueString);
+                } else if (action.equals("lastModified")) {
+                    f.lastModified.put(repo, valueString);
                 } else {
                     f.nonsensePairs.put(key, value);
                 }
@@ -82,6 +141,12 @@ public class ResolverMetaStatus {
         this.lastFetch.forEach((key, val) -> {
             props.put(key + ".lastUpdated", val.toString());
         });
+        this.etags.forEach((key, val) -> {
+            props.put(key + ".etag", val);
+        });
+        this.lastModified.forEach((key, val) -> {
+            props.put(key + ".lastModified", val);
+        });
         this.nonsensePairs.forEach(props::put);
         try (OutputStream os = Files.newOutputStream(out)) {
             props.store(os, "NOTE: This is a Maven Resolver internal implementation file, its format can be changed without prior notice.\n"
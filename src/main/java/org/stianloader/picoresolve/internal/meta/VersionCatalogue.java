@@ -1,26 +1,23 @@
 package org.stianloader.picoresolve.internal.meta;
 
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.jetbrains.annotations.ApiStatus.Internal;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.stianloader.picoresolve.internal.ConfusedResolverException;
 import org.stianloader.picoresolve.internal.XMLUtil;
-import org.stianloader.picoresolve.internal.XMLUtil.ChildElementIterable;
 import org.stianloader.picoresolve.version.MavenVersion;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.xml.sax.SAXException;
 
 @Internal
 public class VersionCatalogue {
@@ -178,6 +175,78 @@ public class VersionCatalogue {
         return merged;
     }
 
+    @NotNull
+    private static SnapshotVersion readSnapshotVersion(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        String extension = null;
+        String lastUpdated = null;
+        String version = null;
+        String classifier = null;
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (XMLUtil.getTagName(reader)) {
+            case "extension":
+                extension = VersionCatalogue.readText(reader, extension);
+                break;
+            case "updated":
+                lastUpdated = VersionCatalogue.readText(reader, lastUpdated);
+                break;
+            case "value":
+                version = VersionCatalogue.readText(reader, version);
+                break;
+            case "classifier":
+                classifier = VersionCatalogue.readText(reader, classifier);
+                break;
+            default:
+                XMLUtil.skipElement(reader);
+            }
+        }
+
+        if (extension == null) {
+            throw new NoSuchElementException("No element tagged extension for snapshotVersion");
+        } else if (lastUpdated == null) {
+            throw new NoSuchElementException("No element tagged updated for snapshotVersion");
+        } else if (version == null) {
+            throw new NoSuchElementException("No element tagged value for snapshotVersion");
+        }
+
+        return new SnapshotVersion(extension, classifier, version, lastUpdated);
+    }
+
+    @NotNull
+    private static String readText(@NotNull XMLStreamReader reader, @Nullable String previous) throws XMLStreamException {
+        if (previous != null) {
+            // Only the first occurrence of an element is taken into account
+            XMLUtil.skipElement(reader);
+            return previous;
+        }
+
+        return XMLUtil.readText(reader);
+    }
+
+    /**
+     * Obtain a view of this catalogue whose {@link #releaseVersions} and {@link #snapshotVersions} lists can not be
+     * modified, so that the catalogue can be handed out to several callers. The lists are backed by the lists of this
+     * catalogue, which thus should no longer be modified either.
+     *
+     * @return The unmodifiable view of this catalogue
+     */
+    @NotNull
+    public VersionCatalogue asUnmodifiable() {
+        VersionCatalogue view = new VersionCatalogue(Collections.unmodifiableList(this.releaseVersions), Collections.unmodifiableList(this.snapshotVersions));
+        view.fallbackSnapshotVersion = this.fallbackSnapshotVersion;
+        view.lastUpdated = this.lastUpdated;
+        view.lastUpdateDay = this.lastUpdateDay;
+        view.lastUpdateHour = this.lastUpdateHour;
+        view.lastUpdateMinute = this.lastUpdateMinute;
+        view.lastUpdateMonth = this.lastUpdateMonth;
+        view.lastUpdateSecond = this.lastUpdateSecond;
+        view.lastUpdateYear = this.lastUpdateYear;
+        view.latestVersion = this.latestVersion;
+        view.localCopy = this.localCopy;
+        view.releaseVersion = this.releaseVersion;
+        return view;
+    }
+
     @NotNull
     public static VersionCatalogue synthesize(List<@NotNull MavenVersion> guessedVersions) {
         VersionCatalogue catalogue = new VersionCatalogue();
@@ -197,68 +266,150 @@ public class VersionCatalogue {
     public boolean localCopy;
     public MavenVersion releaseVersion;
     @NotNull
-    public final List<@NotNull MavenVersion> releaseVersions = new ArrayList<>();
+    public final List<@NotNull MavenVersion> releaseVersions;
 
     @NotNull
-    public final List<@NotNull SnapshotVersion> snapshotVersions = new ArrayList<>();
+    public final List<@NotNull SnapshotVersion> snapshotVersions;
 
     private VersionCatalogue() {
         // No-arguments constructor needed for the #merge method
+        this(new ArrayList<>(), new ArrayList<>());
+    }
+
+    private VersionCatalogue(@NotNull List<@NotNull MavenVersion> releaseVersions, @NotNull List<@NotNull SnapshotVersion> snapshotVersions) {
+        this.releaseVersions = releaseVersions;
+        this.snapshotVersions = snapshotVersions;
     }
 
-    public VersionCatalogue(@NotNull InputStream is) throws SAXException, IOException, ParserConfigurationException {
-        Document xmlDoc;
-        {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-            xmlDoc = factory.newDocumentBuilder().parse(is);
+    public VersionCatalogue(@NotNull InputStream is) throws XMLStreamException {
+        this();
+        XMLStreamReader reader = XMLUtil.createReader(is);
+
+        try {
+            this.readMetadata(reader);
+        } finally {
+            reader.close();
         }
+    }
 
-        Element metadata = xmlDoc.getDocumentElement();
-        metadata.normalize();
+    private void readLastUpdated(@NotNull String lastUpdated) {
+        this.lastUpdated = lastUpdated;
 
-        Element versioning = XMLUtil.reqElement(metadata, "versioning");
-        Element versions = null;
-        Element snapshotVersions = null;
+        if (lastUpdated.length() != 14) {
+            throw new ConfusedResolverException("Last updated string \"" + lastUpdated + "\" is not following an implemented standard.");
+        }
 
-        for (Element element : new ChildElementIterable(versioning)) {
-            switch (element.getTagName().toLowerCase(Locale.ROOT)) {
-            case "versions":
-                versions = element;
-                break;
-            case "release":
-                this.releaseVersion = MavenVersion.parse(Objects.requireNonNull(element.getTextContent()));
-                break;
-            case "latest":
-                this.latestVersion = MavenVersion.parse(Objects.requireNonNull(element.getTextContent()));
-                break;
-            case "lastupdated":
-                this.lastUpdated = element.getTextContent();
+        this.lastUpdateYear = Integer.parseInt(lastUpdated.substring(0, 4));
+        this.lastUpdateMonth = Integer.parseInt(lastUpdated.substring(4, 6));
+        this.lastUpdateDay = Integer.parseInt(lastUpdated.substring(6, 8));
+        this.lastUpdateHour = Integer.parseInt(lastUpdated.substring(8, 10));
+        this.lastUpdateMinute = Integer.parseInt(lastUpdated.substring(10, 12));
+        this.lastUpdateSecond = Integer.parseInt(lastUpdated.substring(12, 14));
+    }
 
-                if (this.lastUpdated.length() != 14) {
-                    throw new ConfusedResolverException("Last updated string \"" + this.lastUpdated + "\" is not following an implemented standard.");
-                }
+    private void readMetadata(@NotNull XMLStreamReader reader) throws XMLStreamException {
+        reader.nextTag(); // <metadata>
+
+        boolean versioningRead = false;
+        boolean versionsRead = false;
+        boolean snapshotVersionsRead = false;
+        boolean snapshotRead = false;
+        String versionText = null;
+        String timestamp = null;
+        String buildNr = null;
+        String localCopy = null;
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String tagName = XMLUtil.getTagName(reader);
+
+            if (versionText == null && tagName.equals("version")) {
+                versionText = XMLUtil.readText(reader);
+                continue;
+            } else if (versioningRead || !tagName.equals("versioning")) {
+                XMLUtil.skipElement(reader);
+                continue;
+            }
 
-                this.lastUpdateYear = Integer.parseInt(this.lastUpdated.substring(0, 4));
-                this.lastUpdateMonth = Integer.parseInt(this.lastUpdated.substring(4, 6));
-                this.lastUpdateDay = Integer.parseInt(this.lastUpdated.substring(6, 8));
-                this.lastUpdateHour = Integer.parseInt(this.lastUpdated.substring(8, 10));
-                this.lastUpdateMinute = Integer.parseInt(this.lastUpdated.substring(10, 12));
-                this.lastUpdateSecond = Integer.parseInt(this.lastUpdated.substring(12, 14));
-                break;
-            case "snapshotversions":
-                snapshotVersions = element;
-                break;
-            case "version":
-                // Encountered in https://repo1.maven.org/maven2/org/eclipse/core/commands/maven-metadata.xml
-                if (this.latestVersion != null) {
-                    throw new IllegalStateException();
+            versioningRead = true;
+
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                String versioningTag = XMLUtil.getTagName(reader);
+
+                switch (versioningTag.toLowerCase(Locale.ROOT)) {
+                case "versions":
+                    // Should the element be declared multiple times, the last declaration wins
+                    versionsRead = true;
+                    this.releaseVersions.clear();
+
+                    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        if (XMLUtil.getTagName(reader).equalsIgnoreCase("version")) {
+                            this.releaseVersions.add(MavenVersion.parse(XMLUtil.readText(reader)));
+                        } else {
+                            XMLUtil.skipElement(reader);
+                        }
+                    }
+                    break;
+                case "release":
+                    this.releaseVersion = MavenVersion.parse(XMLUtil.readText(reader));
+                    break;
+                case "latest":
+                    this.latestVersion = MavenVersion.parse(XMLUtil.readText(reader));
+                    break;
+                case "lastupdated":
+                    this.readLastUpdated(XMLUtil.readText(reader));
+                    break;
+                case "snapshotversions":
+                    snapshotVersionsRead = true;
+                    this.snapshotVersions.clear();
+
+                    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        if (XMLUtil.getTagName(reader).equalsIgnoreCase("snapshotVersion")) {
+                            this.snapshotVersions.add(VersionCatalogue.readSnapshotVersion(reader));
+                        } else {
+                            XMLUtil.skipElement(reader);
+                        }
+                    }
+                    break;
+                case "version":
+                    // Encountered in https://repo1.maven.org/maven2/org/eclipse/core/commands/maven-metadata.xml
+                    if (this.latestVersion != null) {
+                        throw new IllegalStateException();
+                    }
+                    this.latestVersion = MavenVersion.parse(XMLUtil.readText(reader));
+                    break;
+                case "snapshot":
+                    if (!snapshotRead && versioningTag.equals("snapshot")) {
+                        snapshotRead = true;
+
+                        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                            switch (XMLUtil.getTagName(reader)) {
+                            case "timestamp":
+                                timestamp = VersionCatalogue.readText(reader, timestamp);
+                                break;
+                            case "buildNumber":
+                                buildNr = VersionCatalogue.readText(reader, buildNr);
+                                break;
+                            case "localCopy":
+                                localCopy = VersionCatalogue.readText(reader, localCopy);
+                                break;
+                            default:
+                                XMLUtil.skipElement(reader);
+                            }
+                        }
+                        break;
+                    }
+                    XMLUtil.skipElement(reader);
+                    break;
+                default:
+                    XMLUtil.skipElement(reader);
                 }
-                this.latestVersion = MavenVersion.parse(Objects.requireNonNull(element.getTextContent()));
-                break;
             }
         }
 
+        if (!versioningRead) {
+            throw new NoSuchElementException("No element tagged versioning in maven-metadata.xml");
+        }
+
         // This one is interesting.
         // It seems as if the resolver does not need to process this edge case scenario when it is in isolation.
         // However, for some reason it seems like once the resolver makes use of a shared maven local cache
@@ -272,53 +423,25 @@ public class VersionCatalogue {
         // further latency as well as complexity in the library (as this error state would most likely need to be handled
         // by the caller, as the needed repository references are unavailable within this constructor).
 
-        Element snapshots = XMLUtil.optElement(versioning, "snapshot");
-        Element versionElement = XMLUtil.optElement(metadata, "version");
-
-        if ((versions == null && snapshotVersions == null)
-                && (snapshots == null || versionElement == null)) {
+        if ((!versionsRead && !snapshotVersionsRead)
+                && (!snapshotRead || versionText == null)) {
             // Even this amount of data is too little for our resolver at the moment, so we will have to throw the towel here
             throw new ConfusedResolverException("Data did not contain a valid maven-metadata.xml file that lists the versions of an artifact.");
         }
 
-        if (snapshots != null && versionElement != null) {
-            Element timestamp = XMLUtil.optElement(snapshots, "timestamp");
-            Element buildNr = XMLUtil.optElement(snapshots, "buildNumber");
-            Element localCopy = XMLUtil.optElement(snapshots, "localCopy");
-
+        if (snapshotRead && versionText != null) {
             if ((timestamp == null || buildNr == null) && localCopy == null) {
-                throw new ConfusedResolverException("Too little data remaining to be able to build up a fallback snapshot version: " + metadata.toString());
+                throw new ConfusedResolverException("Too little data remaining to be able to build up a fallback snapshot version for version " + versionText);
             } else if (localCopy != null) {
-                this.localCopy = "true".equalsIgnoreCase(localCopy.getTextContent());
+                this.localCopy = "true".equalsIgnoreCase(localCopy);
             }
 
             if (timestamp != null && buildNr != null) {
-                int index = versionElement.getTextContent().toLowerCase().lastIndexOf("-snapshot");
+                int index = versionText.toLowerCase().lastIndexOf("-snapshot");
                 if (index == -1) {
-                    this.fallbackSnapshotVersion = versionElement.getTextContent() + "-" + timestamp.getTextContent() + "-" + buildNr.getTextContent();
+                    this.fallbackSnapshotVersion = versionText + "-" + timestamp + "-" + buildNr;
                 } else {
-                    this.fallbackSnapshotVersion = versionElement.getTextContent().substring(0, index) + "-" + timestamp.getTextContent() + "-" + buildNr.getTextContent();
-                }
-            }
-        }
-
-        if (versions != null) {
-            for (Element element : new ChildElementIterable(versions)) {
-                if (element.getTagName().equalsIgnoreCase("version")) {
-                    this.releaseVersions.add(MavenVersion.parse(Objects.requireNonNull(element.getTextContent())));
-                }
-            }
-        }
-
-        if (snapshotVersions != null) {
-            for (Element element : new ChildElementIterable(snapshotVersions)) {
-                if (element.getTagName().equalsIgnoreCase("snapshotVersion")) {
-                    String extension = XMLUtil.requireElementText(element, "extension");
-                    String lastUpdated = XMLUtil.requireElementText(element, "updated");
-                    String version = XMLUtil.requireElementText(element, "value");
-                    String classifier = XMLUtil.elementText(element, "classifier");
-
-                    this.snapshotVersions.add(new SnapshotVersion(extension, classifier, version, lastUpdated));
+                    this.fallbackSnapshotVersion = versionText.substring(0, index) + "-" + timestamp + "-" + buildNr;
                 }
             }
         }
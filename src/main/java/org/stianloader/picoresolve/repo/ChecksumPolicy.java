@@ -0,0 +1,25 @@
+package org.stianloader.picoresolve.repo;
+
+/**
+ * The policy of the {@link MavenLocalRepositoryNegotiator} regarding the verification of the checksums of
+ * downloaded files, as set through {@link MavenLocalRepositoryNegotiator#setChecksumPolicy(ChecksumPolicy)}.
+ * Mirrors the checksum policies of the standard maven resolver.
+ */
+public enum ChecksumPolicy {
+    /**
+     * Do not fetch checksums and do not verify downloaded files.
+     */
+    OFF,
+
+    /**
+     * Verify downloaded files if a checksum is available, but only log a warning if the checksums do not match.
+     * Files without checksums are accepted silently.
+     */
+    WARN,
+
+    /**
+     * Reject downloaded files whose checksum does not match, or for which no checksum is available.
+     * The file is then fetched from the next repository instead, if there is any.
+     */
+    STRICT;
+}
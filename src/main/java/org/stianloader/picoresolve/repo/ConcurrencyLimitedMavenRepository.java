@@ -0,0 +1,226 @@
+package org.stianloader.picoresolve.repo;
+
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.picoresolve.internal.ConcurrencyUtil;
+import org.stianloader.picoresolve.internal.JavaInterop;
+
+/**
+ * A {@link MavenRepository} that delegates all requests to another {@link MavenRepository},
+ * but caps the amount of requests that are in flight at any given point in time.
+ * Requests exceeding the cap are queued and dispatched in the order they were issued
+ * once earlier requests complete.
+ *
+ * <p>By default the resolver issues all requests it knows of at once, which is ideal for
+ * latency but may overwhelm (self-hosted) repositories when resolving wide dependency graphs with a large
+ * thread pool. Wrapping such repositories in a {@link ConcurrencyLimitedMavenRepository} allows
+ * using high parallelism without getting throttled by the remote.
+ *
+ * <p>Values returned by this repository are attached to this repository instance instead of the
+ * delegate repository.
+ */
+public class ConcurrencyLimitedMavenRepository implements MavenRepository {
+
+    @NotNull
+    private final MavenRepository delegate;
+    private int inFlight;
+    private final int maxInFlight;
+    @NotNull
+    private final Queue<@NotNull Runnable> queue = new ArrayDeque<>();
+
+    /**
+     * Create a new {@link ConcurrencyLimitedMavenRepository}.
+     *
+     * @param delegate The repository to delegate requests to.
+     * @param maxInFlight The maximum amount of requests that may be in flight at once. Must be positive.
+     */
+    public ConcurrencyLimitedMavenRepository(@NotNull MavenRepository delegate, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive (got " + maxInFlight + ")");
+        }
+
+        this.delegate = Objects.requireNonNull(delegate, "delegate may not be null");
+        this.maxInFlight = maxInFlight;
+    }
+
+    private <T> void dispatch(@NotNull Supplier<CompletableFuture<RepositoryAttachedValue<T>>> request, @NotNull CompletableFuture<RepositoryAttachedValue<T>> result) {
+        if (result.isDone()) {
+            // Cancelled while queued
+            this.release();
+            return;
+        }
+
+        CompletableFuture<RepositoryAttachedValue<T>> source;
+
+        try {
+            source = request.get();
+        } catch (Throwable t) {
+            source = JavaInterop.failedFuture(t);
+        }
+
+        // Cancelling the request aborts the request sent to the delegate, releasing the permit early
+        ConcurrencyUtil.propagateCancellation(result, source);
+        source.whenComplete((value, ex) -> {
+            this.release();
+
+            if (ex == null) {
+                result.complete(new RepositoryAttachedValue<>(this, value.getValue()));
+            } else {
+                result.completeExceptionally(ex);
+            }
+        });
+    }
+
+    @Override
+    @NotNull
+    public CompletableFuture<RepositoryAttachedValue<Path>> downloadResource(@NotNull String path, @NotNull Path target, @NotNull List<@NotNull MessageDigest> digests, @NotNull Executor executor) {
+        return this.submit(() -> this.delegate.downloadResource(path, target, digests, executor), executor);
+    }
+
+    /**
+     * Obtains the {@link MavenRepository} requests are delegated to.
+     *
+     * @return The delegate repository
+     */
+    @NotNull
+    @Contract(pure = true)
+    public MavenRepository getDelegate() {
+        return this.delegate;
+    }
+
+    /**
+     * Obtains the amount of requests that were dispatched to the delegate repository but have not yet completed.
+     *
+     * @return The amount of in-flight requests
+     */
+    @Contract(pure = true)
+    public int getInFlight() {
+        synchronized (this.queue) {
+            return this.inFlight;
+        }
+    }
+
+    /**
+     * Obtains the maximum amount of requests that may be dispatched to the delegate repository at once.
+     *
+     * @return The maximum amount of in-flight requests
+     */
+    @Contract(pure = true)
+    public int getMaxInFlight() {
+        return this.maxInFlight;
+    }
+
+    @Override
+    @NotNull
+    @Contract(pure = true)
+    public String getPlaintextURL() {
+        return this.delegate.getPlaintextURL();
+    }
+
+    /**
+     * Obtains the amount of requests that are waiting for an in-flight request to complete
+     * before they can be dispatched to the delegate repository.
+     *
+     * @return The amount of queued requests
+     */
+    @Contract(pure = true)
+    public int getQueueDepth() {
+        synchronized (this.queue) {
+            return this.queue.size();
+        }
+    }
+
+    @Override
+    @NotNull
+    @Contract(pure = true)
+    public String getRepositoryId() {
+        return this.delegate.getRepositoryId();
+    }
+
+    @Override
+    @NotNull
+    public CompletableFuture<RepositoryAttachedValue<byte[]>> getResource(@NotNull String path, @NotNull Executor executor) {
+        return this.submit(() -> this.delegate.getResource(path, executor), executor);
+    }
+
+    @Override
+    @NotNull
+    public CompletableFuture<RepositoryAttachedValue<ConditionalResource>> getResourceIfModified(@NotNull String path, @Nullable String etag, @Nullable String lastModified, @NotNull Executor executor) {
+        return this.submit(() -> this.delegate.getResourceIfModified(path, etag, lastModified, executor), executor);
+    }
+
+    @Override
+    @Contract(pure = true)
+    public long getUpdateIntervall() {
+        return this.delegate.getUpdateIntervall();
+    }
+
+    private void release() {
+        Runnable next;
+
+        synchronized (this.queue) {
+            next = this.queue.poll();
+
+            if (next == null) {
+                this.inFlight--;
+                return;
+            }
+        }
+
+        // The permit is handed over to the next request directly
+        next.run();
+    }
+
+    @NotNull
+    private <T> CompletableFuture<RepositoryAttachedValue<T>> submit(@NotNull Supplier<CompletableFuture<RepositoryAttachedValue<T>>> request, @NotNull Executor executor) {
+        CompletableFuture<RepositoryAttachedValue<T>> result = new CompletableFuture<>();
+
+        synchronized (this.queue) {
+            if (this.inFlight == this.maxInFlight) {
+                // Queued requests are dispatched through the executor so that the thread completing a request does not
+                // perform the next request itself. The queue is still drained recursively if both the executor and the
+                // delegate complete synchronously, for example when using Runnable::run as the executor.
+                Runnable entry = () -> {
+                    try {
+                        executor.execute(() -> this.dispatch(request, result));
+                    } catch (RuntimeException e) {
+                        this.release();
+                        result.completeExceptionally(e);
+                    }
+                };
+                this.queue.add(entry);
+
+                // Requests cancelled while queued are removed right away, as they would occupy the queue until reaching its head otherwise
+                result.whenComplete((ignored, ex) -> {
+                    if (result.isCancelled()) {
+                        synchronized (this.queue) {
+                            this.queue.remove(entry);
+                        }
+                    }
+                });
+                return result;
+            }
+
+            this.inFlight++;
+        }
+
+        this.dispatch(request, result);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimitedMavenRepository[delegate=" + this.delegate.getRepositoryId() + ", maxInFlight=" + this.maxInFlight + "]";
+    }
+}
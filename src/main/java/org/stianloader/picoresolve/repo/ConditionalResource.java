@@ -0,0 +1,74 @@
+package org.stianloader.picoresolve.repo;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The result of a conditional request, as performed by {@link MavenRepository#getResourceIfModified(String, String, String, java.util.concurrent.Executor)}.
+ * Alongside the data of the requested resource, the validators (that is the entity tag and the last modification date)
+ * of the resource are stored, which can be used to issue future conditional requests.
+ * If the resource was not modified since it was last fetched, no data is present.
+ */
+public final class ConditionalResource {
+    private final byte @Nullable[] data;
+    @Nullable
+    private final String etag;
+    @Nullable
+    private final String lastModified;
+
+    /**
+     * Create a new {@link ConditionalResource}.
+     *
+     * @param data The contents of the resource, or null if the resource was not modified.
+     * @param etag The entity tag of the resource as sent by the server ("ETag" header), or null if absent.
+     * @param lastModified The last modification date of the resource as sent by the server ("Last-Modified" header), or null if absent.
+     */
+    public ConditionalResource(byte @Nullable[] data, @Nullable String etag, @Nullable String lastModified) {
+        this.data = data;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Obtains the contents of the resource. Returns null if and only if the resource was not modified.
+     *
+     * @return The contents of the resource
+     */
+    @Contract(pure = true)
+    public byte @Nullable[] getData() {
+        return this.data;
+    }
+
+    /**
+     * Obtains the entity tag of the resource, verbatim as sent by the server.
+     *
+     * @return The entity tag, or null if unknown
+     */
+    @Nullable
+    @Contract(pure = true)
+    public String getETag() {
+        return this.etag;
+    }
+
+    /**
+     * Obtains the last modification date of the resource, verbatim as sent by the server.
+     *
+     * @return The last modification date, or null if unknown
+     */
+    @Nullable
+    @Contract(pure = true)
+    public String getLastModified() {
+        return this.lastModified;
+    }
+
+    /**
+     * Checks whether the resource was modified, in which case {@link #getData()} returns the
+     * new contents of the resource.
+     *
+     * @return True if the resource was modified, false if the previously fetched copy is still up-to-date
+     */
+    @Contract(pure = true)
+    public boolean isModified() {
+        return this.data != null;
+    }
+}
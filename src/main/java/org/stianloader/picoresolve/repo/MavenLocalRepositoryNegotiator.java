@@ -1,31 +1,55 @@
 package org.stianloader.picoresolve.repo;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.picoresolve.internal.CircuitBreaker;
 import org.stianloader.picoresolve.internal.ConcurrencyUtil;
+import org.stianloader.picoresolve.internal.FutureCache;
 import org.stianloader.picoresolve.internal.JavaInterop;
 import org.stianloader.picoresolve.internal.MultiCompletableFuture;
+import org.stianloader.picoresolve.internal.PartialDownload;
 import org.stianloader.picoresolve.internal.StronglyMultiCompletableFuture;
 import org.stianloader.picoresolve.internal.meta.LastUpdatedFile;
 import org.stianloader.picoresolve.internal.meta.RemoteRepositoryProperties;
 import org.stianloader.picoresolve.internal.meta.ResolverMetaStatus;
+import org.stianloader.picoresolve.logging.LoggingAdapter;
 
 /**
  * An implementation of the {@link RepositoryNegotiatior} interface capable to reading and writing maven locals
@@ -35,12 +59,236 @@ import org.stianloader.picoresolve.internal.meta.ResolverMetaStatus;
  * file IO with tools such as inotifywait.
  */
 public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
+
+    /**
+     * The download of a file from a list of candidate repositories. Candidates are queried in order, with the next
+     * candidate being queried once the previous candidate failed or did not complete within its hedging delay.
+     */
+    private final class HedgedDownload {
+        @NotNull
+        private final List<MavenRepository> candidates;
+        @NotNull
+        private final Executor executor;
+        @Nullable
+        private final String group;
+        @NotNull
+        private final LastUpdatedFile lastUpdated;
+        @NotNull
+        private final AtomicInteger launched = new AtomicInteger();
+        @NotNull
+        private final List<Path> partFiles;
+        @NotNull
+        private final List<@Nullable FileLock> partLocks;
+        @NotNull
+        private final String path;
+        /**
+         * Whether the part file of a candidate was released already, in the same order as the candidates.
+         */
+        @NotNull
+        private final AtomicIntegerArray released;
+        /**
+         * The results of the candidates, in the same order as the candidates. Cancelling a result cancels the
+         * download of the candidate, or prevents it from being launched at all.
+         */
+        @NotNull
+        private final List<CompletableFuture<RepositoryAttachedValue<Path>>> results;
+
+        private HedgedDownload(@NotNull String path, @Nullable String group, @NotNull List<MavenRepository> candidates, @NotNull List<CompletableFuture<RepositoryAttachedValue<Path>>> results,
+                @NotNull List<Path> partFiles, @NotNull List<@Nullable FileLock> partLocks, @NotNull LastUpdatedFile lastUpdated, @NotNull Executor executor) {
+            this.path = path;
+            this.group = group;
+            this.candidates = candidates;
+            this.results = results;
+            this.partFiles = partFiles;
+            this.partLocks = partLocks;
+            this.lastUpdated = lastUpdated;
+            this.executor = executor;
+            this.released = new AtomicIntegerArray(candidates.size());
+        }
+
+        private void launch(int index) {
+            if (index >= this.candidates.size() || !this.launched.compareAndSet(index, index + 1)) {
+                return; // No candidates left, or the candidate was launched already
+            }
+
+            CompletableFuture<RepositoryAttachedValue<Path>> result = this.results.get(index);
+
+            if (result.isDone()) {
+                return; // Another candidate won
+            }
+
+            MavenRepository remote = this.candidates.get(index);
+            CircuitBreaker breaker = MavenLocalRepositoryNegotiator.this.getCircuitBreaker(remote);
+
+            if (!breaker.tryAcquire(MavenLocalRepositoryNegotiator.this.circuitBreakerThreshold, MavenLocalRepositoryNegotiator.this.circuitBreakerCooldown)) {
+                // Not recorded in the .lastUpdated file as the repository is queried again once it recovered
+                MavenLocalRepositoryNegotiator.this.logger.debug(MavenLocalRepositoryNegotiator.class, "Not querying repository '{}' for '{}' as it is unavailable", remote.getRepositoryId(), this.path);
+                result.completeExceptionally(MavenLocalRepositoryNegotiator.createUnavailableException(remote));
+                this.launch(index + 1);
+                return;
+            }
+
+            Path partFile = this.partFiles.get(index);
+            Path resumableFile = this.partLocks.get(index) == null ? null : partFile;
+            long start = System.nanoTime();
+            CompletableFuture<RepositoryAttachedValue<Path>> download = MavenLocalRepositoryNegotiator.this.trackCircuit(remote, breaker, MavenLocalRepositoryNegotiator.this.downloadVerified(remote, this.path, partFile, this.executor));
+
+            result.whenComplete((ignored, ex) -> {
+                if (result.isCancelled()) {
+                    download.cancel(true);
+                }
+            });
+
+            download.whenComplete((rav, ex) -> {
+                RepositoryStatistics statistics = MavenLocalRepositoryNegotiator.this.statistics;
+
+                if (ex == null) {
+                    statistics.recordSuccess(remote.getRepositoryId(), this.group, System.nanoTime() - start);
+                    this.lastUpdated.updateEntrySuccess(remote.getPlaintextURL(), System.currentTimeMillis());
+                    result.complete(rav);
+                    return;
+                } else if (!(ex instanceof CancellationException)) {
+                    if (MavenLocalRepositoryNegotiator.isNotFound(ex)) {
+                        statistics.recordNotFound(remote.getRepositoryId(), this.group);
+                    } else {
+                        statistics.recordFailure(remote.getRepositoryId());
+                    }
+
+                    // Interrupted transfers are not cached as errors so that they can be resumed right away
+                    if (resumableFile == null || PartialDownload.getResumeOffset(resumableFile) == 0L) {
+                        this.lastUpdated.updateEntryErrored(remote.getPlaintextURL(), ex.toString(), System.currentTimeMillis());
+                    }
+                }
+
+                result.completeExceptionally(ex);
+                this.launch(index + 1);
+            });
+
+            if (result.isDone() || index + 1 == this.candidates.size()) {
+                return;
+            }
+
+            long delay = MavenLocalRepositoryNegotiator.this.computeHedgingDelay(remote);
+
+            if (delay == 0L) {
+                this.launch(index + 1);
+            } else {
+                ConcurrencyUtil.scheduleDelayed(() -> {
+                    if (!result.isDone()) {
+                        MavenLocalRepositoryNegotiator.this.logger.debug(MavenLocalRepositoryNegotiator.class, "Repository '{}' did not serve '{}' within {} ms, also querying the next repository", remote.getRepositoryId(), this.path, delay);
+                    }
+
+                    this.launch(index + 1);
+                }, delay, this.executor);
+            }
+        }
+
+        /**
+         * Release the part files of all candidates whose result completed already. Used to release the part files before
+         * the outcome of the download is reported, as an immediate retry could neither acquire nor resume the part files otherwise.
+         *
+         * @param failed Whether the download as a whole failed
+         */
+        private void releaseCompletedParts(boolean failed) {
+            for (int i = 0; i < this.results.size(); i++) {
+                if (this.results.get(i).isDone()) {
+                    this.releasePart(i, failed);
+                }
+            }
+        }
+
+        /**
+         * Release the part file of a candidate once its result completed. The part file of the winning candidate was
+         * moved in place by then, while the part files of all other candidates are obsolete. If no candidate succeeded,
+         * downloads that failed midway are kept so that they can be resumed.
+         *
+         * @param index The index of the candidate
+         * @param failed Whether the download as a whole failed
+         */
+        private void releasePart(int index, boolean failed) {
+            if (!this.released.compareAndSet(index, 0, 1)) {
+                return;
+            }
+
+            CompletableFuture<RepositoryAttachedValue<Path>> result = this.results.get(index);
+            Path partFile = this.partFiles.get(index);
+            FileLock partLock = this.partLocks.get(index);
+
+            if (partLock == null || !failed || !result.isCompletedExceptionally() || result.isCancelled()
+                    || PartialDownload.getResumeOffset(partFile) == 0L) {
+                PartialDownload.discard(partFile);
+            }
+
+            if (partLock != null) {
+                MavenLocalRepositoryNegotiator.unlockPart(partFile, partLock);
+            }
+        }
+    }
+
+    /**
+     * The part files that are currently being downloaded to by any negotiator within this JVM.
+     */
+    @NotNull
+    private static final Set<Path> ACTIVE_PART_FILES = ConcurrentHashMap.newKeySet();
+    /**
+     * The algorithms of the checksums that are used to verify downloaded files, in order of preference.
+     */
+    @NotNull
+    private static final String @NotNull[] CHECKSUM_ALGORITHMS = {"SHA-256", "SHA-1", "MD5"};
+    /**
+     * The file extensions of the checksum files, in the same order as {@link #CHECKSUM_ALGORITHMS}.
+     */
+    @NotNull
+    private static final String @NotNull[] CHECKSUM_EXTENSIONS = {".sha256", ".sha1", ".md5"};
+    /**
+     * The hedging delay used for repositories whose latency is not known yet, in milliseconds.
+     */
+    private static final long INITIAL_HEDGING_DELAY = 500L;
+    /**
+     * The lower bound of adaptive hedging delays, in milliseconds.
+     */
+    private static final long MIN_HEDGING_DELAY = 10L;
+
+    private volatile boolean adaptiveRanking;
+    /**
+     * The index of the algorithm of {@link #CHECKSUM_ALGORITHMS} whose checksum was last served by a remote repository,
+     * keyed by repository id.
+     */
+    @NotNull
+    private final Map<String, Integer> checksumAlgorithms = new ConcurrentHashMap<>();
+    @NotNull
+    private ChecksumPolicy checksumPolicy = ChecksumPolicy.WARN;
+    private volatile long circuitBreakerCooldown = 30_000L;
+    /**
+     * The circuit breakers of the remote repositories, keyed by repository id.
+     */
+    @NotNull
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private volatile int circuitBreakerThreshold = 5;
+    private volatile long hedgingDelay = -1L;
+    @NotNull
+    private LoggingAdapter logger = LoggingAdapter.getDefaultLogger();
     @NotNull
     private final Path mavenLocal;
+    /**
+     * Pending {@link #resolveMavenMeta(String, Executor)} requests, keyed by path. Requests are removed once they complete.
+     */
+    @NotNull
+    private final FutureCache<String, List<RepositoryAttachedValue<Path>>> pendingMetaRequests = new FutureCache<>(Long.MAX_VALUE, (value) -> 1, (value) -> 0L);
+    /**
+     * Pending {@link #resolveStandard(String, Executor)} requests, keyed by path. Requests are removed once they complete.
+     */
+    @NotNull
+    private final FutureCache<String, RepositoryAttachedValue<Path>> pendingStandardRequests = new FutureCache<>(Long.MAX_VALUE, (value) -> 1, (value) -> 0L);
     @NotNull
     private final Set<String> remoteIds = new HashSet<>();
     @NotNull
     private final List<MavenRepository> remoteRepositories = new ArrayList<>();
+    @NotNull
+    private final Map<String, RepositoryRoutingRules> routingRules = new ConcurrentHashMap<>();
+    private volatile int routingMissThreshold;
+    @NotNull
+    private final RepositoryStatistics statistics = new RepositoryStatistics();
     private boolean writeMetadata = true;
 
     public MavenLocalRepositoryNegotiator(@NotNull Path mavenLocal) {
@@ -69,26 +317,415 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
         return this;
     }
 
+    @NotNull
+    @Contract(pure = true)
+    private static IOException createUnavailableException(@NotNull MavenRepository remote) {
+        return new IOException("Repository '" + remote.getRepositoryId() + "' is temporarily unavailable: Too many consecutive failures");
+    }
+
+    /**
+     * Create a {@link MessageDigest} computing the checksum of the algorithm at the given index of {@link #CHECKSUM_ALGORITHMS}.
+     *
+     * @param index The index of the algorithm.
+     * @return The newly created digest.
+     */
+    @NotNull
+    private static MessageDigest createDigest(int index) {
+        String algorithm = MavenLocalRepositoryNegotiator.CHECKSUM_ALGORITHMS[index];
+
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Every Java platform is required to support " + algorithm, e);
+        }
+    }
+
+    /**
+     * Download a file from a remote repository into a part file, verifying the checksum of the file
+     * according to the current {@link ChecksumPolicy}. The digests are computed while the file is being written
+     * and the checksum file is fetched concurrently to the file itself, so verification neither requires
+     * reading the file again nor an additional round trip.
+     *
+     * <p>As repositories usually consistently serve checksums of the same algorithm, the algorithm of the checksum served
+     * by a repository is remembered (see {@link #checksumAlgorithms}). Subsequent downloads from the repository only request
+     * the checksum file of that algorithm and only compute the corresponding digest. Until the algorithm is known, the
+     * checksum files of all algorithms are requested concurrently and the digests of all algorithms are computed.
+     *
+     * @param remote The repository to download the file from.
+     * @param path The path of the file, relative to the repository root.
+     * @param partFile The file to write to.
+     * @param executor The executor to use for potentially blocking I/O operations.
+     * @return A {@link CompletableFuture} which completes once the file was written and verified.
+     */
+    @NotNull
+    private CompletableFuture<RepositoryAttachedValue<Path>> downloadVerified(@NotNull MavenRepository remote, @NotNull String path, @NotNull Path partFile, @NotNull Executor executor) {
+        ChecksumPolicy policy = this.checksumPolicy;
+
+        if (policy == ChecksumPolicy.OFF) {
+            return remote.downloadResource(path, partFile, Collections.emptyList(), executor);
+        }
+
+        Integer knownAlgorithm = this.checksumAlgorithms.get(remote.getRepositoryId());
+        MessageDigest[] digests = new MessageDigest[MavenLocalRepositoryNegotiator.CHECKSUM_ALGORITHMS.length];
+        CompletableFuture<Map.@Nullable Entry<Integer, String>> checksum;
+
+        if (knownAlgorithm == null) {
+            for (int i = 0; i < digests.length; i++) {
+                digests[i] = MavenLocalRepositoryNegotiator.createDigest(i);
+            }
+
+            checksum = this.fetchChecksums(remote, path, -1, executor);
+        } else {
+            int known = knownAlgorithm;
+            digests[known] = MavenLocalRepositoryNegotiator.createDigest(known);
+            checksum = JavaInterop.exceptionallyCompose(this.fetchChecksum(remote, path, known, executor), (ex) -> {
+                return this.fetchChecksums(remote, path, known, executor);
+            });
+        }
+
+        List<@NotNull MessageDigest> activeDigests = new ArrayList<>();
+
+        for (MessageDigest digest : digests) {
+            if (digest != null) {
+                activeDigests.add(digest);
+            }
+        }
+
+        CompletableFuture<RepositoryAttachedValue<Path>> download = remote.downloadResource(path, partFile, activeDigests, executor);
+
+        return ConcurrencyUtil.propagateCancellation(download.thenCombine(checksum, (rav, expected) -> {
+            if (expected == null) {
+                if (policy == ChecksumPolicy.STRICT) {
+                    throw new UncheckedIOException(new IOException("No checksum is available for '" + path + "' in repository '" + remote.getRepositoryId() + "'"));
+                }
+
+                this.logger.debug(MavenLocalRepositoryNegotiator.class, "No checksum is available for '{}' in repository '{}'", path, remote.getRepositoryId());
+                return rav;
+            }
+
+            int index = expected.getKey();
+            this.checksumAlgorithms.put(remote.getRepositoryId(), index);
+            MessageDigest digest = digests[index];
+
+            if (digest == null) {
+                // The repository does not serve the checksum of the remembered algorithm for this file, so the digest
+                // was not computed while downloading. This should be rare enough to justify reading the file again.
+                digest = MavenLocalRepositoryNegotiator.createDigest(index);
+
+                try {
+                    PartialDownload.digest(rav.getValue(), Collections.singletonList(digest));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            String actual = MavenLocalRepositoryNegotiator.toHexString(digest.digest());
+
+            if (!actual.equals(expected.getValue())) {
+                String algorithm = MavenLocalRepositoryNegotiator.CHECKSUM_ALGORITHMS[index];
+
+                if (policy == ChecksumPolicy.STRICT) {
+                    // Resuming the download would only yield the same corrupt file
+                    PartialDownload.discard(partFile);
+                    throw new UncheckedIOException(new IOException("Checksum mismatch for '" + path + "' from repository '" + remote.getRepositoryId() + "': Expected " + algorithm + " " + expected.getValue() + ", but got " + actual));
+                }
+
+                this.logger.warn(MavenLocalRepositoryNegotiator.class, "Checksum mismatch for '{}' from repository '{}': Expected {} {}, but got {}", path, remote.getRepositoryId(), algorithm, expected.getValue(), actual);
+            }
+
+            return rav;
+        }), download, checksum);
+    }
+
+    /**
+     * Fetch the checksum file of a single algorithm of {@link #CHECKSUM_ALGORITHMS} from a remote repository.
+     *
+     * @return A {@link CompletableFuture} which completes with the index of the algorithm and the lowercase
+     * hexadecimal checksum, or fails if the checksum file could not be obtained.
+     */
+    @NotNull
+    private CompletableFuture<Map.@Nullable Entry<Integer, String>> fetchChecksum(@NotNull MavenRepository remote, @NotNull String path, int index, @NotNull Executor executor) {
+        return ConcurrencyUtil.thenApply(remote.getResource(path + MavenLocalRepositoryNegotiator.CHECKSUM_EXTENSIONS[index], executor), (rav) -> {
+            // Checksum files may contain the name of the file after the checksum
+            String contents = new String(rav.getValue(), StandardCharsets.US_ASCII).trim();
+            int whitespace = 0;
+
+            while (whitespace < contents.length() && !Character.isWhitespace(contents.charAt(whitespace))) {
+                whitespace++;
+            }
+
+            return new AbstractMap.SimpleImmutableEntry<>(index, contents.substring(0, whitespace).toLowerCase(Locale.ROOT));
+        });
+    }
+
+    /**
+     * Fetch the checksum of a file from a remote repository, concurrently requesting the checksum files of all algorithms
+     * of {@link #CHECKSUM_ALGORITHMS} except for the excluded algorithm. Requesting the checksum files one after another
+     * would cost an additional round trip for every algorithm the repository does not serve.
+     *
+     * @param excluded The index of the algorithm whose checksum file should not be requested, or -1 to request all of them.
+     * @return A {@link CompletableFuture} which completes with the index of the most preferred algorithm that is
+     * available and the lowercase hexadecimal checksum, or with null if no checksum is available.
+     */
+    @NotNull
+    private CompletableFuture<Map.@Nullable Entry<Integer, String>> fetchChecksums(@NotNull MavenRepository remote, @NotNull String path, int excluded, @NotNull Executor executor) {
+        List<CompletableFuture<Map.@Nullable Entry<Integer, String>>> checksums = new ArrayList<>();
+
+        for (int i = 0; i < MavenLocalRepositoryNegotiator.CHECKSUM_EXTENSIONS.length; i++) {
+            if (i != excluded) {
+                CompletableFuture<Map.@Nullable Entry<Integer, String>> checksum = this.fetchChecksum(remote, path, i, executor);
+                checksums.add(ConcurrencyUtil.propagateCancellation(checksum.exceptionally((ex) -> null), checksum));
+            }
+        }
+
+        CompletableFuture<Map.@Nullable Entry<Integer, String>> preferred = CompletableFuture.allOf(checksums.toArray(new CompletableFuture<?>[0])).thenApply((ignored) -> {
+            for (CompletableFuture<Map.@Nullable Entry<Integer, String>> checksum : checksums) {
+                Map.Entry<Integer, String> entry = checksum.join();
+
+                if (entry != null) {
+                    return entry;
+                }
+            }
+
+            return null;
+        });
+
+        return ConcurrencyUtil.propagateCancellation(preferred, checksums.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Obtains the {@link ChecksumPolicy} used to verify downloaded files.
+     *
+     * @return The current checksum policy
+     */
+    @NotNull
+    @Contract(pure = true)
+    public ChecksumPolicy getChecksumPolicy() {
+        return this.checksumPolicy;
+    }
+
+    @NotNull
+    private CircuitBreaker getCircuitBreaker(@NotNull MavenRepository remote) {
+        return this.circuitBreakers.computeIfAbsent(remote.getRepositoryId(), (id) -> new CircuitBreaker());
+    }
+
+    /**
+     * Obtains the time a repository is skipped for once its circuit breaker opened.
+     *
+     * @return The cooldown in milliseconds
+     * @see #setCircuitBreaker(int, long)
+     */
+    @Contract(pure = true)
+    public long getCircuitBreakerCooldown() {
+        return this.circuitBreakerCooldown;
+    }
+
+    /**
+     * Obtains the amount of consecutive failures after which the circuit breaker of a repository opens.
+     *
+     * @return The threshold, or 0 if circuit breakers are disabled
+     * @see #setCircuitBreaker(int, long)
+     */
+    @Contract(pure = true)
+    public int getCircuitBreakerThreshold() {
+        return this.circuitBreakerThreshold;
+    }
+
+    /**
+     * Obtains the hedging delay of a repository, that is the delay after which the next repository is queried
+     * if the given repository has not served a requested file yet.
+     *
+     * @param remote The repository
+     * @return The hedging delay in milliseconds
+     */
+    private long computeHedgingDelay(@NotNull MavenRepository remote) {
+        long delay = this.hedgingDelay;
+
+        if (delay >= 0L) {
+            return delay;
+        }
+
+        long percentile = this.statistics.getLatencyPercentile(remote.getRepositoryId(), 0.95D);
+        return percentile < 0L ? MavenLocalRepositoryNegotiator.INITIAL_HEDGING_DELAY : Math.max(MavenLocalRepositoryNegotiator.MIN_HEDGING_DELAY, percentile);
+    }
+
+    /**
+     * Obtains the group of the artifact a standard file belongs to, in path form.
+     *
+     * @param path The path of the file, relative to the repository root.
+     * @return The group (for example "org/apache/maven"), or null if the path is too short to denote an artifact.
+     */
+    @Nullable
+    @Contract(pure = true)
+    private static String getGroupPath(@NotNull String path) {
+        int end = path.length();
+
+        // Strip the file name, version and artifact id
+        for (int i = 0; i < 3; i++) {
+            end = path.lastIndexOf('/', end - 1);
+
+            if (end <= 0) {
+                return null;
+            }
+        }
+
+        return path.substring(0, end);
+    }
+
+    /**
+     * Obtains the hedging delay as configured through {@link #setHedgingDelay(long)}.
+     *
+     * @return The hedging delay in milliseconds, or a negative value if the delay is adaptive.
+     */
+    @Contract(pure = true)
+    public long getHedgingDelay() {
+        return this.hedgingDelay;
+    }
+
     @NotNull
     public Path getLocalCache() {
         return this.mavenLocal;
     }
 
+    /**
+     * Obtains the amount of artifacts of a group that need to be missing from a repository before
+     * the repository is no longer queried for the group.
+     *
+     * @return The threshold, or 0 if repositories are always queried
+     * @see #setRoutingMissThreshold(int)
+     */
+    @Contract(pure = true)
+    public int getRoutingMissThreshold() {
+        return this.routingMissThreshold;
+    }
+
+    /**
+     * Obtains the {@link RepositoryRoutingRules} of a repository.
+     *
+     * @param repositoryId The id of the repository
+     * @return The routing rules of the repository, or null if the repository is queried for all paths.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public RepositoryRoutingRules getRoutingRules(@NotNull String repositoryId) {
+        return this.routingRules.get(repositoryId);
+    }
+
+    /**
+     * Obtains the {@link RepositoryStatistics} collected by this negotiator, which may be used to persist
+     * the statistics across runs.
+     *
+     * @return The statistics of this negotiator
+     */
+    @NotNull
+    @Contract(pure = true)
+    public RepositoryStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    /**
+     * Whether repositories are ranked by their {@link RepositoryStatistics statistics}.
+     *
+     * @return True if adaptive ranking is enabled
+     * @see #setAdaptiveRanking(boolean)
+     */
+    @Contract(pure = true)
+    public boolean isAdaptiveRanking() {
+        return this.adaptiveRanking;
+    }
+
+    /**
+     * Whether the circuit breaker of a repository is open, that is whether the repository is currently not being queried
+     * (or only queried by a single probe request) due to repeated connection failures.
+     *
+     * @param repositoryId The id of the repository
+     * @return True if the circuit breaker of the repository is open or half-open
+     * @see #setCircuitBreaker(int, long)
+     */
+    @Contract(pure = true)
+    public boolean isCircuitOpen(@NotNull String repositoryId) {
+        CircuitBreaker breaker = this.circuitBreakers.get(repositoryId);
+        return breaker != null && breaker.getState() != CircuitBreaker.State.CLOSED;
+    }
+
+    /**
+     * Whether a request failed because the repository could not be reached or is unable to serve requests, as opposed to the
+     * repository responding with an error that is specific to the request.
+     *
+     * @param ex The exception the request failed with
+     * @return True if the request failed due to a connection failure, a timeout or a server error
+     */
+    @Contract(pure = true)
+    private static boolean isConnectionFailure(@NotNull Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            // ConnectException, NoRouteToHostException and resets are all SocketExceptions
+            if (t instanceof SocketException || t instanceof SocketTimeoutException || t instanceof UnknownHostException) {
+                return true;
+            } else if (t instanceof UnexpectedResponseException && ((UnexpectedResponseException) t).isServerError()) {
+                return true;
+            }
+
+            // java.net.http is not available on Java 8, so the timeouts of the non-blocking transport
+            // (including HttpConnectTimeoutException) are matched by name
+            for (Class<?> type = t.getClass(); type != IOException.class && type != Throwable.class; type = type.getSuperclass()) {
+                if (type.getName().equals("java.net.http.HttpTimeoutException")) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isLearnedMiss(@NotNull MavenRepository remote, @NotNull String group) {
+        int threshold = this.routingMissThreshold;
+        return threshold > 0 && this.statistics.isLikelyMissing(remote.getRepositoryId(), group, threshold);
+    }
+
+    @Contract(pure = true)
+    private static boolean isNotFound(@NotNull Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ResourceNotFoundException || t instanceof FileNotFoundException || t instanceof NoSuchFileException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isRouted(@NotNull MavenRepository remote, @NotNull String path) {
+        RepositoryRoutingRules rules = this.routingRules.get(remote.getRepositoryId());
+        return rules == null || rules.isRouted(path);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Concurrent requests for the same path are coalesced: Only the first request fetches the files,
+     * with all further requests attaching themselves to the pending request (and thus to the
+     * {@link Executor} of the first request) until it completes. Cancelling the returned {@link CompletableFuture}
+     * aborts all outstanding downloads once all coalesced requests were cancelled.
+     */
     @Override
     @NotNull
     public CompletableFuture<List<RepositoryAttachedValue<Path>>> resolveMavenMeta(@NotNull String path, @NotNull Executor executor) {
-        Path parentDirectory = this.mavenLocal.resolve(path).getParent();
-
-        if (parentDirectory == null) {
+        if (this.mavenLocal.resolve(path).getParent() == null) {
             throw new IllegalStateException("\"path\" might only consist of a slash!");
         }
 
-        Path resolverProperties = parentDirectory.resolve("resolver-status.properties");
-
         if (!path.endsWith("/maven-metadata.xml")) {
             throw new IllegalArgumentException("This method may not be used to resolve anything but maven-metadata.xml (although it may be in various folders). Instead \"" + path + "\" was used as an input.");
         }
 
+        return this.pendingMetaRequests.get(path, (key) -> this.resolveMavenMeta0(key, executor));
+    }
+
+    @NotNull
+    private CompletableFuture<List<RepositoryAttachedValue<Path>>> resolveMavenMeta0(@NotNull String path, @NotNull Executor executor) {
+        Path parentDirectory = this.mavenLocal.resolve(path).getParent();
+        assert parentDirectory != null; // Verified by resolveMavenMeta
+        Path resolverProperties = parentDirectory.resolve("resolver-status.properties");
+
         List<CompletableFuture<RepositoryAttachedValue<Path>>> futures = new ArrayList<>();
         Path mvnLocalMeta = parentDirectory.resolve("maven-metadata-local.xml");
 
@@ -99,6 +736,10 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
         ResolverMetaStatus resolverStatus = ResolverMetaStatus.tryParse(resolverProperties);
 
         for (MavenRepository remote : this.remoteRepositories) {
+            if (!this.isRouted(remote, path)) {
+                continue;
+            }
+
             Path localFile = parentDirectory.resolve("maven-metadata-" + remote.getRepositoryId() + ".xml");
             Long lastFetch = resolverStatus.getLastFetchTime(remote.getRepositoryId());
 
@@ -112,10 +753,31 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
                 }
             }
 
+            // Revalidate the cached file if possible instead of downloading it again unconditionally.
+            // The validators are only of use if the file they belong to still exists.
+            boolean cached = Files.exists(localFile);
+            String etag = cached ? resolverStatus.getETag(remote.getRepositoryId()) : null;
+            String lastModified = cached ? resolverStatus.getLastModified(remote.getRepositoryId()) : null;
+
+            CircuitBreaker breaker = this.getCircuitBreaker(remote);
+
+            if (!breaker.tryAcquire(this.circuitBreakerThreshold, this.circuitBreakerCooldown)) {
+                // Fall back to the cached file just like when the request fails, without recording an error
+                this.logger.debug(MavenLocalRepositoryNegotiator.class, "Not querying repository '{}' for '{}' as it is unavailable", remote.getRepositoryId(), path);
+
+                if (cached) {
+                    futures.add(CompletableFuture.completedFuture(new RepositoryAttachedValue<>(remote, localFile)));
+                } else {
+                    futures.add(JavaInterop.failedFuture(MavenLocalRepositoryNegotiator.createUnavailableException(remote)));
+                }
+
+                continue;
+            }
+
             // This future downloads from the remote repository and updates the error timestamp
             // if it errors while no caches are present.
-            CompletableFuture<RepositoryAttachedValue<byte[]>> fetchFuture = ConcurrencyUtil.exceptionally(
-                    remote.getResource(path, executor),
+            CompletableFuture<RepositoryAttachedValue<ConditionalResource>> fetchFuture = ConcurrencyUtil.exceptionally(
+                    this.trackCircuit(remote, breaker, remote.getResourceIfModified(path, etag, lastModified, executor)),
                     (ex) -> {
                         if (Files.exists(localFile)) {
                             // Don't update the repository fetch timestamp here.
@@ -128,8 +790,21 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
                     });
 
             // This future writes the raw bytes fetched from the remote to disk. It then returns the path the bytes were written to.
-            CompletableFuture<RepositoryAttachedValue<Path>> future = fetchFuture.thenApply((rav) -> {
+            // If the remote reports that the file was not modified, the cached file is retained as-is.
+            CompletableFuture<RepositoryAttachedValue<Path>> future = ConcurrencyUtil.thenApply(fetchFuture, (rav) -> {
+                ConditionalResource resource = rav.getValue();
+                byte[] data = resource.getData();
+
+                if (data == null && !Files.exists(localFile)) {
+                    throw new UncheckedIOException(new IOException("Repository '" + remote.getRepositoryId() + "' reported '" + path + "' as not modified, but it is not cached locally"));
+                }
+
                 resolverStatus.updateEntrySuccess(remote.getRepositoryId(), System.currentTimeMillis());
+                resolverStatus.updateValidators(remote.getRepositoryId(), resource.getETag(), resource.getLastModified());
+
+                if (data == null) {
+                    return new RepositoryAttachedValue<>(rav.getRepository(), localFile);
+                }
 
                 try {
                     Files.createDirectories(parentDirectory);
@@ -137,7 +812,7 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
                     throw new UncheckedIOException(e);
                 }
 
-                this.write(rav.getValue(), localFile);
+                this.write(data, localFile);
                 return new RepositoryAttachedValue<>(rav.getRepository(), localFile);
             });
 
@@ -166,13 +841,13 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
         CompletableFuture<List<RepositoryAttachedValue<Path>>> combined;
 
         if (futures.isEmpty()) {
-            combined = JavaInterop.failedFuture(new IllegalStateException("The requested resource '" + path + "' does not exist: All registered remote repositories have been unable to download the resource within their update intervall; re-resolution will not be attempted.").fillInStackTrace());
+            combined = ConcurrencyUtil.notFound("The requested resource '" + path + "' does not exist: All registered remote repositories have been unable to download the resource within their update intervall; re-resolution will not be attempted.");
         } else {
             combined = new StronglyMultiCompletableFuture<>(futures);
         }
 
         if (this.writeMetadata) {
-            combined = combined.thenApply((value) -> {
+            combined = ConcurrencyUtil.thenApply(combined, (value) -> {
                 try {
                     resolverStatus.write(resolverProperties);
                 } catch (Throwable ignored) { }
@@ -184,9 +859,22 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
         return combined;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Concurrent requests for the same path are coalesced: Only the first request fetches the file,
+     * with all further requests attaching themselves to the pending request (and thus to the
+     * {@link Executor} of the first request) until it completes. Cancelling the returned {@link CompletableFuture}
+     * aborts all outstanding downloads once all coalesced requests were cancelled.
+     */
     @Override
     @NotNull
     public CompletableFuture<RepositoryAttachedValue<Path>> resolveStandard(@NotNull String path, @NotNull Executor executor) {
+        return this.pendingStandardRequests.get(path, (key) -> this.resolveStandard0(key, executor));
+    }
+
+    @NotNull
+    private CompletableFuture<RepositoryAttachedValue<Path>> resolveStandard0(@NotNull String path, @NotNull Executor executor) {
         Path localFile = this.mavenLocal.resolve(path);
         Path lastUpdateFile = this.mavenLocal.resolve(path + ".lastUpdated");
         Path remoteRepos = localFile.resolveSibling("_remote.repositories");
@@ -207,8 +895,17 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
         LastUpdatedFile lastUpdated = LastUpdatedFile.tryParse(lastUpdateFile);
 
         List<MavenRepository> candidateRepositories = new ArrayList<>();
+        List<MavenRepository> unlikelyRepositories = new ArrayList<>();
+        String group = MavenLocalRepositoryNegotiator.getGroupPath(path);
 
         for (MavenRepository remote : this.remoteRepositories) {
+            if (!this.isRouted(remote, path)) {
+                continue;
+            } else if (group != null && this.isLearnedMiss(remote, group)) {
+                unlikelyRepositories.add(remote);
+                continue;
+            }
+
             Long lastFetch = lastUpdated.getLastFetchTime(remote.getPlaintextURL());
 
             if (sourceRepo.isPresent() && remote.getRepositoryId().equals(sourceRepo.get())) {
@@ -239,6 +936,22 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
             candidateRepositories.add(remote);
         }
 
+        if (candidateRepositories.isEmpty()) {
+            // Learned misses are merely a heuristic, so they may not be the sole reason for not finding a file
+            candidateRepositories.addAll(unlikelyRepositories);
+        }
+
+        if (this.adaptiveRanking && candidateRepositories.size() > 1) {
+            // The costs are computed ahead of time as the statistics may change while sorting
+            Map<MavenRepository, Double> costs = new HashMap<>();
+
+            for (MavenRepository remote : candidateRepositories) {
+                costs.put(remote, this.statistics.getExpectedCost(remote.getRepositoryId(), group, MavenLocalRepositoryNegotiator.INITIAL_HEDGING_DELAY));
+            }
+
+            candidateRepositories.sort(Comparator.comparing(costs::get));
+        }
+
         if (candidateRepositories.isEmpty()) {
             String errorMessage;
 
@@ -254,46 +967,41 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
                         + "' is not present in the local maven repository. All registered remote repositories have been unable to download the resource within their update intervall.";
             }
 
-            return JavaInterop.failedFuture(new IOException(errorMessage).fillInStackTrace());
+            return ConcurrencyUtil.notFound(errorMessage);
         }
 
-        List<CompletableFuture<RepositoryAttachedValue<byte[]>>> futures = new ArrayList<>();
-
-        for (MavenRepository remote : candidateRepositories) {
-            CompletableFuture<RepositoryAttachedValue<byte[]>> future = remote.getResource(path, executor);
-
-            future.exceptionally((ex) -> {
-                lastUpdated.updateEntryErrored(remote.getPlaintextURL(), ex.toString(), System.currentTimeMillis());
-                return null;
-            });
+        try {
+            Files.createDirectories(parentDir);
+        } catch (IOException e) {
+            return JavaInterop.failedFuture(e);
+        }
 
-            future.thenRun(() -> {
-                lastUpdated.updateEntrySuccess(remote.getPlaintextURL(), System.currentTimeMillis());
-            });
+        List<CompletableFuture<RepositoryAttachedValue<Path>>> futures = new ArrayList<>();
+        List<Path> partFiles = new ArrayList<>();
+        List<@Nullable FileLock> partLocks = new ArrayList<>();
 
-            futures.add(future);
+        for (MavenRepository remote : candidateRepositories) {
+            // Each repository streams into its own file as multiple repositories may be queried concurrently.
+            // The name of the file is stable so that interrupted downloads can be resumed later on, unless
+            // the same file is already being downloaded from the same repository elsewhere.
+            Path partFile = localFile.resolveSibling(localFile.getFileName().toString() + "-" + remote.getRepositoryId().replaceAll("[^A-Za-z0-9._-]", "_") + ".part");
+            FileLock partLock = MavenLocalRepositoryNegotiator.tryLockPart(partFile);
 
-            if (future.isDone() && !future.isCompletedExceptionally()) {
-                break; // Let's note waste too much CPU time when running with a synchronous executor
+            if (partLock == null) {
+                partFile = localFile.resolveSibling(localFile.getFileName().toString() + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".part");
             }
-        }
-
-        CompletableFuture<RepositoryAttachedValue<byte[]>> combined;
 
-        if (!futures.isEmpty()) {
-            combined = new MultiCompletableFuture<>(futures);
-        } else {
-            combined = JavaInterop.failedFuture(new IOException("There are no remote repositories to fetch the file from and the file is not stored locally.").fillInStackTrace());
+            futures.add(new CompletableFuture<>());
+            partFiles.add(partFile);
+            partLocks.add(partLock);
         }
 
-        CompletableFuture<RepositoryAttachedValue<Path>> ret = ConcurrencyUtil.exceptionally(combined.thenApply((rav) -> {
-            try {
-                Files.createDirectories(parentDir);
-            } catch (IOException e) {
-                throw new UncheckedIOException(e);
-            }
+        HedgedDownload download = new HedgedDownload(path, group, candidateRepositories, futures, partFiles, partLocks, lastUpdated, executor);
+        CompletableFuture<RepositoryAttachedValue<Path>> combined = new MultiCompletableFuture<>(futures);
 
-            this.write(rav.getValue(), localFile);
+        CompletableFuture<RepositoryAttachedValue<Path>> ret = ConcurrencyUtil.exceptionally(ConcurrencyUtil.thenApply(combined, (rav) -> {
+            this.move(rav.getValue(), localFile);
+            download.releaseCompletedParts(false);
             MavenRepository originRepository = rav.getRepository();
 
             if (originRepository != null) {
@@ -306,6 +1014,8 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
 
             return new RepositoryAttachedValue<>(originRepository, localFile);
         }), (ex) -> {
+            download.releaseCompletedParts(true);
+
             if (localFilePresent) {
                 String errorMessage = "The requested resource '"
                         + path
@@ -328,9 +1038,162 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
             });
         }
 
+        for (int i = 0; i < futures.size(); i++) {
+            int index = i;
+            CompletableFuture.allOf(futures.get(i), ret).whenComplete((ignore, ex) -> {
+                download.releasePart(index, ret.isCompletedExceptionally());
+            });
+        }
+
+        download.launch(0);
         return ret;
     }
 
+    /**
+     * Set whether {@link #resolveStandard(String, Executor)} should rank candidate repositories by their
+     * {@link RepositoryStatistics statistics} instead of querying them in the order they were added in.
+     * Repositories are ranked by their median latency, divided by the estimated probability of the repository
+     * hosting the group of the requested artifact and of the download succeeding. Combined with hedging
+     * (see {@link #setHedgingDelay(long)}), the fastest repository that actually hosts an artifact is queried first.
+     *
+     * <p>Note that ranking repositories means that artifacts hosted by multiple repositories may be obtained from
+     * a different repository than the first repository hosting it, unlike with the standard maven resolver.
+     * Defaults to false.
+     *
+     * @param adaptiveRanking Whether to rank repositories adaptively
+     * @return The current {@link MavenLocalRepositoryNegotiator} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public MavenLocalRepositoryNegotiator setAdaptiveRanking(boolean adaptiveRanking) {
+        this.adaptiveRanking = adaptiveRanking;
+        return this;
+    }
+
+    /**
+     * Configure the circuit breakers guarding remote repositories. Once a repository failed to serve the given amount of
+     * consecutive requests due to connection failures, timeouts or server errors, the repository is no longer queried until the
+     * cooldown elapsed, failing requests to the repository right away instead. After the cooldown a single probe
+     * request is sent to the repository, which either resumes querying the repository if it succeeds or skips the
+     * repository for another cooldown if it fails.
+     *
+     * <p>Requests skipped this way are not recorded in the <code>.lastUpdated</code> files of the local repository,
+     * so files missing due to an outage are fetched once the repository recovers. Maven metadata files that were
+     * fetched previously are served from the local repository while a repository is skipped.
+     * Defaults to 5 consecutive failures and a cooldown of 30 seconds.
+     *
+     * @param threshold The amount of consecutive failures after which a repository is skipped, or 0 to disable circuit breakers
+     * @param cooldown The time a repository is skipped for, in milliseconds
+     * @return The current {@link MavenLocalRepositoryNegotiator} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_, _ -> this")
+    public MavenLocalRepositoryNegotiator setCircuitBreaker(int threshold, long cooldown) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold may not be negative (got " + threshold + ")");
+        } else if (cooldown < 0L) {
+            throw new IllegalArgumentException("cooldown may not be negative (got " + cooldown + ")");
+        }
+
+        this.circuitBreakerThreshold = threshold;
+        this.circuitBreakerCooldown = cooldown;
+        return this;
+    }
+
+    /**
+     * Set the {@link ChecksumPolicy} used to verify files downloaded through {@link #resolveStandard(String, Executor)}.
+     * Files are verified only when they are downloaded. Files that are already present in the local repository
+     * are never verified again, which also means that changing the policy has no effect on them.
+     * Maven metadata files are not verified. Defaults to {@link ChecksumPolicy#WARN}.
+     *
+     * @param policy The checksum policy to use
+     * @return The current {@link MavenLocalRepositoryNegotiator} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "null -> fail; !null -> this")
+    public MavenLocalRepositoryNegotiator setChecksumPolicy(@NotNull ChecksumPolicy policy) {
+        this.checksumPolicy = Objects.requireNonNull(policy, "policy may not be null");
+        return this;
+    }
+
+    /**
+     * Set the delay after which {@link #resolveStandard(String, Executor)} queries the next repository
+     * if the previously queried repository did not serve the requested file yet. Repositories are queried in
+     * the order they were added in, with the next repository being queried right away if the previous repository
+     * failed to serve the file. Once any repository served the file, all other requests are cancelled.
+     *
+     * <p>A delay of 0 queries all repositories at once, which minimises latency at the cost of downloading
+     * the file multiple times. A negative delay (the default) derives the delay of each repository from the
+     * 95th percentile of the time it took to serve previous files, falling back to
+     * 500 ms if it has not served enough files yet.
+     *
+     * @param delay The hedging delay in milliseconds, or a negative value for an adaptive delay
+     * @return The current {@link MavenLocalRepositoryNegotiator} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public MavenLocalRepositoryNegotiator setHedgingDelay(long delay) {
+        this.hedgingDelay = delay;
+        return this;
+    }
+
+    /**
+     * Set the {@link LoggingAdapter} used to report problems that do not cause a resolution to fail, such as
+     * checksum mismatches under {@link ChecksumPolicy#WARN}. Defaults to {@link LoggingAdapter#getDefaultLogger()}.
+     *
+     * @param logger The logger to use
+     */
+    public void setLogger(@NotNull LoggingAdapter logger) {
+        this.logger = Objects.requireNonNull(logger, "logger may not be null.");
+    }
+
+    /**
+     * Set the amount of artifacts of a group that need to be missing from a repository before the
+     * repository is no longer queried for further artifacts of the group, provided that no artifact
+     * of the group was found in the repository so far. Misses are only learned for non-metadata files and are
+     * tracked by the {@link #getStatistics() statistics} of this negotiator. If no other repository is left to query
+     * for an artifact, the repository is queried regardless.
+     *
+     * <p>This is a heuristic that cuts down the amount of requests sent to repositories that only host a few groups,
+     * but it may cause artifacts to not be found if multiple repositories host different artifacts of the same group.
+     * Defaults to 0, which disables learning misses.
+     *
+     * @param threshold The threshold, or 0 to always query repositories
+     * @return The current {@link MavenLocalRepositoryNegotiator} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public MavenLocalRepositoryNegotiator setRoutingMissThreshold(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold may not be negative (got " + threshold + ")");
+        }
+
+        this.routingMissThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Set the {@link RepositoryRoutingRules} of a repository, which define the groups the repository is queried for.
+     * The rules apply to both metadata and non-metadata files. Rules may be defined before the repository is added.
+     *
+     * @param repositoryId The id of the repository
+     * @param rules The routing rules of the repository, or null to query the repository for all paths.
+     * @return The current {@link MavenLocalRepositoryNegotiator} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "null, _ -> fail; !null, _ -> this")
+    public MavenLocalRepositoryNegotiator setRoutingRules(@NotNull String repositoryId, @Nullable RepositoryRoutingRules rules) {
+        Objects.requireNonNull(repositoryId, "repositoryId may not be null");
+
+        if (rules == null) {
+            this.routingRules.remove(repositoryId);
+        } else {
+            this.routingRules.put(repositoryId, rules);
+        }
+
+        return this;
+    }
+
     @Override
     @NotNull
     @Contract(mutates = "this", pure = false, value = "_ -> this")
@@ -339,29 +1202,155 @@ public class MavenLocalRepositoryNegotiator implements RepositoryNegotiatior {
         return this;
     }
 
-    protected void write(byte @NotNull[] data, @NotNull Path to) {
-        FileLock fileLock = null;
+    /**
+     * Feed the outcome of a request to the circuit breaker of the repository the request was sent to.
+     * Responses other than server errors, including errors such as "not found", prove that the repository is available.
+     *
+     * @param remote The repository the request was sent to
+     * @param breaker The circuit breaker of the repository
+     * @param request The request
+     * @return The request
+     */
+    @NotNull
+    private <T> CompletableFuture<T> trackCircuit(@NotNull MavenRepository remote, @NotNull CircuitBreaker breaker, @NotNull CompletableFuture<T> request) {
+        request.whenComplete((value, ex) -> {
+            if (ex == null) {
+                breaker.recordSuccess();
+            } else if (ex instanceof CancellationException) {
+                breaker.release();
+            } else if (MavenLocalRepositoryNegotiator.isConnectionFailure(ex)) {
+                breaker.recordFailure(this.circuitBreakerThreshold);
+
+                if (breaker.getState() == CircuitBreaker.State.OPEN) {
+                    this.logger.debug(MavenLocalRepositoryNegotiator.class, "Repository '{}' is unavailable, skipping it for {} ms", remote.getRepositoryId(), this.circuitBreakerCooldown);
+                }
+            } else {
+                breaker.recordSuccess();
+            }
+        });
+
+        return request;
+    }
+
+    /**
+     * Acquire the lock used to guard writes to a file in the local repository.
+     * The lock is held on a sibling file whose name ends with ".part.lock".
+     *
+     * @param to The file that will be written to.
+     * @return The acquired lock.
+     * @throws IOException If the lock could not be acquired within 10 seconds.
+     */
+    @NotNull
+    private static FileLock lock(@NotNull Path to) throws IOException {
+        Path lock = to.resolveSibling(to.getFileName().toString() + ".part.lock");
+        FileChannel lockChannel = FileChannel.open(lock, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.DELETE_ON_CLOSE);
+        FileLock fileLock;
+        long idleTime = 0L;
+
+        while ((fileLock = lockChannel.tryLock()) == null) {
+            try {
+                Thread.sleep(10L);
+            } catch (InterruptedException ignored) {
+            }
+            if ((idleTime += 10L) > 10_000L) {
+                lockChannel.close();
+                throw new IOException("Waited more than 10 seconds to acquire lock on " + lock.toAbsolutePath());
+            }
+        }
+
+        return fileLock;
+    }
+
+    /**
+     * Try to acquire the lock guarding a part file, which is held on a sibling file whose name ends with ".lock".
+     *
+     * @param partFile The part file to download to.
+     * @return The acquired lock, or null if the part file is already in use.
+     */
+    @Nullable
+    private static FileLock tryLockPart(@NotNull Path partFile) {
+        // File locks are held on behalf of the entire JVM, so they can't guard against concurrent use within this JVM
+        if (!MavenLocalRepositoryNegotiator.ACTIVE_PART_FILES.add(partFile.toAbsolutePath())) {
+            return null;
+        }
+
+        Path lock = partFile.resolveSibling(partFile.getFileName().toString() + ".lock");
 
         try {
-            Path parts = to.resolveSibling(to.getFileName().toString() + ".part");
-            Path lock = to.resolveSibling(to.getFileName().toString() + ".part.lock");
-            FileChannel lockChannel = FileChannel.open(lock, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.DELETE_ON_CLOSE);
-            long idleTime = 0L;
+            FileChannel lockChannel = FileChannel.open(lock, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            FileLock fileLock = lockChannel.tryLock();
+
+            if (fileLock != null) {
+                return fileLock;
+            }
+
+            lockChannel.close();
+        } catch (IOException ignored) {
+        }
+
+        MavenLocalRepositoryNegotiator.ACTIVE_PART_FILES.remove(partFile.toAbsolutePath());
+        return null;
+    }
+
+    private static void unlockPart(@NotNull Path partFile, @NotNull FileLock lock) {
+        try {
+            Files.deleteIfExists(partFile.resolveSibling(partFile.getFileName().toString() + ".lock"));
+        } catch (IOException ignored) {
+        }
+
+        try {
+            lock.channel().close();
+        } catch (IOException ignored) {
+        }
+
+        MavenLocalRepositoryNegotiator.ACTIVE_PART_FILES.remove(partFile.toAbsolutePath());
+    }
+
+    @NotNull
+    private static String toHexString(byte @NotNull[] data) {
+        StringBuilder builder = new StringBuilder(data.length * 2);
+
+        for (byte b : data) {
+            builder.append(Character.forDigit((b >> 4) & 0x0F, 16));
+            builder.append(Character.forDigit(b & 0x0F, 16));
+        }
 
-            while ((fileLock = lockChannel.tryLock()) == null) {
+        return builder.toString();
+    }
+
+    /**
+     * Atomically move a fully written file to its final location in the local repository,
+     * replacing any previous file at that location.
+     *
+     * @param source The fully written file, located in the same directory as the target file.
+     * @param to The target file.
+     */
+    protected void move(@NotNull Path source, @NotNull Path to) {
+        FileLock fileLock = null;
+
+        try {
+            fileLock = MavenLocalRepositoryNegotiator.lock(to);
+            Files.move(source, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (fileLock != null) {
                 try {
-                    Thread.sleep(10L);
-                } catch (InterruptedException ignored) {
-                }
-                if ((idleTime += 10L) > 10_000L) {
-                    throw new IOException("Waited more than 10 seconds to acquire lock on " + parts.toAbsolutePath());
-                }
+                    fileLock.release();
+                    fileLock.acquiredBy().close();
+                } catch (IOException ignored) { }
             }
+        }
+    }
 
+    protected void write(byte @NotNull[] data, @NotNull Path to) {
+        FileLock fileLock = null;
+
+        try {
+            Path parts = to.resolveSibling(to.getFileName().toString() + ".part");
+            fileLock = MavenLocalRepositoryNegotiator.lock(to);
             Files.write(parts, data, StandardOpenOption.CREATE_NEW);
             Files.move(parts, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
-            fileLock.release();
-            fileLock.acquiredBy().close();
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         } finally {
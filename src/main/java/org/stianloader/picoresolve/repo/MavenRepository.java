@@ -1,16 +1,102 @@
 package org.stianloader.picoresolve.repo;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.picoresolve.internal.ConcurrencyUtil;
 
 public interface MavenRepository {
 
+    /**
+     * Download a resource from this repository and write it to a given file, replacing the contents of the file
+     * should it already exist. Unlike {@link #getResource(String, Executor)}, implementations are encouraged to
+     * stream the contents of the resource to the file using bounded buffers, meaning that large resources
+     * do not need to be held in memory in their entirety.
+     *
+     * <p>All bytes written to the file must be passed to the given {@link MessageDigest digests} in order,
+     * allowing the caller to verify the checksums of the resource without having to read the file again.
+     *
+     * <p>If the returned {@link CompletableFuture} completes exceptionally, the contents of the target file are undefined.
+     * The caller is responsible for deleting the target file in that case. However, the caller may also keep the file
+     * and pass it to this method again, in which case implementations may resume the interrupted download instead of
+     * starting from scratch. Implementations may store the state required for doing so in a sibling file whose name is
+     * the name of the target file suffixed with ".resume", which should be deleted alongside the target file.
+     * Regardless of whether the download was resumed, all bytes of the file must be passed to the digests.
+     *
+     * <p>The default implementation writes the data obtained through {@link #getResource(String, Executor)} to the file.
+     *
+     * @param path The path of the resource, relative to the repository root.
+     * @param target The file to write the resource to. The parent directory of the file must exist.
+     * @param digests The digests to update with the contents of the resource, may be empty.
+     * @param executor The executor to use for potentially blocking I/O operations.
+     * @return A {@link CompletableFuture} which completes with the target file once the resource was written in full.
+     */
+    @NotNull
+    default CompletableFuture<RepositoryAttachedValue<Path>> downloadResource(@NotNull String path, @NotNull Path target, @NotNull List<@NotNull MessageDigest> digests, @NotNull Executor executor) {
+        return ConcurrencyUtil.thenApply(this.getResource(path, executor), (rav) -> {
+            try {
+                Files.write(target, rav.getValue());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            for (MessageDigest digest : digests) {
+                digest.update(rav.getValue());
+            }
+
+            return new RepositoryAttachedValue<>(rav.getRepository(), target);
+        });
+    }
+
+    /**
+     * Fetch a resource from this repository.
+     *
+     * <p>If the repository does not host the resource, the returned {@link CompletableFuture} should complete
+     * exceptionally with a {@link ResourceNotFoundException}, allowing callers to tell expected misses apart from
+     * other failures. The same applies to all other methods fetching resources.
+     *
+     * <p>Cancelling the returned {@link CompletableFuture} should abort the request where possible, as the resolver
+     * cancels requests whose results are no longer of interest. Again, the same applies to all other methods fetching
+     * resources.
+     *
+     * @param path The path of the resource, relative to the repository root.
+     * @param executor The executor to use for potentially blocking I/O operations.
+     * @return A {@link CompletableFuture} which completes with the contents of the resource.
+     */
     @NotNull
     CompletableFuture<RepositoryAttachedValue<byte[]>> getResource(@NotNull String path, @NotNull Executor executor);
 
+    /**
+     * Fetch a resource from this repository unless it was not modified since it was last fetched.
+     * Whether the resource was modified is determined by the validators obtained from the previous fetch
+     * (see {@link ConditionalResource#getETag()} and {@link ConditionalResource#getLastModified()}).
+     * If both validators are null, the resource is fetched unconditionally.
+     *
+     * <p>The default implementation does not support conditional requests and always fetches the
+     * resource through {@link #getResource(String, Executor)}, without reporting any validators.
+     *
+     * @param path The path of the resource, relative to the repository root.
+     * @param etag The entity tag of the previously fetched copy of the resource, or null.
+     * @param lastModified The last modification date of the previously fetched copy of the resource, or null.
+     * @param executor The executor to use for potentially blocking I/O operations.
+     * @return A {@link CompletableFuture} which completes with the fetched resource.
+     */
+    @NotNull
+    default CompletableFuture<RepositoryAttachedValue<ConditionalResource>> getResourceIfModified(@NotNull String path, @Nullable String etag, @Nullable String lastModified, @NotNull Executor executor) {
+        return ConcurrencyUtil.thenApply(this.getResource(path, executor), (rav) -> {
+            return new RepositoryAttachedValue<>(rav.getRepository(), new ConditionalResource(rav.getValue(), null, null));
+        });
+    }
+
     @NotNull
     @Contract(pure = true)
     String getRepositoryId();
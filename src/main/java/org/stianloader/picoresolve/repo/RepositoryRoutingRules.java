@@ -0,0 +1,117 @@
+package org.stianloader.picoresolve.repo;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Rules deciding which groups a {@link MavenRepository} is queried for, as set through
+ * {@link MavenLocalRepositoryNegotiator#setRoutingRules(String, RepositoryRoutingRules)}.
+ *
+ * <p>Rules are group prefixes such as "org.apache" that match all groups that consist of the segments
+ * of the prefix followed by any amount of further segments. "org.apache" matches "org.apache" and
+ * "org.apache.maven", but not "org.apachefoo". If multiple rules match a path, the rule with the longest prefix
+ * takes precedence. If no rule matches, a path is routed to the repository only if no include rules are defined.
+ *
+ * <p>Rules are stored in a trie of group segments, meaning that the cost of checking whether a path
+ * is routed to a repository only depends on the length of the path, not on the amount of rules.
+ */
+public final class RepositoryRoutingRules {
+
+    private static final class Node {
+        @NotNull
+        private final Map<String, Node> children = new HashMap<>();
+        @Nullable
+        private Boolean include;
+    }
+
+    private boolean hasIncludes;
+    @NotNull
+    private final Node root = new Node();
+
+    @NotNull
+    private RepositoryRoutingRules addRule(@NotNull String groupPrefix, boolean include) {
+        Objects.requireNonNull(groupPrefix, "groupPrefix may not be null");
+
+        if (groupPrefix.isEmpty() || groupPrefix.startsWith(".") || groupPrefix.endsWith(".") || groupPrefix.contains("..")) {
+            throw new IllegalArgumentException("Invalid group prefix: \"" + groupPrefix + "\"");
+        }
+
+        synchronized (this.root) {
+            Node node = this.root;
+
+            for (String segment : groupPrefix.split("\\.")) {
+                node = node.children.computeIfAbsent(segment, (ignored) -> new Node());
+            }
+
+            node.include = include;
+            this.hasIncludes |= include;
+        }
+
+        return this;
+    }
+
+    /**
+     * Stop routing paths of groups starting with the given prefix to the repository.
+     *
+     * @param groupPrefix The group prefix, for example "org.apache"
+     * @return The current {@link RepositoryRoutingRules} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "null -> fail; !null -> this")
+    public RepositoryRoutingRules excludeGroup(@NotNull String groupPrefix) {
+        return this.addRule(groupPrefix, false);
+    }
+
+    /**
+     * Route paths of groups starting with the given prefix to the repository. Once any include rule is defined,
+     * paths not matched by any rule are no longer routed to the repository.
+     *
+     * @param groupPrefix The group prefix, for example "org.stianloader"
+     * @return The current {@link RepositoryRoutingRules} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "null -> fail; !null -> this")
+    public RepositoryRoutingRules includeGroup(@NotNull String groupPrefix) {
+        return this.addRule(groupPrefix, true);
+    }
+
+    /**
+     * Check whether a path should be routed to the repository.
+     *
+     * @param path The path of the resource, relative to the repository root.
+     * @return True if the repository should be queried for the path, false otherwise.
+     */
+    @Contract(pure = true)
+    public boolean isRouted(@NotNull String path) {
+        synchronized (this.root) {
+            Node node = this.root;
+            Boolean include = null;
+            int start = 0;
+
+            while (start < path.length()) {
+                int end = path.indexOf('/', start);
+
+                if (end == -1) {
+                    end = path.length();
+                }
+
+                node = node.children.get(path.substring(start, end));
+
+                if (node == null) {
+                    break;
+                } else if (node.include != null) {
+                    include = node.include;
+                }
+
+                start = end + 1;
+            }
+
+            return include == null ? !this.hasIncludes : include;
+        }
+    }
+}
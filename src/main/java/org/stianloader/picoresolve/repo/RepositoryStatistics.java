@@ -0,0 +1,293 @@
+package org.stianloader.picoresolve.repo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.picoresolve.internal.LatencyTracker;
+
+/**
+ * Statistics about the downloads performed by a {@link MavenLocalRepositoryNegotiator}, as obtained through
+ * {@link MavenLocalRepositoryNegotiator#getStatistics()}. For every repository, the latencies of recent successful
+ * downloads, the rate of failed downloads, as well as the amount of artifacts of each group that were or were
+ * not found in the repository are tracked. The statistics are used to derive hedging delays, to rank
+ * repositories and to skip repositories that are unlikely to host a group.
+ *
+ * <p>Statistics are kept in memory, but may be persisted across runs through {@link #write(Path)} and
+ * {@link #read(Path)}, for example in a {@link #DEFAULT_FILE_NAME file} within the local cache.
+ */
+public final class RepositoryStatistics {
+
+    private static final class GroupStatistics {
+        @NotNull
+        private final AtomicInteger hits = new AtomicInteger();
+        @NotNull
+        private final AtomicInteger misses = new AtomicInteger();
+    }
+
+    private static final class RepositoryEntry {
+        private double errorRate;
+        @NotNull
+        private final Map<String, GroupStatistics> groups = new ConcurrentHashMap<>();
+        @NotNull
+        private final LatencyTracker latencies = new LatencyTracker(RepositoryStatistics.LATENCY_SAMPLES);
+    }
+
+    /**
+     * The suggested name of the file to persist statistics in, relative to the local cache.
+     * Note that the standard maven resolver does not know of this file.
+     */
+    @NotNull
+    public static final String DEFAULT_FILE_NAME = ".picoresolve-statistics.properties";
+    /**
+     * The weight of the most recent download when updating the error rate of a repository,
+     * which is an exponentially weighted moving average.
+     */
+    private static final double ERROR_RATE_WEIGHT = 0.1D;
+    private static final int LATENCY_SAMPLES = 64;
+
+    @NotNull
+    private final Map<String, RepositoryEntry> repositories = new ConcurrentHashMap<>();
+
+    /**
+     * Discard all statistics of all repositories.
+     */
+    public void clear() {
+        this.repositories.clear();
+    }
+
+    @NotNull
+    private RepositoryEntry getEntry(@NotNull String repositoryId) {
+        return this.repositories.computeIfAbsent(repositoryId, (key) -> new RepositoryEntry());
+    }
+
+    /**
+     * Obtains the rate of downloads from a repository that failed for other reasons than the file not being
+     * hosted by the repository, as an exponentially weighted moving average.
+     *
+     * @param repositoryId The id of the repository
+     * @return The error rate, between 0 and 1. 0 if nothing was downloaded from the repository yet.
+     */
+    @Contract(pure = true)
+    public double getErrorRate(@NotNull String repositoryId) {
+        RepositoryEntry entry = this.repositories.get(repositoryId);
+
+        if (entry == null) {
+            return 0D;
+        }
+
+        synchronized (entry) {
+            return entry.errorRate;
+        }
+    }
+
+    /**
+     * Estimate the time it takes to obtain an artifact of a group from a repository, taking into account that the
+     * file may not be hosted by the repository or that the download may fail. Lower values are better.
+     *
+     * @param repositoryId The id of the repository
+     * @param group The group of the artifact in path form (for example "org/apache/maven"), or null if unknown.
+     * @param defaultLatency The latency to assume if the latency of the repository is not known yet, in milliseconds.
+     * @return The expected cost, in arbitrary units.
+     */
+    @Contract(pure = true)
+    public double getExpectedCost(@NotNull String repositoryId, @Nullable String group, long defaultLatency) {
+        long latency = this.getLatencyPercentile(repositoryId, 0.5D);
+        double hitRate = group == null ? 0.5D : this.getHitRate(repositoryId, group);
+        double successRate = hitRate * (1D - this.getErrorRate(repositoryId));
+        return (latency < 0L ? defaultLatency : latency) / Math.max(0.01D, successRate);
+    }
+
+    /**
+     * Estimate the probability of a repository hosting an artifact of a group, with a prior of 0.5 for
+     * groups of which no artifact was requested from the repository yet.
+     *
+     * @param repositoryId The id of the repository
+     * @param group The group in path form, for example "org/apache/maven"
+     * @return The estimated probability, between 0 and 1 (exclusive).
+     */
+    @Contract(pure = true)
+    public double getHitRate(@NotNull String repositoryId, @NotNull String group) {
+        RepositoryEntry entry = this.repositories.get(repositoryId);
+        GroupStatistics stats = entry == null ? null : entry.groups.get(group);
+
+        if (stats == null) {
+            return 0.5D;
+        }
+
+        int hits = stats.hits.get();
+        return (hits + 1D) / (hits + stats.misses.get() + 2D);
+    }
+
+    /**
+     * Compute a percentile of the latencies of recent successful downloads from a repository.
+     *
+     * @param repositoryId The id of the repository
+     * @param percentile The percentile, between 0 (exclusive) and 1 (inclusive).
+     * @return The latency in milliseconds, or -1 if not enough files were downloaded from the repository yet.
+     */
+    @Contract(pure = true)
+    public long getLatencyPercentile(@NotNull String repositoryId, double percentile) {
+        RepositoryEntry entry = this.repositories.get(repositoryId);
+        return entry == null ? -1L : entry.latencies.getPercentile(percentile);
+    }
+
+    /**
+     * Check whether at least the given amount of artifacts of a group were not found in a repository,
+     * while no artifact of the group was found in the repository.
+     *
+     * @param repositoryId The id of the repository
+     * @param group The group in path form, for example "org/apache/maven"
+     * @param threshold The minimum amount of missing artifacts
+     * @return True if the repository likely does not host the group
+     */
+    @Contract(pure = true)
+    public boolean isLikelyMissing(@NotNull String repositoryId, @NotNull String group, int threshold) {
+        RepositoryEntry entry = this.repositories.get(repositoryId);
+        GroupStatistics stats = entry == null ? null : entry.groups.get(group);
+        return stats != null && stats.hits.get() == 0 && stats.misses.get() >= threshold;
+    }
+
+    /**
+     * Read statistics that were previously written through {@link #write(Path)}, merging them with
+     * the statistics that are already present. Absent files are ignored.
+     *
+     * @param file The file to read from
+     * @throws IOException If the file could not be read
+     */
+    public void read(@NotNull Path file) throws IOException {
+        if (Files.notExists(file)) {
+            return;
+        }
+
+        Properties properties = new Properties();
+
+        try (InputStream is = Files.newInputStream(file)) {
+            properties.load(is);
+        }
+
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key);
+
+            try {
+                if (key.startsWith("latencies:")) {
+                    RepositoryEntry entry = this.getEntry(key.substring(10));
+
+                    for (String sample : value.split(",")) {
+                        if (!sample.isEmpty()) {
+                            entry.latencies.record(TimeUnit.MILLISECONDS.toNanos(Long.parseLong(sample)));
+                        }
+                    }
+                } else if (key.startsWith("errorRate:")) {
+                    RepositoryEntry entry = this.getEntry(key.substring(10));
+
+                    synchronized (entry) {
+                        entry.errorRate = Math.min(1D, Math.max(0D, Double.parseDouble(value)));
+                    }
+                } else if (key.startsWith("groups:")) {
+                    RepositoryEntry entry = this.getEntry(key.substring(7));
+
+                    // Format: group=hits/misses;group=hits/misses
+                    for (String group : value.split(";")) {
+                        int equals = group.indexOf('=');
+                        int slash = group.indexOf('/', equals);
+
+                        if (equals == -1 || slash == -1) {
+                            continue;
+                        }
+
+                        GroupStatistics stats = entry.groups.computeIfAbsent(group.substring(0, equals), (ignored) -> new GroupStatistics());
+                        stats.hits.addAndGet(Integer.parseInt(group.substring(equals + 1, slash)));
+                        stats.misses.addAndGet(Integer.parseInt(group.substring(slash + 1)));
+                    }
+                }
+            } catch (NumberFormatException ignored) {
+                // Corrupted entries are ignored, as the statistics are merely a heuristic
+            }
+        }
+    }
+
+    void recordFailure(@NotNull String repositoryId) {
+        RepositoryEntry entry = this.getEntry(repositoryId);
+
+        synchronized (entry) {
+            entry.errorRate += (1D - entry.errorRate) * RepositoryStatistics.ERROR_RATE_WEIGHT;
+        }
+    }
+
+    void recordNotFound(@NotNull String repositoryId, @Nullable String group) {
+        if (group != null) {
+            this.getEntry(repositoryId).groups.computeIfAbsent(group, (key) -> new GroupStatistics()).misses.incrementAndGet();
+        }
+    }
+
+    void recordSuccess(@NotNull String repositoryId, @Nullable String group, long nanos) {
+        RepositoryEntry entry = this.getEntry(repositoryId);
+        entry.latencies.record(nanos);
+
+        synchronized (entry) {
+            entry.errorRate -= entry.errorRate * RepositoryStatistics.ERROR_RATE_WEIGHT;
+        }
+
+        if (group != null) {
+            entry.groups.computeIfAbsent(group, (key) -> new GroupStatistics()).hits.incrementAndGet();
+        }
+    }
+
+    /**
+     * Write the statistics to a file, replacing the file should it already exist.
+     *
+     * @param file The file to write to
+     * @throws IOException If the file could not be written
+     */
+    public void write(@NotNull Path file) throws IOException {
+        Properties properties = new Properties();
+
+        for (Map.Entry<String, RepositoryEntry> repository : this.repositories.entrySet()) {
+            RepositoryEntry entry = repository.getValue();
+            StringBuilder latencies = new StringBuilder();
+
+            for (long sample : entry.latencies.getSamples()) {
+                if (latencies.length() != 0) {
+                    latencies.append(',');
+                }
+
+                latencies.append(TimeUnit.NANOSECONDS.toMillis(sample));
+            }
+
+            StringBuilder groups = new StringBuilder();
+
+            for (Map.Entry<String, GroupStatistics> group : entry.groups.entrySet()) {
+                if (groups.length() != 0) {
+                    groups.append(';');
+                }
+
+                groups.append(group.getKey()).append('=').append(group.getValue().hits.get()).append('/').append(group.getValue().misses.get());
+            }
+
+            properties.setProperty("latencies:" + repository.getKey(), latencies.toString());
+            properties.setProperty("errorRate:" + repository.getKey(), Double.toString(this.getErrorRate(repository.getKey())));
+            properties.setProperty("groups:" + repository.getKey(), groups.toString());
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (OutputStream os = Files.newOutputStream(file)) {
+            properties.store(os, "PicoResolve repository statistics");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.stianloader.picoresolve.repo;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown by {@link MavenRepository} implementations when the repository was reachable
+ * but does not host the requested resource, for example if an HTTP server responds with 404 (Not Found).
+ * Unlike other exceptions, this exception implies that querying the repository again for the same resource
+ * is not going to yield a different result in the near future.
+ *
+ * <p>As most resources are only hosted by one out of several repositories, this exception is thrown
+ * during regular operation all the time. It therefore does not record a stack trace, which would
+ * merely point to the transport that performed the request anyway.
+ */
+public class ResourceNotFoundException extends IOException {
+
+    private static final long serialVersionUID = 2912437065472101633L;
+
+    /**
+     * Create a new {@link ResourceNotFoundException}.
+     *
+     * @param message The detail message, usually describing the queried resource and repository
+     */
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+
+    /**
+     * Create a new {@link ResourceNotFoundException}.
+     *
+     * @param message The detail message, usually describing the queried resource and repository
+     * @param cause The exception reported by the transport
+     */
+    public ResourceNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
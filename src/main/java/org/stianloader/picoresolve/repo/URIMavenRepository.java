@@ -2,23 +2,78 @@ package org.stianloader.picoresolve.repo;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.stianloader.picoresolve.internal.ConcurrencyUtil;
+import org.stianloader.picoresolve.internal.HttpTransport;
 import org.stianloader.picoresolve.internal.JavaInterop;
+import org.stianloader.picoresolve.internal.PartialDownload;
 
+/**
+ * A {@link MavenRepository} that fetches resources from a base {@link URI}, usually a remote http(s) repository.
+ *
+ * <p>When running on Java 11 or above, http and https requests are performed using a shared non-blocking
+ * <code>java.net.http.HttpClient</code>, which multiplexes concurrent requests over a single HTTP/2 connection
+ * per host where supported by the remote. Otherwise requests are performed through a blocking {@link URLConnection}
+ * on the provided {@link Executor}. In both cases {@link #downloadResource(String, Path, List, Executor)} streams the
+ * resource directly to disk. If a subclass overrides {@link #getResource0(String)}, all requests are performed
+ * through it instead, which disables the non-blocking transport, streaming downloads and resumption of interrupted downloads.
+ * Interrupted http(s) downloads are resumed using range requests if the remote supplied a suitable validator.
+ *
+ * <p>Cancelling a returned {@link CompletableFuture} aborts the corresponding request, closing the connection
+ * of blocking requests if necessary. Requests to unresponsive remotes are aborted once the
+ * {@link #setConnectTimeout(int) connect timeout} or the {@link #setReadTimeout(int) read timeout} elapsed.
+ */
 public class URIMavenRepository implements MavenRepository {
 
+    /**
+     * A blocking request performed through a {@link URLConnection}.
+     */
+    @FunctionalInterface
+    private static interface ConnectionRequest<T> {
+        T perform(@NotNull URLConnection connection) throws Exception;
+    }
+
+    /**
+     * The default timeout for establishing connections, in milliseconds.
+     */
+    public static final int DEFAULT_CONNECT_TIMEOUT = 10_000;
+    /**
+     * The default timeout for awaiting data from the remote, in milliseconds.
+     */
+    public static final int DEFAULT_READ_TIMEOUT = 30_000;
+
     @NotNull
     private final URI base;
+    private volatile int connectTimeout = URIMavenRepository.DEFAULT_CONNECT_TIMEOUT;
     @NotNull
     private final String id;
+    /**
+     * Whether all requests need to go through {@link #getResource0(String)}, as it is overridden by a subclass.
+     */
+    private final boolean customGetResource0;
+    /**
+     * Whether {@link HttpTransport} may be used in favour of {@link #getResource0(String)}.
+     */
+    private final boolean nonBlockingTransport;
+    private volatile int readTimeout = URIMavenRepository.DEFAULT_READ_TIMEOUT;
 
     public URIMavenRepository(@NotNull String id, @NotNull URI base) {
         if (base.getPath().isEmpty()) {
@@ -28,33 +83,243 @@ public class URIMavenRepository implements MavenRepository {
         }
         this.base = base;
         this.id = id;
+        this.customGetResource0 = URIMavenRepository.overridesGetResource0(this.getClass());
+        this.nonBlockingTransport = !this.customGetResource0 && HttpTransport.isSupported(base);
     }
 
-    protected byte @NotNull[] getResource0(@NotNull String path) throws Exception {
+    /**
+     * Whether the given subclass of {@link URIMavenRepository} overrides {@link #getResource0(String)},
+     * in which case all requests need to be performed through the method in order to retain the behaviour of the subclass.
+     */
+    @Contract(pure = true)
+    private static boolean overridesGetResource0(@NotNull Class<?> type) {
+        for (Class<?> c = type; c != URIMavenRepository.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("getResource0", String.class);
+                return true;
+            } catch (NoSuchMethodException ignored) {
+                // Not declared by this class
+            } catch (SecurityException e) {
+                // The override can not be ruled out
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @NotNull
+    private URLConnection openConnection(@NotNull String path) throws IOException {
         URI resolved = this.base.resolve(path);
         URLConnection connection = resolved.toURL().openConnection();
+        connection.setConnectTimeout(this.connectTimeout);
+        connection.setReadTimeout(this.readTimeout);
 
         if (connection instanceof HttpURLConnection) {
-            HttpURLConnection httpUrlConn = (HttpURLConnection) connection;
+            URIMavenRepository.checkResponseCode((HttpURLConnection) connection);
+        }
 
-            if ((httpUrlConn.getResponseCode() / 100) != 2) {
-                throw new IOException("Query for " + connection.getURL() + " returned with a response code of " + httpUrlConn.getResponseCode() + " (" + httpUrlConn.getResponseMessage() + ")");
-            }
+        return connection;
+    }
+
+    private static void checkResponseCode(@NotNull HttpURLConnection connection) throws IOException {
+        int responseCode = connection.getResponseCode();
+
+        if (responseCode == HttpURLConnection.HTTP_NOT_FOUND || responseCode == HttpURLConnection.HTTP_GONE) {
+            throw new ResourceNotFoundException("Query for " + connection.getURL() + " returned with a response code of " + responseCode + " (" + connection.getResponseMessage() + ")");
+        } else if ((responseCode / 100) != 2) {
+            throw new UnexpectedResponseException("Query for " + connection.getURL() + " returned with a response code of " + responseCode + " (" + connection.getResponseMessage() + ")", responseCode);
         }
+    }
 
-        try (InputStream is = connection.getInputStream()) {
+    protected byte @NotNull[] getResource0(@NotNull String path) throws Exception {
+        try (InputStream is = this.openConnection(path).getInputStream()) {
             return JavaInterop.readAllBytes(is);
         }
     }
 
+    @Override
+    @NotNull
+    public CompletableFuture<RepositoryAttachedValue<Path>> downloadResource(@NotNull String path, @NotNull Path target, @NotNull List<@NotNull MessageDigest> digests, @NotNull Executor executor) {
+        if (this.nonBlockingTransport) {
+            return ConcurrencyUtil.thenApply(HttpTransport.download(this.base.resolve(path), target, digests, this.connectTimeout, this.readTimeout, executor), (file) -> {
+                return new RepositoryAttachedValue<>(this, file);
+            });
+        } else if (this.customGetResource0) {
+            return MavenRepository.super.downloadResource(path, target, digests, executor);
+        }
+
+        CompletableFuture<@Nullable RepositoryAttachedValue<Path>> download = this.downloadBlocking(this.base.resolve(path), target, digests, executor);
+        return ConcurrencyUtil.thenCompose(download, (rav) -> {
+            if (rav == null) {
+                // The partial file was discarded, so the retry requests the file in full
+                return this.downloadBlocking(this.base.resolve(path), target, digests, executor);
+            }
+
+            return CompletableFuture.completedFuture(rav);
+        });
+    }
+
+    /**
+     * Download a resource through a blocking request, resuming the download if a partially downloaded file is present.
+     *
+     * @param uri The URI of the resource
+     * @param target The file to write to
+     * @param digests The digests to update with the contents of the resource
+     * @param executor The executor to perform the request on
+     * @return A {@link CompletableFuture} which completes with the downloaded file, or with null if the partially
+     * downloaded file could not be resumed and was discarded, in which case the download needs to be retried
+     */
+    @NotNull
+    private CompletableFuture<@Nullable RepositoryAttachedValue<Path>> downloadBlocking(@NotNull URI uri, @NotNull Path target, @NotNull List<@NotNull MessageDigest> digests, @NotNull Executor executor) {
+        return this.scheduleRequest(uri, (connection) -> {
+            boolean resumed = false;
+
+            if (connection instanceof HttpURLConnection) {
+                HttpURLConnection httpUrlConn = (HttpURLConnection) connection;
+                long offset = PartialDownload.getResumeOffset(target);
+                String validator = offset == 0L ? null : PartialDownload.readValidator(target);
+
+                if (validator != null) {
+                    httpUrlConn.setRequestProperty("Range", "bytes=" + offset + "-");
+                    httpUrlConn.setRequestProperty("If-Range", validator);
+                }
+
+                if (validator != null && httpUrlConn.getResponseCode() == 416) {
+                    // Range not satisfiable - the partial file is unusable
+                    httpUrlConn.disconnect();
+                    PartialDownload.discard(target);
+                    return null;
+                }
+
+                URIMavenRepository.checkResponseCode(httpUrlConn);
+
+                if (validator != null && httpUrlConn.getResponseCode() == HttpURLConnection.HTTP_PARTIAL) {
+                    String contentRange = httpUrlConn.getHeaderField("Content-Range");
+                    if (PartialDownload.parseRangeStart(contentRange) != offset) {
+                        httpUrlConn.disconnect();
+                        PartialDownload.discard(target);
+                        throw new IOException("Query for " + httpUrlConn.getURL() + " returned an unexpected content range: " + contentRange + " (expected bytes " + offset + "-)");
+                    }
+                    PartialDownload.digest(target, digests);
+                    resumed = true;
+                }
+
+                PartialDownload.writeValidator(target, httpUrlConn.getHeaderField("ETag"), httpUrlConn.getHeaderField("Last-Modified"));
+            }
+
+            try (InputStream is = connection.getInputStream();
+                    OutputStream os = Files.newOutputStream(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, resumed ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)) {
+                InputStream digestingStream = is;
+
+                for (MessageDigest digest : digests) {
+                    digestingStream = new DigestInputStream(digestingStream, digest);
+                }
+
+                long expectedLength = connection.getContentLengthLong();
+                long transferred = JavaInterop.transferTo(digestingStream, os);
+
+                if (expectedLength != -1L && transferred != expectedLength) {
+                    // HttpURLConnection does not report connections that were closed prematurely
+                    throw new IOException("Transfer of " + connection.getURL() + " ended after " + transferred + " out of " + expectedLength + " bytes");
+                }
+            }
+
+            Files.deleteIfExists(PartialDownload.getValidatorFile(target));
+            return new RepositoryAttachedValue<>(this, target);
+        }, executor);
+    }
+
     @Override
     @NotNull
     public CompletableFuture<RepositoryAttachedValue<byte[]>> getResource(@NotNull String path, @NotNull Executor executor) {
-        return ConcurrencyUtil.schedule(() -> {
-            return new RepositoryAttachedValue<>(this, this.getResource0(path));
+        if (this.nonBlockingTransport) {
+            return ConcurrencyUtil.thenApply(HttpTransport.get(this.base.resolve(path), this.connectTimeout, this.readTimeout, executor), (data) -> {
+                return new RepositoryAttachedValue<>(this, data);
+            });
+        } else if (this.customGetResource0) {
+            return ConcurrencyUtil.schedule(() -> {
+                return new RepositoryAttachedValue<>(this, this.getResource0(path));
+            }, executor);
+        }
+
+        return this.scheduleRequest(this.base.resolve(path), (connection) -> {
+            if (connection instanceof HttpURLConnection) {
+                URIMavenRepository.checkResponseCode((HttpURLConnection) connection);
+            }
+
+            try (InputStream is = connection.getInputStream()) {
+                return new RepositoryAttachedValue<>(this, JavaInterop.readAllBytes(is));
+            }
         }, executor);
     }
 
+    @Override
+    @NotNull
+    public CompletableFuture<RepositoryAttachedValue<ConditionalResource>> getResourceIfModified(@NotNull String path, @Nullable String etag, @Nullable String lastModified, @NotNull Executor executor) {
+        if (this.nonBlockingTransport) {
+            return ConcurrencyUtil.thenApply(HttpTransport.getIfModified(this.base.resolve(path), etag, lastModified, this.connectTimeout, this.readTimeout, executor), (resource) -> {
+                return new RepositoryAttachedValue<>(this, resource);
+            });
+        } else if (this.customGetResource0) {
+            return MavenRepository.super.getResourceIfModified(path, etag, lastModified, executor);
+        }
+
+        return this.scheduleRequest(this.base.resolve(path), (connection) -> {
+            if (!(connection instanceof HttpURLConnection)) {
+                try (InputStream is = connection.getInputStream()) {
+                    return new RepositoryAttachedValue<>(this, new ConditionalResource(JavaInterop.readAllBytes(is), null, null));
+                }
+            }
+
+            HttpURLConnection httpUrlConn = (HttpURLConnection) connection;
+
+            if (etag != null) {
+                httpUrlConn.setRequestProperty("If-None-Match", etag);
+            }
+
+            if (lastModified != null) {
+                httpUrlConn.setRequestProperty("If-Modified-Since", lastModified);
+            }
+
+            String newETag = httpUrlConn.getHeaderField("ETag");
+            String newLastModified = httpUrlConn.getHeaderField("Last-Modified");
+
+            if (httpUrlConn.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                // Servers may omit validators that did not change in 304 responses
+                return new RepositoryAttachedValue<>(this, new ConditionalResource(null, newETag == null ? etag : newETag, newLastModified == null ? lastModified : newLastModified));
+            }
+
+            URIMavenRepository.checkResponseCode(httpUrlConn);
+
+            try (InputStream is = httpUrlConn.getInputStream()) {
+                return new RepositoryAttachedValue<>(this, new ConditionalResource(JavaInterop.readAllBytes(is), newETag, newLastModified));
+            }
+        }, executor);
+    }
+
+    /**
+     * Obtains the timeout for establishing connections to the remote.
+     *
+     * @return The connect timeout in milliseconds, 0 if requests may wait indefinitely
+     * @see #setConnectTimeout(int)
+     */
+    @Contract(pure = true)
+    public int getConnectTimeout() {
+        return this.connectTimeout;
+    }
+
+    /**
+     * Obtains the timeout for awaiting data from the remote.
+     *
+     * @return The read timeout in milliseconds, 0 if requests may wait indefinitely
+     * @see #setReadTimeout(int)
+     */
+    @Contract(pure = true)
+    public int getReadTimeout() {
+        return this.readTimeout;
+    }
+
     @Override
     @NotNull
     @Contract(pure = true)
@@ -74,4 +339,87 @@ public class URIMavenRepository implements MavenRepository {
     public long getUpdateIntervall() {
         return 24 * 60 * 60 * 1000; // Once every day should be enough
     }
+
+    /**
+     * Set the timeout for establishing connections to the remote. Requests to remotes that can not be connected to
+     * within the timeout fail with a {@link java.net.SocketTimeoutException} (or <code>java.net.http.HttpConnectTimeoutException</code>
+     * when using the non-blocking transport). Defaults to {@link #DEFAULT_CONNECT_TIMEOUT}.
+     *
+     * @param connectTimeout The connect timeout in milliseconds, 0 to wait indefinitely
+     * @return The current {@link URIMavenRepository} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public URIMavenRepository setConnectTimeout(int connectTimeout) {
+        if (connectTimeout < 0) {
+            throw new IllegalArgumentException("connectTimeout may not be negative (got " + connectTimeout + ")");
+        }
+
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    /**
+     * Set the timeout for awaiting data from the remote. Blocking requests fail with a {@link java.net.SocketTimeoutException}
+     * if the remote does not send any data within the timeout. Requests through the non-blocking transport fail with a
+     * <code>java.net.http.HttpTimeoutException</code> if the response headers were not received within the timeout.
+     * Defaults to {@link #DEFAULT_READ_TIMEOUT}.
+     *
+     * @param readTimeout The read timeout in milliseconds, 0 to wait indefinitely
+     * @return The current {@link URIMavenRepository} instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public URIMavenRepository setReadTimeout(int readTimeout) {
+        if (readTimeout < 0) {
+            throw new IllegalArgumentException("readTimeout may not be negative (got " + readTimeout + ")");
+        }
+
+        this.readTimeout = readTimeout;
+        return this;
+    }
+
+    /**
+     * Perform a blocking request on the given {@link Executor}. Cancelling the returned future interrupts
+     * the thread performing the request and disconnects http(s) connections, which aborts reads that are blocked
+     * on the connection.
+     *
+     * @param uri The URI to connect to
+     * @param request The request to perform on the (not yet connected) connection
+     * @param executor The executor to perform the request on
+     * @return A {@link CompletableFuture} which completes with the result of the request
+     */
+    @NotNull
+    private <T> CompletableFuture<T> scheduleRequest(@NotNull URI uri, @NotNull ConnectionRequest<T> request, @NotNull Executor executor) {
+        AtomicReference<@Nullable URLConnection> activeConnection = new AtomicReference<>();
+
+        CompletableFuture<T> future = ConcurrencyUtil.schedule(() -> {
+            if ("file".equals(uri.getScheme()) && !Files.exists(Paths.get(uri))) {
+                // Spares the FileNotFoundException (alongside its stack trace) the connection would throw otherwise
+                throw new ResourceNotFoundException("File " + uri + " does not exist");
+            }
+
+            URLConnection connection = uri.toURL().openConnection();
+            connection.setConnectTimeout(this.connectTimeout);
+            connection.setReadTimeout(this.readTimeout);
+            activeConnection.set(connection);
+
+            if (Thread.currentThread().isInterrupted()) {
+                // Cancelled before the connection could be registered
+                throw new InterruptedIOException("Request for " + uri + " was cancelled");
+            }
+
+            return request.perform(connection);
+        }, executor);
+
+        future.whenComplete((ignored, ex) -> {
+            URLConnection connection = activeConnection.get();
+
+            if (future.isCancelled() && connection instanceof HttpURLConnection) {
+                ((HttpURLConnection) connection).disconnect();
+            }
+        });
+
+        return future;
+    }
 }
@@ -0,0 +1,57 @@
+package org.stianloader.picoresolve.repo;
+
+import java.io.IOException;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * Exception thrown by {@link MavenRepository} implementations when a remote repository responded to a request
+ * with an error other than the resource not being present (see {@link ResourceNotFoundException}), for example if
+ * an HTTP server responds with 503 (Service Unavailable).
+ *
+ * <p>Server errors (5xx response codes) are treated as a sign of the repository being unavailable, which counts
+ * towards opening the circuit breaker of the repository in {@link MavenLocalRepositoryNegotiator}.
+ */
+public class UnexpectedResponseException extends IOException {
+
+    /**
+     * The serialVersionUID of this class.
+     */
+    private static final long serialVersionUID = -3186216722383911020L;
+
+    /**
+     * The response code of the response, for example the HTTP status code.
+     */
+    private final int responseCode;
+
+    /**
+     * Create a new {@link UnexpectedResponseException}.
+     *
+     * @param message The detail message, usually describing the request and the response
+     * @param responseCode The response code of the response, for example the HTTP status code
+     */
+    public UnexpectedResponseException(String message, int responseCode) {
+        super(message);
+        this.responseCode = responseCode;
+    }
+
+    /**
+     * Obtains the response code of the response, for example the HTTP status code.
+     *
+     * @return The response code
+     */
+    @Contract(pure = true)
+    public int getResponseCode() {
+        return this.responseCode;
+    }
+
+    /**
+     * Whether the response code indicates a server error, i.e. whether it lies in the 5xx range.
+     *
+     * @return True if the remote failed to process the request due to a server-side error
+     */
+    @Contract(pure = true)
+    public boolean isServerError() {
+        return (this.responseCode / 100) == 5;
+    }
+}
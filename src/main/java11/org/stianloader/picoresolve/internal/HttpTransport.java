@@ -0,0 +1,323 @@
+package org.stianloader.picoresolve.internal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.picoresolve.repo.ConditionalResource;
+import org.stianloader.picoresolve.repo.UnexpectedResponseException;
+
+/**
+ * Non-blocking HTTP transport used by {@link org.stianloader.picoresolve.repo.URIMavenRepository}.
+ *
+ * <p>All requests with the same connect timeout share a single {@link HttpClient}, which prefers HTTP/2 and thus
+ * multiplexes concurrent requests to the same host over a single connection. As resolution processes usually issue a large amount of small
+ * requests, this greatly reduces the time spent on establishing connections. Furthermore, no threads
+ * are blocked while a response is pending.
+ *
+ * <p>Cancelling a returned future cancels the underlying exchange, which closes the corresponding stream
+ * (or connection, if HTTP/2 is not supported by the remote).
+ */
+public final class HttpTransport {
+
+    /**
+     * A {@link BodySubscriber} that passes all received bytes to a set of {@link MessageDigest digests}
+     * before handing them to another {@link BodySubscriber}.
+     */
+    private static final class DigestingBodySubscriber<T> implements BodySubscriber<T> {
+        @NotNull
+        private final BodySubscriber<T> delegate;
+        @NotNull
+        private final List<@NotNull MessageDigest> digests;
+
+        private DigestingBodySubscriber(@NotNull BodySubscriber<T> delegate, @NotNull List<@NotNull MessageDigest> digests) {
+            this.delegate = delegate;
+            this.digests = digests;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return this.delegate.getBody();
+        }
+
+        @Override
+        public void onComplete() {
+            this.delegate.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.delegate.onError(throwable);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            for (ByteBuffer buffer : item) {
+                for (MessageDigest digest : this.digests) {
+                    digest.update(buffer.duplicate());
+                }
+            }
+
+            this.delegate.onNext(item);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.delegate.onSubscribe(subscription);
+        }
+    }
+
+    /**
+     * The clients used to perform requests, keyed by their connect timeout. As the connect timeout is a property
+     * of the client rather than of the request, repositories with differing connect timeouts can not share a client.
+     */
+    @NotNull
+    private static final Map<Integer, HttpClient> CLIENTS = new ConcurrentHashMap<>();
+
+    @NotNull
+    private static <T> CompletableFuture<T> checkResponse(@NotNull URI uri, @NotNull HttpResponse<T> response) {
+        if (response.statusCode() == HttpURLConnection.HTTP_NOT_FOUND || response.statusCode() == HttpURLConnection.HTTP_GONE) {
+            return ConcurrencyUtil.notFound("Query for " + uri + " returned with a response code of " + response.statusCode());
+        } else if ((response.statusCode() / 100) != 2) {
+            return CompletableFuture.failedFuture(new UnexpectedResponseException("Query for " + uri + " returned with a response code of " + response.statusCode(), response.statusCode()));
+        }
+
+        return CompletableFuture.completedFuture(response.body());
+    }
+
+    /**
+     * Download a resource to a file, resuming the download if the file was partially downloaded before (see {@link PartialDownload}).
+     *
+     * @param uri The URI of the resource
+     * @param target The file to write to
+     * @param digests The digests to update with the contents of the resource
+     * @param connectTimeout The timeout for establishing connections in milliseconds, 0 to wait indefinitely
+     * @param readTimeout The timeout for awaiting the response in milliseconds, 0 to wait indefinitely
+     * @param executor The executor to perform blocking I/O on
+     * @return A {@link CompletableFuture} which completes with the target file once the resource was downloaded
+     */
+    @NotNull
+    public static CompletableFuture<@NotNull Path> download(@NotNull URI uri, @NotNull Path target, @NotNull List<@NotNull MessageDigest> digests, int connectTimeout, int readTimeout, @NotNull Executor executor) {
+        CompletableFuture<@NotNull Path> result = new CompletableFuture<>();
+
+        // Inspecting the partially downloaded file involves blocking I/O, so it is performed on the provided executor
+        CompletableFuture<CompletableFuture<@NotNull Path>> inspection = ConcurrencyUtil.schedule(() -> {
+            HttpRequest.Builder request = HttpTransport.newRequest(uri, readTimeout);
+            long offset = PartialDownload.getResumeOffset(target);
+            String validator = offset == 0L ? null : PartialDownload.readValidator(target);
+
+            if (validator == null) {
+                offset = 0L;
+            } else {
+                request.header("Range", "bytes=" + offset + "-");
+                request.header("If-Range", validator);
+                PartialDownload.digest(target, digests);
+            }
+
+            long resumeOffset = offset;
+            AtomicReference<CompletableFuture<?>> validatorWrite = new AtomicReference<>(CompletableFuture.completedFuture(null));
+            CompletableFuture<HttpResponse<Path>> exchange = HttpTransport.getClient(connectTimeout).sendAsync(request.build(), (info) -> {
+                if ((info.statusCode() / 100) != 2 || result.isDone() || HttpTransport.isUnexpectedRange(info.statusCode(), info.headers(), resumeOffset)) {
+                    // Do not write error pages or downloads that are no longer of interest to the target file
+                    return BodySubscribers.replacing(target);
+                }
+
+                boolean resumed = resumeOffset != 0L && info.statusCode() == HttpURLConnection.HTTP_PARTIAL;
+                if (resumeOffset != 0L && !resumed) {
+                    // The remote sent the file in full, discard the digest of the partial file
+                    digests.forEach(MessageDigest::reset);
+                }
+
+                // Body handlers are invoked on the threads of the client, which should not block on file I/O
+                String etag = info.headers().firstValue("ETag").orElse(null);
+                String lastModified = info.headers().firstValue("Last-Modified").orElse(null);
+                validatorWrite.set(ConcurrencyUtil.schedule(() -> {
+                    PartialDownload.writeValidator(target, etag, lastModified);
+                    return null;
+                }, executor));
+
+                BodySubscriber<Path> subscriber = BodySubscribers.ofFile(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, resumed ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+                return digests.isEmpty() ? subscriber : new DigestingBodySubscriber<>(subscriber, digests);
+            });
+
+            // The outcome of the exchange is only reported once the validator was written, as the partially
+            // downloaded file would be considered to not be resumable and thus be discarded otherwise
+            CompletableFuture<HttpResponse<Path>> settled = exchange.handle((response, ex) -> validatorWrite.get())
+                    .thenCompose(Function.identity())
+                    .thenCompose((ignored) -> exchange);
+
+            return ConcurrencyUtil.propagateCancellation(settled.thenComposeAsync((response) -> {
+                if (resumeOffset != 0L && response.statusCode() == 416) {
+                    // Range not satisfiable - the partial file is unusable, so the file is requested in full instead.
+                    // As the partial file is discarded, the retry does not send a range request again.
+                    PartialDownload.discard(target);
+                    digests.forEach(MessageDigest::reset);
+                    CompletableFuture<@NotNull Path> retry = HttpTransport.download(uri, target, digests, connectTimeout, readTimeout, executor);
+                    ConcurrencyUtil.propagateCancellation(result, retry);
+                    return retry;
+                } else if (HttpTransport.isUnexpectedRange(response.statusCode(), response.headers(), resumeOffset)) {
+                    PartialDownload.discard(target);
+                    return CompletableFuture.failedFuture(new IOException("Query for " + uri + " returned an unexpected content range: " + response.headers().firstValue("Content-Range").orElse(null) + " (expected bytes " + resumeOffset + "-)"));
+                }
+
+                return HttpTransport.checkResponse(uri, response).thenApply((path) -> {
+                    try {
+                        Files.deleteIfExists(PartialDownload.getValidatorFile(path));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return path;
+                });
+            }, executor), exchange);
+        }, executor);
+
+        CompletableFuture<@NotNull Path> pending = ConcurrencyUtil.thenCompose(inspection, Function.identity());
+        pending.whenComplete((path, ex) -> {
+            if (ex == null) {
+                result.complete(path);
+            } else {
+                result.completeExceptionally(ex);
+            }
+        });
+
+        return ConcurrencyUtil.propagateCancellation(result, pending);
+    }
+
+    /**
+     * Fetch a resource.
+     *
+     * @param uri The URI of the resource
+     * @param connectTimeout The timeout for establishing connections in milliseconds, 0 to wait indefinitely
+     * @param readTimeout The timeout for awaiting the response in milliseconds, 0 to wait indefinitely
+     * @param executor The executor to process the response on
+     * @return A {@link CompletableFuture} which completes with the contents of the resource
+     */
+    @NotNull
+    public static CompletableFuture<byte @NotNull[]> get(@NotNull URI uri, int connectTimeout, int readTimeout, @NotNull Executor executor) {
+        HttpRequest request = HttpTransport.newRequest(uri, readTimeout).build();
+
+        // The response is processed on the provided executor so that dependent stages do not run on the threads of the client
+        CompletableFuture<HttpResponse<byte[]>> pending = HttpTransport.getClient(connectTimeout).sendAsync(request, BodyHandlers.ofByteArray());
+        return ConcurrencyUtil.propagateCancellation(pending.thenComposeAsync((response) -> HttpTransport.checkResponse(uri, response), executor), pending);
+    }
+
+    @NotNull
+    private static HttpClient getClient(int connectTimeout) {
+        return HttpTransport.CLIENTS.computeIfAbsent(connectTimeout, (timeout) -> {
+            HttpClient.Builder builder = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .followRedirects(HttpClient.Redirect.NORMAL);
+
+            if (timeout > 0) {
+                builder.connectTimeout(Duration.ofMillis(timeout));
+            }
+
+            return builder.build();
+        });
+    }
+
+    /**
+     * Fetch a resource unless it was not modified since it was obtained alongside the given validators.
+     *
+     * @param uri The URI of the resource
+     * @param etag The entity tag of the previously obtained resource, or null if unknown
+     * @param lastModified The last modification date of the previously obtained resource, or null if unknown
+     * @param connectTimeout The timeout for establishing connections in milliseconds, 0 to wait indefinitely
+     * @param readTimeout The timeout for awaiting the response in milliseconds, 0 to wait indefinitely
+     * @param executor The executor to process the response on
+     * @return A {@link CompletableFuture} which completes with the resource, without data if it was not modified
+     */
+    @NotNull
+    public static CompletableFuture<@NotNull ConditionalResource> getIfModified(@NotNull URI uri, @Nullable String etag, @Nullable String lastModified, int connectTimeout, int readTimeout, @NotNull Executor executor) {
+        HttpRequest.Builder request = HttpTransport.newRequest(uri, readTimeout);
+
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+
+        if (lastModified != null) {
+            request.header("If-Modified-Since", lastModified);
+        }
+
+        CompletableFuture<HttpResponse<byte[]>> pending = HttpTransport.getClient(connectTimeout).sendAsync(request.build(), BodyHandlers.ofByteArray());
+        return ConcurrencyUtil.propagateCancellation(pending.thenComposeAsync((response) -> {
+            String newETag = response.headers().firstValue("ETag").orElse(null);
+            String newLastModified = response.headers().firstValue("Last-Modified").orElse(null);
+
+            if (response.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                // Servers may omit validators that did not change in 304 responses
+                return CompletableFuture.completedFuture(new ConditionalResource(null, newETag == null ? etag : newETag, newLastModified == null ? lastModified : newLastModified));
+            }
+
+            return HttpTransport.checkResponse(uri, response).thenApply((data) -> {
+                return new ConditionalResource(data, newETag, newLastModified);
+            });
+        }, executor), pending);
+    }
+
+    /**
+     * Whether a partial response does not start at the offset that was requested, in which case
+     * appending its body to the partially downloaded file would corrupt it.
+     */
+    @Contract(pure = true)
+    private static boolean isUnexpectedRange(int statusCode, @NotNull HttpHeaders headers, long offset) {
+        return statusCode == HttpURLConnection.HTTP_PARTIAL && (offset == 0L || PartialDownload.parseRangeStart(headers.firstValue("Content-Range").orElse(null)) != offset);
+    }
+
+    /**
+     * Whether requests to the given URI can be performed through this transport.
+     *
+     * @param uri The URI to check
+     * @return True if the scheme of the URI is supported
+     */
+    @Contract(pure = true)
+    public static boolean isSupported(@NotNull URI uri) {
+        String scheme = uri.getScheme();
+        return "http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme);
+    }
+
+    /**
+     * Create a GET request for the given URI. The read timeout limits the time until the response headers are received,
+     * failing the request with a {@link java.net.http.HttpTimeoutException} otherwise.
+     */
+    @NotNull
+    private static HttpRequest.Builder newRequest(@NotNull URI uri, int readTimeout) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).GET();
+
+        if (readTimeout > 0) {
+            request.timeout(Duration.ofMillis(readTimeout));
+        }
+
+        return request;
+    }
+
+    private HttpTransport() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,191 @@
+package org.stianloader.picoresolve.internal;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Access to virtual threads as used by {@link org.stianloader.picoresolve.ResolverExecutors}.
+ *
+ * <p>Every task is run on its own virtual thread. As blocking a virtual thread does not block the underlying
+ * carrier thread, blocking requests (such as file repositories, {@link java.net.HttpURLConnection} fallbacks
+ * or waiting on file locks within the local repository) do not starve other tasks. The amount of tasks running
+ * at once is bound by a {@link Semaphore} instead of the size of a thread pool.
+ */
+public final class VirtualThreads {
+
+    private static final class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+        @NotNull
+        private final ThreadFactory factory = Thread.ofVirtual().name("PicoResolve Virtual Worker #", 0).factory();
+        @NotNull
+        private final ReentrantLock lock = new ReentrantLock();
+        @NotNull
+        private final Semaphore permits;
+        private boolean shutdown;
+        @NotNull
+        private final Condition terminated = this.lock.newCondition();
+        @NotNull
+        private final Set<@NotNull Thread> threads = new HashSet<>();
+
+        private BoundedVirtualThreadExecutor(int maxConcurrency) {
+            this.permits = new Semaphore(maxConcurrency, true);
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            long remaining = unit.toNanos(timeout);
+
+            this.lock.lock();
+            try {
+                while (!this.isTerminated0()) {
+                    if (remaining <= 0L) {
+                        return false;
+                    }
+
+                    remaining = this.terminated.awaitNanos(remaining);
+                }
+
+                return true;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            Objects.requireNonNull(command, "command may not be null");
+
+            this.lock.lock();
+            try {
+                if (this.shutdown) {
+                    throw new RejectedExecutionException("The executor was shut down");
+                }
+
+                Thread thread = this.factory.newThread(() -> this.runBounded(command));
+                this.threads.add(thread);
+                thread.start();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean isShutdown() {
+            this.lock.lock();
+            try {
+                return this.shutdown;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean isTerminated() {
+            this.lock.lock();
+            try {
+                return this.isTerminated0();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private boolean isTerminated0() {
+            return this.shutdown && this.threads.isEmpty();
+        }
+
+        private void runBounded(@NotNull Runnable command) {
+            try {
+                // Blocking a virtual thread is cheap, so tasks exceeding the bound wait for a permit on their own thread
+                this.permits.acquire();
+                try {
+                    command.run();
+                } finally {
+                    this.permits.release();
+                }
+            } catch (InterruptedException e) {
+                // Interrupted by #shutdownNow before the task was started
+            } finally {
+                this.lock.lock();
+                try {
+                    this.threads.remove(Thread.currentThread());
+
+                    if (this.isTerminated0()) {
+                        this.terminated.signalAll();
+                    }
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            this.lock.lock();
+            try {
+                this.shutdown = true;
+
+                if (this.isTerminated0()) {
+                    this.terminated.signalAll();
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        @Override
+        @NotNull
+        public List<Runnable> shutdownNow() {
+            this.lock.lock();
+            try {
+                this.shutdown();
+
+                for (Thread thread : this.threads) {
+                    thread.interrupt();
+                }
+            } finally {
+                this.lock.unlock();
+            }
+
+            // Tasks waiting for a permit are discarded by their threads once interrupted
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Whether virtual threads are available on the current Java version.
+     *
+     * @return True if {@link #newBoundedExecutor(int)} is supported
+     */
+    @Contract(pure = true)
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Create an {@link ExecutorService} running every task on its own virtual thread, with at most the given amount of tasks running at once.
+     *
+     * @param maxConcurrency The maximum amount of tasks running at once
+     * @return The newly created executor
+     */
+    @NotNull
+    public static ExecutorService newBoundedExecutor(int maxConcurrency) {
+        return new BoundedVirtualThreadExecutor(maxConcurrency);
+    }
+
+    private VirtualThreads() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,75 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.stianloader.picoresolve.DependencyLayer;
+import org.stianloader.picoresolve.GAV;
+import org.stianloader.picoresolve.MavenResolver;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+import org.stianloader.picoresolve.test.util.FileDeleter;
+import org.stianloader.picoresolve.test.util.NOPLogger;
+import org.stianloader.picoresolve.version.MavenVersion;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class CancellationTest {
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    public void testCancelResolution() throws Exception {
+        CountDownLatch requested = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ExecutorService serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", (exchange) -> {
+            // Stall all requests until the test is over
+            requested.countDown();
+
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+
+        Path mavenLocal = Files.createTempDirectory("picoresolve-cancellation-local");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            MavenResolver resolver = new MavenResolver(mavenLocal)
+                    .addRepository(new URIMavenRepository("stalling", URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/")));
+            resolver.setLogger(new NOPLogger());
+            DependencyLayer layer = DependencyLayer.createLayerFor(new GAV("virtual-node", "virtual-node", MavenVersion.parse("")), new GAV("org.example", "stalled", MavenVersion.parse("1.0")));
+
+            CompletableFuture<Void> resolution = resolver.resolveAllChildren(layer, executor);
+            assertTrue(requested.await(5, TimeUnit.SECONDS));
+
+            // The only thread of the executor is blocked on the stalled request until the request is aborted
+            resolution.cancel(true);
+            assertEquals("free", executor.submit(() -> "free").get(2, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            server.stop(0);
+            serverExecutor.shutdownNow();
+            FileDeleter.deleteDir(mavenLocal);
+        }
+    }
+}
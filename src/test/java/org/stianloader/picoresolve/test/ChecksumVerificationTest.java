@@ -0,0 +1,112 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.stianloader.picoresolve.internal.JavaInterop;
+import org.stianloader.picoresolve.repo.ChecksumPolicy;
+import org.stianloader.picoresolve.repo.MavenLocalRepositoryNegotiator;
+import org.stianloader.picoresolve.repo.MavenRepository;
+import org.stianloader.picoresolve.repo.RepositoryAttachedValue;
+import org.stianloader.picoresolve.test.util.FileDeleter;
+import org.stianloader.picoresolve.test.util.StubRepository;
+import org.stianloader.picoresolve.test.util.NOPLogger;
+
+public class ChecksumVerificationTest {
+
+    private static final byte @NotNull[] DATA = "picoresolve".getBytes(StandardCharsets.UTF_8);
+    private static final String DATA_SHA1 = "99c6ac235b2bccf374904db2267f6feb1a7dfe10";
+    private static final String DATA_SHA256 = "027419726678a62d8be5b5a54f97d485d175731f3a5c0b12936349b6a97cc8d5";
+
+    /**
+     * Create a repository which serves {@link #DATA} alongside the given checksums.
+     *
+     * @param sha256 The SHA-256 checksum of the data, or null if the repository does not serve SHA-256 checksums.
+     * @param sha1 The SHA-1 checksum of the data, or null if the repository does not serve SHA-1 checksums.
+     */
+    @NotNull
+    private static StubRepository checksumRepository(@NotNull String id, @Nullable String sha256, @Nullable String sha1) {
+        return new StubRepository(id, (path) -> {
+            if (path.endsWith(".sha256") || path.endsWith(".sha1")) {
+                String checksum = path.endsWith(".sha256") ? sha256 : sha1;
+
+                if (checksum == null) {
+                    return JavaInterop.failedFuture(new IOException("No checksum"));
+                }
+
+                return CompletableFuture.completedFuture((checksum + "  data.jar\n").getBytes(StandardCharsets.US_ASCII));
+            } else if (path.endsWith(".md5")) {
+                return JavaInterop.failedFuture(new IOException("No checksum"));
+            }
+
+            return CompletableFuture.completedFuture(ChecksumVerificationTest.DATA);
+        });
+    }
+
+    @Test
+    public void testChecksumPolicies() throws IOException {
+        Path mavenLocal = Files.createTempDirectory("picoresolve-checksum-local");
+        String path = "org/example/data/1.0/data-1.0.jar";
+
+        try {
+            // A mismatching checksum fails over to the next repository
+            MavenLocalRepositoryNegotiator negotiator = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .setChecksumPolicy(ChecksumPolicy.STRICT)
+                    .addRepository(ChecksumVerificationTest.checksumRepository("corrupt", null, "0000000000000000000000000000000000000000"))
+                    .addRepository(ChecksumVerificationTest.checksumRepository("valid", null, ChecksumVerificationTest.DATA_SHA1.toUpperCase()));
+
+            RepositoryAttachedValue<Path> rav = negotiator.resolveStandard(path, Runnable::run).join();
+            MavenRepository origin = rav.getRepository();
+            assertNotNull(origin);
+            assertEquals("valid", origin.getRepositoryId());
+            assertArrayEquals(ChecksumVerificationTest.DATA, Files.readAllBytes(rav.getValue()));
+            FileDeleter.deleteDir(mavenLocal.resolve("org"));
+
+            // SHA-256 checksums are preferred over SHA-1 checksums
+            MavenLocalRepositoryNegotiator sha256 = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .setChecksumPolicy(ChecksumPolicy.STRICT)
+                    .addRepository(ChecksumVerificationTest.checksumRepository("sha256", ChecksumVerificationTest.DATA_SHA256, "0000000000000000000000000000000000000000"));
+            assertArrayEquals(ChecksumVerificationTest.DATA, Files.readAllBytes(sha256.resolveStandard(path, Runnable::run).join().getValue()));
+            FileDeleter.deleteDir(mavenLocal.resolve("org"));
+
+            // Only the checksum file of the algorithm the repository served before is requested
+            StubRepository sha1Repository = ChecksumVerificationTest.checksumRepository("sha1", null, ChecksumVerificationTest.DATA_SHA1);
+            MavenLocalRepositoryNegotiator sha1 = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .setChecksumPolicy(ChecksumPolicy.STRICT)
+                    .addRepository(sha1Repository);
+            sha1.resolveStandard(path, Runnable::run).join();
+            sha1Repository.getRequests().clear();
+            assertArrayEquals(ChecksumVerificationTest.DATA, Files.readAllBytes(sha1.resolveStandard("org/example/data/1.1/data-1.1.jar", Runnable::run).join().getValue()));
+            assertEquals(Arrays.asList("org/example/data/1.1/data-1.1.jar.sha1", "org/example/data/1.1/data-1.1.jar"), sha1Repository.getRequests());
+            FileDeleter.deleteDir(mavenLocal.resolve("org"));
+
+            // Missing checksums are rejected by the strict policy
+            MavenLocalRepositoryNegotiator strictMissing = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .setChecksumPolicy(ChecksumPolicy.STRICT)
+                    .addRepository(ChecksumVerificationTest.checksumRepository("unchecked", null, null));
+            assertThrows(CompletionException.class, () -> strictMissing.resolveStandard(path, Runnable::run).join());
+
+            // But accepted by the warn policy, like mismatching checksums
+            MavenLocalRepositoryNegotiator warn = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .setChecksumPolicy(ChecksumPolicy.WARN)
+                    .addRepository(ChecksumVerificationTest.checksumRepository("corrupt", null, "0000000000000000000000000000000000000000"));
+            warn.setLogger(new NOPLogger());
+            assertArrayEquals(ChecksumVerificationTest.DATA, Files.readAllBytes(warn.resolveStandard(path, Runnable::run).join().getValue()));
+        } finally {
+            FileDeleter.deleteDir(mavenLocal);
+        }
+    }
+}
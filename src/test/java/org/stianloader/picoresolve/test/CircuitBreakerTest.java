@@ -0,0 +1,137 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.stianloader.picoresolve.internal.JavaInterop;
+import org.stianloader.picoresolve.repo.ChecksumPolicy;
+import org.stianloader.picoresolve.repo.MavenLocalRepositoryNegotiator;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+import org.stianloader.picoresolve.test.util.FileDeleter;
+import org.stianloader.picoresolve.test.util.StubRepository;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class CircuitBreakerTest {
+
+    /**
+     * Create a repository which refuses all connections while it is down.
+     */
+    @NotNull
+    private static StubRepository flakyRepository(@NotNull String id, byte @NotNull[] data, @NotNull AtomicBoolean down) {
+        return new StubRepository(id, (path) -> {
+            if (down.get()) {
+                return JavaInterop.failedFuture(new ConnectException("Connection refused"));
+            }
+
+            return CompletableFuture.completedFuture(data);
+        });
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    public void testCircuitBreaker() throws IOException, InterruptedException {
+        Path mavenLocal = Files.createTempDirectory("picoresolve-circuit-local");
+        byte[] data = "circuit".getBytes(StandardCharsets.UTF_8);
+
+        try {
+            AtomicBoolean down = new AtomicBoolean(true);
+            StubRepository flaky = CircuitBreakerTest.flakyRepository("flaky", data, down);
+            StubRepository fallback = CircuitBreakerTest.flakyRepository("fallback", data, new AtomicBoolean());
+            MavenLocalRepositoryNegotiator negotiator = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .addRepository(flaky)
+                    .addRepository(fallback)
+                    .setChecksumPolicy(ChecksumPolicy.OFF)
+                    .setCircuitBreaker(2, 200L);
+
+            for (int i = 0; i < 4; i++) {
+                Path resolved = negotiator.resolveStandard("org/example/circuit/1." + i + "/circuit-1." + i + ".jar", Runnable::run).join().getValue();
+                assertArrayEquals(data, Files.readAllBytes(resolved));
+            }
+
+            // The flaky repository is skipped once the breaker opened
+            assertEquals(2, flaky.getRequests().size());
+            assertEquals(4, fallback.getRequests().size());
+            assertTrue(negotiator.isCircuitOpen("flaky"));
+
+            // After the cooldown a probe is let through, closing the breaker again as the repository recovered
+            down.set(false);
+            Thread.sleep(250L);
+            negotiator.resolveStandard("org/example/circuit/2.0/circuit-2.0.jar", Runnable::run).join();
+            assertEquals(3, flaky.getRequests().size());
+            assertEquals(4, fallback.getRequests().size());
+            assertFalse(negotiator.isCircuitOpen("flaky"));
+        } finally {
+            FileDeleter.deleteDir(mavenLocal);
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    public void testServerErrorsAndTimeouts() throws IOException {
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ExecutorService serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", (exchange) -> {
+            if (exchange.getRequestURI().getPath().startsWith("/broken/")) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+
+            // Stall all other requests until the test is over
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+
+        Path mavenLocal = Files.createTempDirectory("picoresolve-circuit-local");
+
+        try {
+            URI base = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+            MavenLocalRepositoryNegotiator negotiator = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .addRepository(new URIMavenRepository("broken", base.resolve("broken/")))
+                    .addRepository(new URIMavenRepository("stalling", base.resolve("stalling/")).setReadTimeout(200))
+                    .setChecksumPolicy(ChecksumPolicy.OFF)
+                    .setCircuitBreaker(1, 60_000L);
+
+            assertThrows(CompletionException.class, () -> negotiator.resolveStandard("org/example/circuit/1.0/circuit-1.0.jar", Runnable::run).join());
+
+            // Both server errors and timeouts count as the repository being unavailable
+            assertTrue(negotiator.isCircuitOpen("broken"));
+            assertTrue(negotiator.isCircuitOpen("stalling"));
+        } finally {
+            release.countDown();
+            server.stop(0);
+            serverExecutor.shutdownNow();
+            FileDeleter.deleteDir(mavenLocal);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.stianloader.picoresolve.repo.ConcurrencyLimitedMavenRepository;
+import org.stianloader.picoresolve.repo.RepositoryAttachedValue;
+import org.stianloader.picoresolve.test.util.StubRepository;
+
+public class ConcurrencyLimitedRepositoryTest {
+
+    /**
+     * Create a repository whose requests only complete once the test completes them.
+     */
+    @NotNull
+    private static StubRepository pendingRepository(@NotNull List<@NotNull CompletableFuture<byte[]>> requests) {
+        return new StubRepository("pending", (path) -> {
+            CompletableFuture<byte[]> future = new CompletableFuture<>();
+            requests.add(future);
+            return future;
+        });
+    }
+
+    @Test
+    public void testCancelledWhileQueued() {
+        List<@NotNull CompletableFuture<byte[]>> requests = new ArrayList<>();
+        StubRepository delegate = ConcurrencyLimitedRepositoryTest.pendingRepository(requests);
+        ConcurrencyLimitedMavenRepository repository = new ConcurrencyLimitedMavenRepository(delegate, 1);
+
+        repository.getResource("a", Runnable::run);
+        repository.getResource("b", Runnable::run).cancel(false);
+
+        // "b" no longer occupies the queue
+        assertEquals(0, repository.getQueueDepth());
+
+        CompletableFuture<RepositoryAttachedValue<byte[]>> c = repository.getResource("c", Runnable::run);
+        assertEquals(1, repository.getQueueDepth());
+
+        requests.get(0).complete(new byte[0]);
+
+        // "b" never reaches the delegate
+        assertEquals(2, delegate.getRequests().size());
+        assertEquals("c", delegate.getRequests().get(1));
+        assertEquals(1, repository.getInFlight());
+
+        requests.get(1).complete(new byte[0]);
+        assertTrue(c.isDone());
+        assertEquals(0, repository.getInFlight());
+    }
+
+    @Test
+    public void testLimit() {
+        List<@NotNull CompletableFuture<byte[]>> requests = new ArrayList<>();
+        StubRepository delegate = ConcurrencyLimitedRepositoryTest.pendingRepository(requests);
+        ConcurrencyLimitedMavenRepository repository = new ConcurrencyLimitedMavenRepository(delegate, 2);
+        List<CompletableFuture<RepositoryAttachedValue<byte[]>>> results = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            results.add(repository.getResource(Integer.toString(i), Runnable::run));
+        }
+
+        assertEquals(2, delegate.getRequests().size());
+        assertEquals(2, repository.getInFlight());
+        assertEquals(3, repository.getQueueDepth());
+
+        requests.get(1).complete(new byte[0]);
+        assertTrue(results.get(1).isDone());
+        assertFalse(results.get(0).isDone());
+        assertSame(repository, results.get(1).join().getRepository());
+
+        // Queued requests are dispatched in FIFO order
+        assertEquals(3, delegate.getRequests().size());
+        assertEquals("2", delegate.getRequests().get(2));
+        assertEquals(2, repository.getInFlight());
+        assertEquals(2, repository.getQueueDepth());
+
+        for (int i = 0; i < 5; i++) {
+            if (!requests.get(i).isDone()) {
+                requests.get(i).complete(new byte[0]);
+            }
+        }
+
+        assertEquals(5, delegate.getRequests().size());
+        assertEquals(0, repository.getInFlight());
+        assertEquals(0, repository.getQueueDepth());
+        for (CompletableFuture<RepositoryAttachedValue<byte[]>> result : results) {
+            assertTrue(result.isDone());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.stianloader.picoresolve.repo.ConditionalResource;
+import org.stianloader.picoresolve.repo.MavenLocalRepositoryNegotiator;
+import org.stianloader.picoresolve.repo.RepositoryAttachedValue;
+import org.stianloader.picoresolve.test.util.FileDeleter;
+import org.stianloader.picoresolve.test.util.StubRepository;
+
+public class ConditionalRequestTest {
+
+    private static class RevalidatingRepository extends StubRepository {
+        private byte @NotNull[] data = "v1".getBytes(StandardCharsets.UTF_8);
+        private final List<@Nullable String> receivedETags = new ArrayList<>();
+
+        private RevalidatingRepository() {
+            // Always revalidate
+            super("revalidating", -1, (path) -> {
+                throw new AssertionError("Metadata should be fetched through conditional requests");
+            });
+        }
+
+        @Override
+        @NotNull
+        public CompletableFuture<RepositoryAttachedValue<ConditionalResource>> getResourceIfModified(@NotNull String path, @Nullable String etag, @Nullable String lastModified, @NotNull Executor executor) {
+            String currentETag = "\"" + new String(this.data, StandardCharsets.UTF_8) + "\"";
+            this.receivedETags.add(etag);
+
+            if (currentETag.equals(etag)) {
+                return CompletableFuture.completedFuture(new RepositoryAttachedValue<>(this, new ConditionalResource(null, etag, lastModified)));
+            }
+
+            return CompletableFuture.completedFuture(new RepositoryAttachedValue<>(this, new ConditionalResource(this.data, currentETag, null)));
+        }
+    }
+
+    @Test
+    public void testRevalidation() throws IOException {
+        Path mavenLocal = Files.createTempDirectory("picoresolve-conditional-local");
+        String path = "org/example/revalidated/maven-metadata.xml";
+        Path cached = mavenLocal.resolve("org/example/revalidated/maven-metadata-revalidating.xml");
+        Path status = mavenLocal.resolve("org/example/revalidated/resolver-status.properties");
+
+        try {
+            RevalidatingRepository remote = new RevalidatingRepository();
+            MavenLocalRepositoryNegotiator negotiator = new MavenLocalRepositoryNegotiator(mavenLocal).addRepository(remote);
+
+            negotiator.resolveMavenMeta(path, Runnable::run).join();
+            assertNull(remote.receivedETags.get(0));
+            assertArrayEquals("v1".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(cached));
+
+            Properties properties = new Properties();
+            try (InputStream is = Files.newInputStream(status)) {
+                properties.load(is);
+            }
+            assertEquals("\"v1\"", properties.getProperty("maven-metadata-revalidating.xml.etag"));
+            long lastUpdated = Long.parseLong(properties.getProperty("maven-metadata-revalidating.xml.lastUpdated"));
+
+            // Not modified: The cached file is kept, the timestamp is refreshed
+            long fileTime = Files.getLastModifiedTime(cached).toMillis();
+            negotiator.resolveMavenMeta(path, Runnable::run).join();
+            assertEquals("\"v1\"", remote.receivedETags.get(1));
+            assertArrayEquals("v1".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(cached));
+            assertEquals(fileTime, Files.getLastModifiedTime(cached).toMillis());
+
+            properties.clear();
+            try (InputStream is = Files.newInputStream(status)) {
+                properties.load(is);
+            }
+            assertTrue(Long.parseLong(properties.getProperty("maven-metadata-revalidating.xml.lastUpdated")) >= lastUpdated);
+
+            // Modified: The cached file and the validators are replaced
+            remote.data = "v2".getBytes(StandardCharsets.UTF_8);
+            negotiator.resolveMavenMeta(path, Runnable::run).join();
+            assertEquals("\"v1\"", remote.receivedETags.get(2));
+            assertArrayEquals("v2".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(cached));
+
+            properties.clear();
+            try (InputStream is = Files.newInputStream(status)) {
+                properties.load(is);
+            }
+            assertEquals("\"v2\"", properties.getProperty("maven-metadata-revalidating.xml.etag"));
+        } finally {
+            FileDeleter.deleteDir(mavenLocal);
+        }
+    }
+}
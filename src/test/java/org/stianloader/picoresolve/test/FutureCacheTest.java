@@ -0,0 +1,108 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.stianloader.picoresolve.internal.FutureCache;
+import org.stianloader.picoresolve.internal.JavaInterop;
+
+public class FutureCacheTest {
+
+    @Test
+    public void testCancellation() {
+        FutureCache<String, String> cache = new FutureCache<>(16);
+        CompletableFuture<String> source = new CompletableFuture<>();
+
+        CompletableFuture<String> first = cache.get("a", (key) -> source);
+        CompletableFuture<String> second = cache.get("a", (key) -> new CompletableFuture<>());
+
+        // The load continues as long as any requester is left
+        first.cancel(true);
+        assertFalse(source.isDone());
+        assertFalse(second.isDone());
+
+        second.cancel(true);
+        assertTrue(source.isCancelled());
+        assertEquals(0, cache.size());
+        assertEquals("reloaded", cache.get("a", (key) -> CompletableFuture.completedFuture("reloaded")).join());
+    }
+
+    @Test
+    public void testExpiry() {
+        FutureCache<String, String> cache = new FutureCache<>(16, (value) -> 1, (value) -> value.equals("volatile") ? 0L : Long.MAX_VALUE);
+
+        CompletableFuture<String> volatileFuture = cache.get("a", (key) -> CompletableFuture.completedFuture("volatile"));
+        assertNotSame(volatileFuture, cache.get("a", (key) -> CompletableFuture.completedFuture("volatile")));
+
+        CompletableFuture<String> stableFuture = cache.get("b", (key) -> CompletableFuture.completedFuture("stable"));
+        assertSame(stableFuture, cache.get("b", (key) -> CompletableFuture.completedFuture("stable")));
+    }
+
+    @Test
+    public void testFailureEviction() {
+        FutureCache<String, String> cache = new FutureCache<>(16);
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<String> failed = cache.get("a", (key) -> {
+            loads.incrementAndGet();
+            return JavaInterop.failedFuture(new IllegalStateException());
+        });
+
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(0, cache.size());
+
+        CompletableFuture<String> succeeded = cache.get("a", (key) -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("a");
+        });
+
+        assertEquals("a", succeeded.join());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testInflightSharing() {
+        FutureCache<String, String> cache = new FutureCache<>(16);
+        CompletableFuture<String> source = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<String> first = cache.get("a", (key) -> {
+            loads.incrementAndGet();
+            return source;
+        });
+        CompletableFuture<String> second = cache.get("a", (key) -> {
+            loads.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+
+        assertEquals(1, loads.get());
+        source.complete("value");
+        assertEquals("value", first.join());
+        assertEquals("value", second.join());
+    }
+
+    @Test
+    public void testWeightEviction() {
+        FutureCache<String, String> cache = new FutureCache<>(10, String::length);
+
+        cache.get("a", (key) -> CompletableFuture.completedFuture("aaaa"));
+        cache.get("b", (key) -> CompletableFuture.completedFuture("bbbb"));
+        assertEquals(8, cache.getTotalWeight());
+
+        // Accessing "a" makes "b" the least recently used entry
+        cache.get("a", (key) -> CompletableFuture.completedFuture("unused"));
+        cache.get("c", (key) -> CompletableFuture.completedFuture("cccc"));
+
+        assertEquals(2, cache.size());
+        assertEquals(8, cache.getTotalWeight());
+        assertEquals("aaaa", cache.get("a", (key) -> CompletableFuture.completedFuture("reloaded")).join());
+        assertEquals("reloaded", cache.get("b", (key) -> CompletableFuture.completedFuture("reloaded")).join());
+    }
+}
@@ -0,0 +1,59 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.stianloader.picoresolve.repo.ChecksumPolicy;
+import org.stianloader.picoresolve.repo.MavenLocalRepositoryNegotiator;
+import org.stianloader.picoresolve.test.util.FileDeleter;
+import org.stianloader.picoresolve.test.util.StubRepository;
+
+public class HedgedFetchTest {
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    public void testHedging() throws IOException {
+        Path mavenLocal = Files.createTempDirectory("picoresolve-hedging-local");
+        byte[] data = "hedged".getBytes(StandardCharsets.UTF_8);
+
+        try {
+            // The stalled repository is hedged against after the delay
+            StubRepository stalled = new StubRepository("stalled", (path) -> new CompletableFuture<>());
+            StubRepository fallback = new StubRepository("fallback", (path) -> CompletableFuture.completedFuture(data));
+            MavenLocalRepositoryNegotiator negotiator = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .addRepository(stalled)
+                    .addRepository(fallback)
+                    .setChecksumPolicy(ChecksumPolicy.OFF)
+                    .setHedgingDelay(50L);
+
+            Path resolved = negotiator.resolveStandard("org/example/hedged/1.0/hedged-1.0.jar", Runnable::run).join().getValue();
+            assertArrayEquals(data, Files.readAllBytes(resolved));
+            assertEquals(1, stalled.getRequests().size());
+            assertEquals(1, fallback.getRequests().size());
+
+            // The secondary repository is not queried if the primary repository serves the file in time
+            StubRepository primary = new StubRepository("primary", (path) -> CompletableFuture.completedFuture(data));
+            StubRepository secondary = new StubRepository("secondary", (path) -> CompletableFuture.completedFuture(data));
+            negotiator = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .addRepository(primary)
+                    .addRepository(secondary)
+                    .setChecksumPolicy(ChecksumPolicy.OFF);
+
+            resolved = negotiator.resolveStandard("org/example/primary/1.0/primary-1.0.jar", Runnable::run).join().getValue();
+            assertArrayEquals(data, Files.readAllBytes(resolved));
+            assertEquals(1, primary.getRequests().size());
+            assertEquals(0, secondary.getRequests().size());
+        } finally {
+            FileDeleter.deleteDir(mavenLocal);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.stianloader.picoresolve.internal.MultiCompletableFuture;
+import org.stianloader.picoresolve.internal.StronglyMultiCompletableFuture;
+
+/**
+ * Completes the sources of the combinators concurrently from multiple threads, checking that the combinators
+ * complete exactly once all (or the first successful) sources completed, with the expected value.
+ */
+public class MultiCompletableFutureStressTest {
+
+    private static final int ITERATIONS = 2000;
+    private static final int THREADS = 4;
+
+    /**
+     * Complete the given sources from {@link #THREADS} threads at once, completing source <code>i</code>
+     * exceptionally if <code>failures[i]</code> is set and with the value <code>i</code> otherwise.
+     */
+    private static void race(ExecutorService executor, List<CompletableFuture<Integer>> sources, boolean[] failures) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(MultiCompletableFutureStressTest.THREADS);
+
+        for (int thread = 0; thread < MultiCompletableFutureStressTest.THREADS; thread++) {
+            int offset = thread;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = offset; i < sources.size(); i += MultiCompletableFutureStressTest.THREADS) {
+                        if (failures[i]) {
+                            sources.get(i).completeExceptionally(new IllegalStateException("Source " + i));
+                        } else {
+                            sources.get(i).complete(i);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testMultiCompletableFuture() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(MultiCompletableFutureStressTest.THREADS);
+        Random random = new Random(0L);
+
+        try {
+            for (int iteration = 0; iteration < MultiCompletableFutureStressTest.ITERATIONS; iteration++) {
+                int width = 1 + random.nextInt(32);
+                boolean allFailed = random.nextInt(4) == 0;
+                boolean[] failures = new boolean[width];
+                List<CompletableFuture<Integer>> sources = new ArrayList<>();
+
+                for (int i = 0; i < width; i++) {
+                    failures[i] = allFailed || random.nextBoolean();
+                    sources.add(new CompletableFuture<>());
+                }
+
+                MultiCompletableFuture<Integer> combined = new MultiCompletableFuture<>(sources);
+                MultiCompletableFutureStressTest.race(executor, sources, failures);
+
+                // The combined future completes synchronously with the last relevant source
+                assertTrue(combined.isDone());
+
+                boolean anySuccess = false;
+                for (boolean failure : failures) {
+                    anySuccess |= !failure;
+                }
+
+                if (anySuccess) {
+                    int winner = combined.join();
+                    assertFalse(failures[winner], "Completed with the value of a failed source");
+                } else {
+                    CompletionException e = assertThrows(CompletionException.class, combined::join);
+                    assertEquals(width, e.getSuppressed().length);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStronglyMultiCompletableFuture() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(MultiCompletableFutureStressTest.THREADS);
+        Random random = new Random(0L);
+
+        try {
+            for (int iteration = 0; iteration < MultiCompletableFutureStressTest.ITERATIONS; iteration++) {
+                int width = 1 + random.nextInt(32);
+                boolean allFailed = random.nextInt(4) == 0;
+                boolean[] failures = new boolean[width];
+                List<CompletableFuture<Integer>> sources = new ArrayList<>();
+                List<Integer> expected = new ArrayList<>();
+
+                for (int i = 0; i < width; i++) {
+                    failures[i] = allFailed || random.nextInt(8) == 0;
+                    sources.add(new CompletableFuture<>());
+
+                    if (!failures[i]) {
+                        expected.add(i);
+                    }
+                }
+
+                StronglyMultiCompletableFuture<Integer> combined = new StronglyMultiCompletableFuture<>(sources);
+                MultiCompletableFutureStressTest.race(executor, sources, failures);
+
+                assertTrue(combined.isDone());
+
+                if (expected.isEmpty()) {
+                    CompletionException e = assertThrows(CompletionException.class, combined::join);
+                    assertEquals(width, e.getSuppressed().length);
+                } else {
+                    // Results are reported in the order of the sources regardless of the order of completion
+                    assertEquals(expected, combined.join());
+
+                    if (expected.size() == width) {
+                        combined.throwExceptionIfCompletedUncleanly();
+                    } else {
+                        CompletionException e = assertThrows(CompletionException.class, combined::throwExceptionIfCompletedUncleanly);
+                        assertEquals(width - expected.size(), e.getSuppressed().length);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.stianloader.picoresolve.internal.HttpTransport;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+
+/**
+ * Ensures that the tests run against the packaged jar exercise the multi-release variants of the transport
+ * rather than the Java 8 fallback.
+ */
+@EnabledIfSystemProperty(named = "picoresolve.test.packaged", matches = "true")
+public class MultiReleaseJarTest {
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_11)
+    public void testNonBlockingTransport() {
+        assertTrue(HttpTransport.isSupported(URI.create("http://127.0.0.1/")), "The Java 11 variant of HttpTransport was not loaded");
+    }
+
+    @Test
+    public void testOverriddenGetResource0() {
+        byte[] data = "overridden".getBytes(StandardCharsets.UTF_8);
+        URIMavenRepository repository = new URIMavenRepository("overriding", URI.create("http://127.0.0.1:1/")) {
+            @Override
+            protected byte @NotNull[] getResource0(@NotNull String path) {
+                return data;
+            }
+        };
+
+        // Subclasses overriding getResource0 may not be bypassed by the non-blocking transport
+        assertArrayEquals(data, repository.getResource("example.txt", Runnable::run).join().getValue());
+    }
+}
@@ -0,0 +1,59 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Test;
+import org.stianloader.picoresolve.repo.MavenLocalRepositoryNegotiator;
+import org.stianloader.picoresolve.repo.ResourceNotFoundException;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+import org.stianloader.picoresolve.test.util.FileDeleter;
+
+public class NotFoundTest {
+
+    private static boolean isNotFound(Throwable t) {
+        for (; t != null; t = t.getCause()) {
+            if (t instanceof ResourceNotFoundException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testStacklessMisses() throws IOException {
+        Path repository = Files.createTempDirectory("picoresolve-notfound-repo");
+        Path mavenLocal = Files.createTempDirectory("picoresolve-notfound-local");
+
+        try {
+            MavenLocalRepositoryNegotiator negotiator = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .addRepository(new URIMavenRepository("first", repository.resolve("first").toUri()))
+                    .addRepository(new URIMavenRepository("second", repository.resolve("second").toUri()));
+
+            CompletionException e = assertThrows(CompletionException.class, () -> negotiator.resolveStandard("org/example/missing/1.0/missing-1.0.jar", Runnable::run).join());
+            // Expected misses are reported without capturing stack traces anywhere along the way
+            assertEquals(0, e.getStackTrace().length);
+            assertEquals(2, e.getSuppressed().length);
+
+            for (Throwable miss : e.getSuppressed()) {
+                assertTrue(NotFoundTest.isNotFound(miss), () -> "Not reported as a miss: " + miss);
+
+                for (Throwable t = miss; t != null; t = t.getCause()) {
+                    assertEquals(0, t.getStackTrace().length, "Stack trace recorded by " + t);
+                }
+            }
+
+            CompletionException repeated = assertThrows(CompletionException.class, () -> negotiator.resolveStandard("org/example/missing/1.0/missing-1.0.jar", Runnable::run).join());
+            assertEquals(0, repeated.getStackTrace().length);
+        } finally {
+            FileDeleter.deleteDir(repository);
+            FileDeleter.deleteDir(mavenLocal);
+        }
+    }
+}
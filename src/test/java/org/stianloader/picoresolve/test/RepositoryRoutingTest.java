@@ -0,0 +1,133 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.stianloader.picoresolve.internal.JavaInterop;
+import org.stianloader.picoresolve.repo.ChecksumPolicy;
+import org.stianloader.picoresolve.repo.MavenLocalRepositoryNegotiator;
+import org.stianloader.picoresolve.repo.RepositoryRoutingRules;
+import org.stianloader.picoresolve.repo.RepositoryStatistics;
+import org.stianloader.picoresolve.repo.ResourceNotFoundException;
+import org.stianloader.picoresolve.test.util.FileDeleter;
+import org.stianloader.picoresolve.test.util.StubRepository;
+
+public class RepositoryRoutingTest {
+
+    /**
+     * Create a repository which only hosts the artifacts whose path starts with the given prefix.
+     */
+    @NotNull
+    private static StubRepository prefixRepository(@NotNull String id, @NotNull String hostedPrefix) {
+        return new StubRepository(id, (path) -> {
+            if (!path.startsWith(hostedPrefix)) {
+                return JavaInterop.failedFuture(new ResourceNotFoundException(path));
+            }
+
+            return CompletableFuture.completedFuture(id.getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    @Test
+    public void testLearnedMisses() throws IOException {
+        Path mavenLocal = Files.createTempDirectory("picoresolve-routing-local");
+
+        try {
+            StubRepository first = RepositoryRoutingTest.prefixRepository("first", "org/first/");
+            StubRepository second = RepositoryRoutingTest.prefixRepository("second", "org/second/");
+            MavenLocalRepositoryNegotiator negotiator = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .addRepository(first)
+                    .addRepository(second)
+                    .setChecksumPolicy(ChecksumPolicy.OFF)
+                    .setRoutingMissThreshold(2);
+
+            for (int i = 0; i < 4; i++) {
+                negotiator.resolveStandard("org/second/artifact" + i + "/1.0/artifact" + i + "-1.0.jar", Runnable::run).join();
+                negotiator.resolveStandard("org/first/artifact" + i + "/1.0/artifact" + i + "-1.0.jar", Runnable::run).join();
+            }
+
+            // After two misses, the first repository is no longer queried for artifacts of the second group.
+            // The second repository is never queried for artifacts of the first group, as the first repository
+            // completes synchronously and precedes the second repository
+            assertEquals(4 + 2, first.getRequests().size());
+            assertEquals(4, second.getRequests().size());
+        } finally {
+            FileDeleter.deleteDir(mavenLocal);
+        }
+    }
+
+    @Test
+    public void testRanking() throws IOException {
+        Path mavenLocal = Files.createTempDirectory("picoresolve-routing-local");
+
+        try {
+            StubRepository first = RepositoryRoutingTest.prefixRepository("first", "org/first/");
+            StubRepository second = RepositoryRoutingTest.prefixRepository("second", "org/second/");
+            MavenLocalRepositoryNegotiator negotiator = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .addRepository(first)
+                    .addRepository(second)
+                    .setChecksumPolicy(ChecksumPolicy.OFF)
+                    .setAdaptiveRanking(true);
+
+            for (int i = 0; i < 4; i++) {
+                negotiator.resolveStandard("org/second/artifact" + i + "/1.0/artifact" + i + "-1.0.jar", Runnable::run).join();
+            }
+
+            // The first repository is queried first until its hit rate for the group drops below the one of the second repository
+            assertEquals(1, first.getRequests().size());
+            assertEquals(4, second.getRequests().size());
+
+            // Statistics survive a round trip through the file system
+            Path statisticsFile = mavenLocal.resolve(RepositoryStatistics.DEFAULT_FILE_NAME);
+            negotiator.getStatistics().write(statisticsFile);
+            RepositoryStatistics statistics = new RepositoryStatistics();
+            statistics.read(statisticsFile);
+            assertEquals(negotiator.getStatistics().getHitRate("first", "org/second"), statistics.getHitRate("first", "org/second"));
+            assertEquals(negotiator.getStatistics().getHitRate("second", "org/second"), statistics.getHitRate("second", "org/second"));
+            assertEquals(negotiator.getStatistics().getErrorRate("second"), statistics.getErrorRate("second"));
+        } finally {
+            FileDeleter.deleteDir(mavenLocal);
+        }
+    }
+
+    @Test
+    public void testRules() throws IOException {
+        RepositoryRoutingRules rules = new RepositoryRoutingRules()
+                .includeGroup("org.example")
+                .excludeGroup("org.example.internal");
+
+        assertTrue(rules.isRouted("org/example/artifact/1.0/artifact-1.0.jar"));
+        assertTrue(rules.isRouted("org/example/sub/artifact/maven-metadata.xml"));
+        assertFalse(rules.isRouted("org/example/internal/artifact/1.0/artifact-1.0.jar"));
+        assertFalse(rules.isRouted("org/examples/artifact/1.0/artifact-1.0.jar"));
+        assertFalse(rules.isRouted("com/example/artifact/1.0/artifact-1.0.jar"));
+        assertTrue(new RepositoryRoutingRules().excludeGroup("com").isRouted("org/example/artifact/maven-metadata.xml"));
+
+        Path mavenLocal = Files.createTempDirectory("picoresolve-routing-local");
+
+        try {
+            StubRepository first = RepositoryRoutingTest.prefixRepository("first", "org/example/");
+            StubRepository second = RepositoryRoutingTest.prefixRepository("second", "org/example/");
+            MavenLocalRepositoryNegotiator negotiator = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .addRepository(first)
+                    .addRepository(second)
+                    .setChecksumPolicy(ChecksumPolicy.OFF)
+                    .setRoutingRules("first", rules);
+
+            negotiator.resolveStandard("org/example/internal/artifact/1.0/artifact-1.0.jar", Runnable::run).join();
+            assertTrue(first.getRequests().isEmpty());
+            assertEquals(1, second.getRequests().size());
+        } finally {
+            FileDeleter.deleteDir(mavenLocal);
+        }
+    }
+}
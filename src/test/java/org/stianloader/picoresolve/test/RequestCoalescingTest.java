@@ -0,0 +1,54 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.stianloader.picoresolve.repo.ChecksumPolicy;
+import org.stianloader.picoresolve.repo.MavenLocalRepositoryNegotiator;
+import org.stianloader.picoresolve.repo.RepositoryAttachedValue;
+import org.stianloader.picoresolve.test.util.FileDeleter;
+import org.stianloader.picoresolve.test.util.StubRepository;
+
+public class RequestCoalescingTest {
+
+    @Test
+    public void testCoalescing() throws IOException {
+        Path mavenLocal = Files.createTempDirectory("picoresolve-coalescing-local");
+        String path = "org/example/coalesced/1.0/coalesced-1.0.jar";
+
+        try {
+            CompletableFuture<byte[]> response = new CompletableFuture<>();
+            StubRepository remote = new StubRepository("pending", (ignored) -> response);
+            MavenLocalRepositoryNegotiator negotiator = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .addRepository(remote)
+                    .setChecksumPolicy(ChecksumPolicy.OFF);
+
+            CompletableFuture<RepositoryAttachedValue<Path>> first = negotiator.resolveStandard(path, Runnable::run);
+            CompletableFuture<RepositoryAttachedValue<Path>> second = negotiator.resolveStandard(path, Runnable::run);
+
+            assertFalse(first.isDone());
+            assertEquals(1, remote.getRequests().size());
+
+            // Cancelling one of the coalesced requests does not affect the other
+            first.cancel(true);
+            assertFalse(second.isDone());
+
+            response.complete("coalesced".getBytes(StandardCharsets.UTF_8));
+            assertArrayEquals("coalesced".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(second.join().getValue()));
+
+            // Completed requests are not shared with later requests
+            negotiator.resolveStandard(path, Runnable::run).join();
+            assertEquals(2, remote.getRequests().size());
+        } finally {
+            FileDeleter.deleteDir(mavenLocal);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.stianloader.picoresolve.ResolverExecutors;
+
+public class ResolverExecutorsTest {
+
+    @Test
+    public void testBoundedConcurrency() throws InterruptedException {
+        ExecutorService executor = ResolverExecutors.newBoundedExecutor(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < 16; i++) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(10L);
+                    } catch (InterruptedException e) {
+                        throw new AssertionError(e);
+                    }
+                    running.decrementAndGet();
+                }, executor));
+            }
+
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+            assertTrue(maxRunning.get() <= 2, () -> "Up to " + maxRunning.get() + " tasks ran at once");
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+        assertEquals(0, running.get());
+    }
+}
@@ -0,0 +1,184 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.stianloader.picoresolve.repo.ChecksumPolicy;
+import org.stianloader.picoresolve.repo.MavenLocalRepositoryNegotiator;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+import org.stianloader.picoresolve.test.util.FileDeleter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class ResumableDownloadTest {
+
+    private static final String ETAG = "\"resumable\"";
+    private static final String PATH = "/org/example/resumable/1.0/resumable-1.0.jar";
+
+    private static void send(HttpExchange exchange, int status, byte[] data, int offset, int length) throws IOException {
+        exchange.sendResponseHeaders(status, length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(data, offset, length);
+        }
+    }
+
+    @Test
+    public void testResume() throws IOException, NoSuchAlgorithmException {
+        byte[] data = new byte[256 * 1024];
+        new Random(0L).nextBytes(data);
+        StringBuilder sha1 = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-1").digest(data)) {
+            sha1.append(String.format("%02x", b & 0xFF));
+        }
+
+        List<@Nullable String> ranges = new ArrayList<>();
+        boolean[] interrupt = {true};
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", (exchange) -> {
+            String path = exchange.getRequestURI().getPath();
+
+            if (path.equals(ResumableDownloadTest.PATH + ".sha1")) {
+                ResumableDownloadTest.send(exchange, 200, sha1.toString().getBytes(StandardCharsets.US_ASCII), 0, sha1.length());
+                return;
+            } else if (!path.equals(ResumableDownloadTest.PATH)) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            synchronized (ranges) {
+                ranges.add(range);
+            }
+            exchange.getResponseHeaders().add("ETag", ResumableDownloadTest.ETAG);
+
+            if (range != null && ResumableDownloadTest.ETAG.equals(exchange.getRequestHeaders().getFirst("If-Range"))) {
+                int offset = Integer.parseInt(range.substring(6, range.length() - 1));
+                exchange.getResponseHeaders().add("Content-Range", "bytes " + offset + "-" + (data.length - 1) + "/" + data.length);
+                ResumableDownloadTest.send(exchange, 206, data, offset, data.length - offset);
+            } else if (interrupt[0]) {
+                // Drop the connection halfway through the transfer
+                interrupt[0] = false;
+                exchange.sendResponseHeaders(200, data.length);
+                OutputStream os = exchange.getResponseBody();
+                os.write(data, 0, data.length / 2);
+                os.flush();
+                exchange.close();
+            } else {
+                ResumableDownloadTest.send(exchange, 200, data, 0, data.length);
+            }
+        });
+        server.start();
+
+        Path mavenLocal = Files.createTempDirectory("picoresolve-resumable-local");
+
+        try {
+            URI base = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+            MavenLocalRepositoryNegotiator negotiator = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .addRepository(new URIMavenRepository("resumable", base))
+                    .setChecksumPolicy(ChecksumPolicy.STRICT);
+
+            assertThrows(CompletionException.class, () -> negotiator.resolveStandard(ResumableDownloadTest.PATH.substring(1), Runnable::run).join());
+            Path localFile = mavenLocal.resolve(ResumableDownloadTest.PATH.substring(1));
+            assertFalse(Files.exists(localFile));
+
+            // The second attempt only requests the missing bytes, which need to be verified alongside the bytes that are already present
+            Path resolved = negotiator.resolveStandard(ResumableDownloadTest.PATH.substring(1), Runnable::run).join().getValue();
+            assertArrayEquals(data, Files.readAllBytes(resolved));
+            assertEquals(2, ranges.size());
+            assertNull(ranges.get(0));
+            assertTrue(ranges.get(1) != null && ranges.get(1).startsWith("bytes="), () -> "Unexpected range " + ranges.get(1));
+            assertFalse(ranges.get(1).equals("bytes=0-"));
+
+            try (Stream<Path> siblings = Files.list(localFile.getParent())) {
+                siblings.forEach((sibling) -> {
+                    String name = sibling.getFileName().toString();
+                    assertFalse(name.endsWith(".part") || name.endsWith(".resume") || name.endsWith(".lock"), () -> "Stray file " + sibling);
+                });
+            }
+        } finally {
+            server.stop(0);
+            FileDeleter.deleteDir(mavenLocal);
+        }
+    }
+
+    @Test
+    public void testUnsatisfiableRange() throws IOException {
+        byte[] data = new byte[16 * 1024];
+        new Random(1L).nextBytes(data);
+
+        List<@Nullable String> ranges = new ArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", (exchange) -> {
+            if (!exchange.getRequestURI().getPath().equals(ResumableDownloadTest.PATH)) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            synchronized (ranges) {
+                ranges.add(range);
+            }
+            exchange.getResponseHeaders().add("ETag", ResumableDownloadTest.ETAG);
+
+            if (range != null) {
+                // The partially downloaded file is larger than the file on the remote
+                exchange.getResponseHeaders().add("Content-Range", "bytes */" + data.length);
+                exchange.sendResponseHeaders(416, -1);
+                exchange.close();
+            } else {
+                ResumableDownloadTest.send(exchange, 200, data, 0, data.length);
+            }
+        });
+        server.start();
+
+        Path mavenLocal = Files.createTempDirectory("picoresolve-resumable-local");
+
+        try {
+            URI base = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+            MavenLocalRepositoryNegotiator negotiator = new MavenLocalRepositoryNegotiator(mavenLocal)
+                    .addRepository(new URIMavenRepository("resumable", base))
+                    .setChecksumPolicy(ChecksumPolicy.OFF);
+
+            // Leave a stale partial download behind
+            Path localFile = mavenLocal.resolve(ResumableDownloadTest.PATH.substring(1));
+            Path partFile = localFile.resolveSibling(localFile.getFileName() + "-resumable.part");
+            Files.createDirectories(localFile.getParent());
+            Files.write(partFile, new byte[data.length * 2]);
+            Files.write(partFile.resolveSibling(partFile.getFileName() + ".resume"), ResumableDownloadTest.ETAG.getBytes(StandardCharsets.UTF_8));
+
+            // The stale partial file is discarded and the file is requested in full right away
+            Path resolved = negotiator.resolveStandard(ResumableDownloadTest.PATH.substring(1), Runnable::run).join().getValue();
+            assertArrayEquals(data, Files.readAllBytes(resolved));
+            assertEquals(2, ranges.size());
+            assertEquals("bytes=" + (data.length * 2) + "-", ranges.get(0));
+            assertNull(ranges.get(1));
+        } finally {
+            server.stop(0);
+            FileDeleter.deleteDir(mavenLocal);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.stianloader.picoresolve.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.stianloader.picoresolve.DependencyLayer;
+import org.stianloader.picoresolve.DependencyLayer.DependencyEdge;
+import org.stianloader.picoresolve.DependencyLayer.DependencyLayerElement;
+import org.stianloader.picoresolve.GAV;
+import org.stianloader.picoresolve.MavenResolver;
+import org.stianloader.picoresolve.ResolverExecutors;
+import org.stianloader.picoresolve.repo.URIMavenRepository;
+import org.stianloader.picoresolve.test.util.FileDeleter;
+import org.stianloader.picoresolve.test.util.NOPLogger;
+import org.stianloader.picoresolve.test.util.RepositoryGenerator;
+import org.stianloader.picoresolve.version.MavenVersion;
+
+public class SyntheticRepositoryTest {
+
+    /**
+     * Resolve the dependency graph of the given root artifact and flatten the resolved graph.
+     *
+     * @return A list containing the {@link GAV} of every resolved element, in layer order.
+     */
+    @NotNull
+    private static List<@NotNull GAV> resolve(@NotNull Path repository, @NotNull GAV root, boolean prefetch, boolean separateCompute) throws IOException {
+        Path mavenLocal = Files.createTempDirectory("picoresolve-synthetic-local");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        ExecutorService computeExecutor = separateCompute ? ResolverExecutors.newComputeExecutor() : null;
+
+        try {
+            MavenResolver resolver = new MavenResolver(mavenLocal)
+                    .addRepository(new URIMavenRepository("synthetic", repository.toUri()));
+            resolver.setLogger(new NOPLogger());
+            resolver.prefetchDependencies = prefetch;
+            resolver.setComputeExecutor(computeExecutor);
+
+            DependencyLayer layer = DependencyLayer.createLayerFor(new GAV("virtual-node", "virtual-node", MavenVersion.parse("")), root);
+            resolver.resolveAllChildren(layer, executor).join();
+
+            List<@NotNull GAV> elements = new ArrayList<>();
+
+            for (; layer != null; layer = layer.getChild()) {
+                for (DependencyLayerElement element : layer.elements) {
+                    elements.add(element.gav);
+
+                    for (DependencyEdge edge : element.outgoingEdges) {
+                        assertTrue(edge.isResolved(), () -> "Edge " + edge + " of " + element + " is not resolved");
+                    }
+                }
+            }
+
+            return elements;
+        } finally {
+            executor.shutdownNow();
+            if (computeExecutor != null) {
+                computeExecutor.shutdownNow();
+            }
+            FileDeleter.deleteDir(mavenLocal);
+        }
+    }
+
+    @Test
+    public void testDeterministicResolution() throws IOException {
+        RepositoryGenerator generator = new RepositoryGenerator()
+                .setDepth(5)
+                .setWidth(40)
+                .setFanOut(4)
+                .setParentChainLength(0)
+                .setBOMProbability(0.2D)
+                .setExclusionProbability(0.2D)
+                .setSnapshotProbability(0.1D)
+                .setSeed(1L);
+        Path repository = Files.createTempDirectory("picoresolve-synthetic-repo");
+
+        try {
+            GAV root = generator.generate(repository);
+            List<@NotNull GAV> first = SyntheticRepositoryTest.resolve(repository, root, false, false);
+            List<@NotNull GAV> second = SyntheticRepositoryTest.resolve(repository, root, false, false);
+            List<@NotNull GAV> prefetched = SyntheticRepositoryTest.resolve(repository, root, true, false);
+            List<@NotNull GAV> separated = SyntheticRepositoryTest.resolve(repository, root, true, true);
+
+            assertEquals(first, second);
+            // Speculative prefetching must not influence the outcome of the resolution process
+            assertEquals(first, prefetched);
+            // Neither may moving parsing and graph work to a dedicated compute executor
+            assertEquals(first, separated);
+        } finally {
+            FileDeleter.deleteDir(repository);
+        }
+    }
+
+    /**
+     * Resolves a graph that makes use of every feature of the generator. The full-scale variant of this graph
+     * (10 layers of 500 artifacts) is exercised by the "large" shape of the <code>ResolverBenchmark</code>.
+     */
+    @Test
+    public void testLargeGraph() throws IOException {
+        RepositoryGenerator generator = new RepositoryGenerator()
+                .setDepth(6)
+                .setWidth(100)
+                .setFanOut(4)
+                .setParentChainLength(3)
+                .setBOMProbability(0.05D)
+                .setExclusionProbability(0.05D)
+                .setSnapshotProbability(0.05D);
+        Path repository = Files.createTempDirectory("picoresolve-synthetic-repo");
+
+        try {
+            List<@NotNull GAV> elements = SyntheticRepositoryTest.resolve(repository, generator.generate(repository), true, true);
+            Set<String> artifacts = new HashSet<>();
+
+            for (GAV gav : elements) {
+                assertTrue(artifacts.add(gav.group() + ":" + gav.artifact()), () -> "Artifact " + gav + " was resolved multiple times");
+            }
+
+            // The virtual node and the root artifact, along with the majority of the generated artifacts
+            assertTrue(elements.size() > generator.getArtifactCount() / 2, () -> "Only " + elements.size() + " out of " + generator.getArtifactCount() + " artifacts were resolved");
+        } finally {
+            FileDeleter.deleteDir(repository);
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package org.stianloader.picoresolve.test.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.stianloader.picoresolve.GAV;
+import org.stianloader.picoresolve.version.MavenVersion;
+
+/**
+ * Writes a synthetic maven repository consisting of generated POMs and maven-metadata.xml files
+ * to the file system. The generated dependency graph is layered: The root artifact depends on all artifacts
+ * of the first layer, whose artifacts depend on artifacts of the second layer and so on.
+ * Artifacts of the last layer have no dependencies.
+ *
+ * <p>Next to plain dependencies, the generator can make use of parent POM chains (including placeholders
+ * that are defined in the parent POMs), BOM imports, version ranges, exclusions and snapshot versions.
+ * All of these features are disabled by default, except for version ranges.
+ *
+ * <p>Generation is deterministic, that is the same configuration (including the seed) always results in the
+ * same repository.
+ */
+public final class RepositoryGenerator {
+
+    @NotNull
+    private static final String BOM_ARTIFACT = "bom";
+
+    @NotNull
+    public static final String GROUP = "org.stianloader.picoresolve-generated";
+
+    @NotNull
+    private static final String PARENT_VERSION = "1.0.0";
+
+    @NotNull
+    private static final String SNAPSHOT_BUILD_NUMBER = "1";
+
+    @NotNull
+    private static final String SNAPSHOT_TIMESTAMP = "20240101.000000";
+
+    @NotNull
+    private static final String SNAPSHOT_VERSION = "2.0.0-SNAPSHOT";
+
+    @NotNull
+    private static final String @NotNull[] VERSIONS = {"1.0.0", "1.1.0", "1.2.0"};
+
+    private double bomProbability = 0D;
+    private int depth = 4;
+    private double exclusionProbability = 0D;
+    private int fanOut = 3;
+    private int parentChainLength = 0;
+    private double rangeProbability = 0.25D;
+    private long seed = 0L;
+    private double snapshotProbability = 0D;
+    private int width = 16;
+
+    @NotNull
+    private static String artifactId(int layer, int index) {
+        return "artifact-" + layer + "-" + index;
+    }
+
+    @NotNull
+    private static String parentArtifactId(int index) {
+        return "parent-" + index;
+    }
+
+    private void appendDependency(@NotNull StringBuilder out, @NotNull String indent, @NotNull String artifactId, @Nullable String version, @Nullable String scope, @Nullable String type, @Nullable String excludedArtifactId) {
+        out.append(indent).append("<dependency>\n")
+            .append(indent).append("  <groupId>").append(RepositoryGenerator.GROUP).append("</groupId>\n")
+            .append(indent).append("  <artifactId>").append(artifactId).append("</artifactId>\n");
+
+        if (version != null) {
+            out.append(indent).append("  <version>").append(version).append("</version>\n");
+        }
+
+        if (scope != null) {
+            out.append(indent).append("  <scope>").append(scope).append("</scope>\n");
+        }
+
+        if (type != null) {
+            out.append(indent).append("  <type>").append(type).append("</type>\n");
+        }
+
+        if (excludedArtifactId != null) {
+            out.append(indent).append("  <exclusions>\n")
+                .append(indent).append("    <exclusion>\n")
+                .append(indent).append("      <groupId>").append(RepositoryGenerator.GROUP).append("</groupId>\n")
+                .append(indent).append("      <artifactId>").append(excludedArtifactId).append("</artifactId>\n")
+                .append(indent).append("    </exclusion>\n")
+                .append(indent).append("  </exclusions>\n");
+        }
+
+        out.append(indent).append("</dependency>\n");
+    }
+
+    /**
+     * Write the repository to the given directory, creating it if necessary.
+     *
+     * @param repository The root directory of the repository.
+     * @return The {@link GAV} of the root artifact, which transitively depends on all other generated artifacts.
+     * @throws IOException If the files could not be written.
+     */
+    @NotNull
+    public GAV generate(@NotNull Path repository) throws IOException {
+        if (this.fanOut > this.width) {
+            throw new IllegalStateException("The fan-out (" + this.fanOut + ") may not exceed the width (" + this.width + ")");
+        }
+
+        Random random = new Random(this.seed);
+
+        this.writeParents(repository);
+        this.writeBOM(repository);
+
+        for (int layer = 0; layer <= this.depth; layer++) {
+            int artifacts = layer == 0 ? 1 : this.width;
+
+            for (int index = 0; index < artifacts; index++) {
+                String artifactId = RepositoryGenerator.artifactId(layer, index);
+                boolean importsBOM = layer != 0 && random.nextDouble() < this.bomProbability;
+                StringBuilder dependencies = new StringBuilder();
+
+                if (layer == 0) {
+                    for (int i = 0; i < this.width; i++) {
+                        this.appendDependency(dependencies, "    ", RepositoryGenerator.artifactId(1, i), RepositoryGenerator.VERSIONS[0], null, null, null);
+                    }
+                } else if (layer != this.depth) {
+                    Set<Integer> targets = new LinkedHashSet<>();
+
+                    while (targets.size() < this.fanOut) {
+                        targets.add(random.nextInt(this.width));
+                    }
+
+                    for (int target : targets) {
+                        String version;
+
+                        if (importsBOM) {
+                            version = null; // Managed by the BOM
+                        } else if (random.nextDouble() < this.snapshotProbability) {
+                            version = RepositoryGenerator.SNAPSHOT_VERSION;
+                        } else if (random.nextDouble() < this.rangeProbability) {
+                            version = "[1.0,2.0)";
+                        } else {
+                            int versionIndex = random.nextInt(RepositoryGenerator.VERSIONS.length);
+
+                            if (this.parentChainLength != 0 && versionIndex == 1) {
+                                // Defined by the topmost parent POM
+                                version = "${generated.version}";
+                            } else {
+                                version = RepositoryGenerator.VERSIONS[versionIndex];
+                            }
+                        }
+
+                        String excluded = null;
+
+                        if (layer + 1 != this.depth && random.nextDouble() < this.exclusionProbability) {
+                            excluded = RepositoryGenerator.artifactId(layer + 2, random.nextInt(this.width));
+                        }
+
+                        this.appendDependency(dependencies, "    ", RepositoryGenerator.artifactId(layer + 1, target), version, null, null, excluded);
+                    }
+                }
+
+                String dependencyManagement = "";
+
+                if (importsBOM) {
+                    StringBuilder builder = new StringBuilder("  <dependencyManagement>\n    <dependencies>\n");
+                    this.appendDependency(builder, "      ", RepositoryGenerator.BOM_ARTIFACT, RepositoryGenerator.VERSIONS[0], "import", "pom", null);
+                    dependencyManagement = builder.append("    </dependencies>\n  </dependencyManagement>\n").toString();
+                }
+
+                for (String version : RepositoryGenerator.VERSIONS) {
+                    this.write(repository, artifactId + "/" + version + "/" + artifactId + "-" + version + ".pom",
+                            this.pom(artifactId, version, dependencyManagement + "  <dependencies>\n" + dependencies + "  </dependencies>\n"));
+                }
+
+                if (this.snapshotProbability > 0D) {
+                    String basePath = artifactId + "/" + RepositoryGenerator.SNAPSHOT_VERSION + "/";
+                    String snapshotVersion = RepositoryGenerator.SNAPSHOT_VERSION.substring(0, RepositoryGenerator.SNAPSHOT_VERSION.length() - "-SNAPSHOT".length())
+                            + "-" + RepositoryGenerator.SNAPSHOT_TIMESTAMP + "-" + RepositoryGenerator.SNAPSHOT_BUILD_NUMBER;
+                    String snapshotLastUpdated = RepositoryGenerator.SNAPSHOT_TIMESTAMP.replace(".", "");
+
+                    this.write(repository, basePath + artifactId + "-" + snapshotVersion + ".pom",
+                            this.pom(artifactId, RepositoryGenerator.SNAPSHOT_VERSION, dependencyManagement + "  <dependencies>\n" + dependencies + "  </dependencies>\n"));
+                    this.write(repository, basePath + "maven-metadata.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                            + "<metadata modelVersion=\"1.1.0\">\n"
+                            + "  <groupId>" + RepositoryGenerator.GROUP + "</groupId>\n"
+                            + "  <artifactId>" + artifactId + "</artifactId>\n"
+                            + "  <version>" + RepositoryGenerator.SNAPSHOT_VERSION + "</version>\n"
+                            + "  <versioning>\n"
+                            + "    <snapshot>\n"
+                            + "      <timestamp>" + RepositoryGenerator.SNAPSHOT_TIMESTAMP + "</timestamp>\n"
+                            + "      <buildNumber>" + RepositoryGenerator.SNAPSHOT_BUILD_NUMBER + "</buildNumber>\n"
+                            + "    </snapshot>\n"
+                            + "    <lastUpdated>" + snapshotLastUpdated + "</lastUpdated>\n"
+                            + "    <snapshotVersions>\n"
+                            + "      <snapshotVersion>\n"
+                            + "        <extension>pom</extension>\n"
+                            + "        <value>" + snapshotVersion + "</value>\n"
+                            + "        <updated>" + snapshotLastUpdated + "</updated>\n"
+                            + "      </snapshotVersion>\n"
+                            + "    </snapshotVersions>\n"
+                            + "  </versioning>\n"
+                            + "</metadata>\n");
+                }
+
+                this.writeArtifactMetadata(repository, artifactId, RepositoryGenerator.VERSIONS);
+            }
+        }
+
+        return new GAV(RepositoryGenerator.GROUP, RepositoryGenerator.artifactId(0, 0), MavenVersion.parse(RepositoryGenerator.VERSIONS[0]));
+    }
+
+    /**
+     * Obtain the amount of artifacts in the dependency graph, including the root artifact but excluding
+     * parent POMs and BOMs.
+     *
+     * @return The amount of artifacts in the dependency graph
+     */
+    @Contract(pure = true)
+    public int getArtifactCount() {
+        return 1 + this.depth * this.width;
+    }
+
+    @NotNull
+    private String pom(@NotNull String artifactId, @NotNull String version, @NotNull String body) {
+        StringBuilder builder = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<project>\n")
+                .append("  <modelVersion>4.0.0</modelVersion>\n");
+
+        if (this.parentChainLength != 0) {
+            builder.append("  <parent>\n")
+                .append("    <groupId>").append(RepositoryGenerator.GROUP).append("</groupId>\n")
+                .append("    <artifactId>").append(RepositoryGenerator.parentArtifactId(this.parentChainLength - 1)).append("</artifactId>\n")
+                .append("    <version>").append(RepositoryGenerator.PARENT_VERSION).append("</version>\n")
+                .append("  </parent>\n");
+        }
+
+        return builder.append("  <groupId>").append(RepositoryGenerator.GROUP).append("</groupId>\n")
+                .append("  <artifactId>").append(artifactId).append("</artifactId>\n")
+                .append("  <version>").append(version).append("</version>\n")
+                .append(body)
+                .append("</project>\n")
+                .toString();
+    }
+
+    /**
+     * Set the probability of an artifact importing a BOM that manages the versions of all generated artifacts.
+     * Artifacts importing the BOM declare their dependencies without a version.
+     *
+     * @param bomProbability The probability, between 0 and 1.
+     * @return The current instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public RepositoryGenerator setBOMProbability(double bomProbability) {
+        this.bomProbability = bomProbability;
+        return this;
+    }
+
+    /**
+     * Set the amount of layers below the root artifact.
+     *
+     * @param depth The amount of layers
+     * @return The current instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public RepositoryGenerator setDepth(int depth) {
+        this.depth = depth;
+        return this;
+    }
+
+    /**
+     * Set the probability of a dependency excluding an artifact of the layer below the dependency.
+     *
+     * @param exclusionProbability The probability, between 0 and 1.
+     * @return The current instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public RepositoryGenerator setExclusionProbability(double exclusionProbability) {
+        this.exclusionProbability = exclusionProbability;
+        return this;
+    }
+
+    /**
+     * Set the amount of dependencies declared by every artifact that is neither the root artifact
+     * nor part of the last layer. The root artifact always depends on all artifacts of the first layer.
+     *
+     * @param fanOut The amount of dependencies per artifact
+     * @return The current instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public RepositoryGenerator setFanOut(int fanOut) {
+        this.fanOut = fanOut;
+        return this;
+    }
+
+    /**
+     * Set the length of the parent POM chain every generated artifact inherits from. A value of 0 means that
+     * the artifacts have no parent POM.
+     *
+     * @param parentChainLength The amount of parent POMs above each artifact
+     * @return The current instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public RepositoryGenerator setParentChainLength(int parentChainLength) {
+        this.parentChainLength = parentChainLength;
+        return this;
+    }
+
+    /**
+     * Set the probability of a dependency being declared using a version range instead of a pinned version.
+     *
+     * @param rangeProbability The probability, between 0 and 1.
+     * @return The current instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public RepositoryGenerator setRangeProbability(double rangeProbability) {
+        this.rangeProbability = rangeProbability;
+        return this;
+    }
+
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public RepositoryGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Set the probability of a dependency being declared using a snapshot version. If the probability is
+     * above 0, every artifact gets a snapshot version alongside the corresponding version-level metadata.
+     *
+     * @param snapshotProbability The probability, between 0 and 1.
+     * @return The current instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public RepositoryGenerator setSnapshotProbability(double snapshotProbability) {
+        this.snapshotProbability = snapshotProbability;
+        return this;
+    }
+
+    /**
+     * Set the amount of artifacts per layer (excluding the root layer, which only consists of the root artifact).
+     *
+     * @param width The amount of artifacts per layer
+     * @return The current instance, for chaining
+     */
+    @NotNull
+    @Contract(mutates = "this", pure = false, value = "_ -> this")
+    public RepositoryGenerator setWidth(int width) {
+        this.width = width;
+        return this;
+    }
+
+    private void write(@NotNull Path repository, @NotNull String path, @NotNull String contents) throws IOException {
+        Path file = repository.resolve(RepositoryGenerator.GROUP.replace('.', '/')).resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeArtifactMetadata(@NotNull Path repository, @NotNull String artifactId, @NotNull String @NotNull... versions) throws IOException {
+        StringBuilder metadata = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<metadata>\n")
+                .append("  <groupId>").append(RepositoryGenerator.GROUP).append("</groupId>\n")
+                .append("  <artifactId>").append(artifactId).append("</artifactId>\n")
+                .append("  <versioning>\n")
+                .append("    <latest>").append(versions[versions.length - 1]).append("</latest>\n")
+                .append("    <release>").append(versions[versions.length - 1]).append("</release>\n")
+                .append("    <versions>\n");
+
+        for (String version : versions) {
+            metadata.append("      <version>").append(version).append("</version>\n");
+        }
+
+        metadata.append("    </versions>\n")
+            .append("    <lastUpdated>20240101000000</lastUpdated>\n")
+            .append("  </versioning>\n")
+            .append("</metadata>\n");
+
+        this.write(repository, artifactId + "/maven-metadata.xml", metadata.toString());
+    }
+
+    private void writeBOM(@NotNull Path repository) throws IOException {
+        if (this.bomProbability <= 0D) {
+            return;
+        }
+
+        StringBuilder managed = new StringBuilder();
+
+        for (int layer = 1; layer <= this.depth; layer++) {
+            for (int index = 0; index < this.width; index++) {
+                this.appendDependency(managed, "      ", RepositoryGenerator.artifactId(layer, index), RepositoryGenerator.VERSIONS[RepositoryGenerator.VERSIONS.length - 1], null, null, null);
+            }
+        }
+
+        String version = RepositoryGenerator.VERSIONS[0];
+        String pom = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<project>\n"
+                + "  <modelVersion>4.0.0</modelVersion>\n"
+                + "  <groupId>" + RepositoryGenerator.GROUP + "</groupId>\n"
+                + "  <artifactId>" + RepositoryGenerator.BOM_ARTIFACT + "</artifactId>\n"
+                + "  <version>" + version + "</version>\n"
+                + "  <packaging>pom</packaging>\n"
+                + "  <dependencyManagement>\n"
+                + "    <dependencies>\n"
+                + managed
+                + "    </dependencies>\n"
+                + "  </dependencyManagement>\n"
+                + "</project>\n";
+
+        this.write(repository, RepositoryGenerator.BOM_ARTIFACT + "/" + version + "/" + RepositoryGenerator.BOM_ARTIFACT + "-" + version + ".pom", pom);
+        this.writeArtifactMetadata(repository, RepositoryGenerator.BOM_ARTIFACT, version);
+    }
+
+    private void writeParents(@NotNull Path repository) throws IOException {
+        for (int i = 0; i < this.parentChainLength; i++) {
+            String artifactId = RepositoryGenerator.parentArtifactId(i);
+            StringBuilder pom = new StringBuilder()
+                    .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                    .append("<project>\n")
+                    .append("  <modelVersion>4.0.0</modelVersion>\n");
+
+            if (i != 0) {
+                pom.append("  <parent>\n")
+                    .append("    <groupId>").append(RepositoryGenerator.GROUP).append("</groupId>\n")
+                    .append("    <artifactId>").append(RepositoryGenerator.parentArtifactId(i - 1)).append("</artifactId>\n")
+                    .append("    <version>").append(RepositoryGenerator.PARENT_VERSION).append("</version>\n")
+                    .append("  </parent>\n");
+            }
+
+            pom.append("  <groupId>").append(RepositoryGenerator.GROUP).append("</groupId>\n")
+                .append("  <artifactId>").append(artifactId).append("</artifactId>\n")
+                .append("  <version>").append(RepositoryGenerator.PARENT_VERSION).append("</version>\n")
+                .append("  <packaging>pom</packaging>\n")
+                .append("  <properties>\n");
+
+            if (i == 0) {
+                pom.append("    <generated.version>").append(RepositoryGenerator.VERSIONS[1]).append("</generated.version>\n");
+            }
+
+            pom.append("    <generated.parent.").append(i).append(">").append(artifactId).append("</generated.parent.").append(i).append(">\n")
+                .append("  </properties>\n")
+                .append("</project>\n");
+
+            this.write(repository, artifactId + "/" + RepositoryGenerator.PARENT_VERSION + "/" + artifactId + "-" + RepositoryGenerator.PARENT_VERSION + ".pom", pom.toString());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.stianloader.picoresolve.test.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.NotNull;
+import org.stianloader.picoresolve.repo.MavenRepository;
+import org.stianloader.picoresolve.repo.RepositoryAttachedValue;
+
+/**
+ * A {@link MavenRepository} which serves resources through a handler supplied by the test,
+ * recording the paths of all requested resources.
+ */
+public class StubRepository implements MavenRepository {
+    @NotNull
+    private final Function<@NotNull String, @NotNull CompletableFuture<byte[]>> handler;
+    @NotNull
+    private final String id;
+    @NotNull
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private final long updateIntervall;
+
+    public StubRepository(@NotNull String id, @NotNull Function<@NotNull String, @NotNull CompletableFuture<byte[]>> handler) {
+        this(id, 0, handler);
+    }
+
+    public StubRepository(@NotNull String id, long updateIntervall, @NotNull Function<@NotNull String, @NotNull CompletableFuture<byte[]>> handler) {
+        this.id = id;
+        this.updateIntervall = updateIntervall;
+        this.handler = handler;
+    }
+
+    /**
+     * Obtains the paths of all resources requested through {@link #getResource(String, Executor)} so far, in the order they were requested in.
+     * The returned list is synchronized and may be cleared.
+     *
+     * @return The requested paths
+     */
+    @NotNull
+    public List<String> getRequests() {
+        return this.requests;
+    }
+
+    @Override
+    @NotNull
+    public CompletableFuture<RepositoryAttachedValue<byte[]>> getResource(@NotNull String path, @NotNull Executor executor) {
+        this.requests.add(path);
+        return this.handler.apply(path).thenApply((data) -> new RepositoryAttachedValue<>(this, data));
+    }
+
+    @Override
+    @NotNull
+    public String getRepositoryId() {
+        return this.id;
+    }
+
+    @Override
+    @NotNull
+    public String getPlaintextURL() {
+        return this.id + "://";
+    }
+
+    @Override
+    public long getUpdateIntervall() {
+        return this.updateIntervall;
+    }
+}